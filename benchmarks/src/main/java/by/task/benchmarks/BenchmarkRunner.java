@@ -0,0 +1,28 @@
+package by.task.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Запускает JMH-бенчмарки и сохраняет результаты в JSON.
+ * Аргументы: регулярное выражение для отбора бенчмарков и путь к файлу результатов.
+ */
+public class BenchmarkRunner {
+    private static final String DEFAULT_INCLUDE = ".*Benchmark";
+    private static final String DEFAULT_RESULT = "target/jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : DEFAULT_INCLUDE;
+        String result = args.length > 1 ? args[1] : DEFAULT_RESULT;
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,465 @@
+package by.task.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Java-аналог {@code load-test/footprint.js}: footprint блокирующего user-service и user-service-reactive
+ * при большом числе одновременных клиентов. Каждый клиент — виртуальный поток этого процесса: читает
+ * пользователя по id и думает {@link #THINK}, как VU в k6. Клиенты подключаются равномерно за {@link #RAMP},
+ * затем держатся заданное время. Сервисы запускаются отдельными процессами из исполняемых jar
+ * на встроенных PostgreSQL и Kafka (KRaft) с одинаковым размером кучи и уровнем логов WARN.
+ * <p>
+ * Раз в {@link #PROBE_INTERVAL} на удержании снимаются потоки и RSS сервиса и его открытые сокеты
+ * (по {@code /proc}, только Linux), а также соединения с базой из {@code pg_stat_activity}: всего и занятые
+ * запросом. Аргументы — пути к jar блокирующего и реактивного сервисов, число клиентов, удержание в секундах
+ * и {@code -Xmx} сервисов:
+ * <pre>
+ * mvn -B install -DskipTests
+ * mvn -pl benchmarks exec:java@footprint -Dfootprint.clients=10000 -Dfootprint.seconds=120 -Dfootprint.heap=512m
+ * </pre>
+ * Процессу нужен лимит дескрипторов больше числа клиентов ({@code ulimit -n}), сервисам тоже.
+ */
+public class FootprintBenchmark {
+    private static final String DEFAULT_BLOCKING_JAR = "../user-service/target/user-service-1.0-SNAPSHOT-exec.jar";
+    private static final String DEFAULT_REACTIVE_JAR =
+            "../user-service-reactive/target/user-service-reactive-1.0-SNAPSHOT.jar";
+    private static final int DEFAULT_CLIENTS = 10_000;
+    private static final int DEFAULT_SECONDS = 120;
+    private static final String DEFAULT_HEAP = "512m";
+    private static final int ID_RANGE = 1000;
+    private static final Duration RAMP = Duration.ofSeconds(60);
+    private static final Duration THINK = Duration.ofSeconds(1);
+    private static final Duration PROBE_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final String DATABASE = "load";
+
+    public static void main(String[] args) throws Exception {
+        Path blockingJar = jar(args.length > 0 ? args[0] : DEFAULT_BLOCKING_JAR);
+        Path reactiveJar = jar(args.length > 1 ? args[1] : DEFAULT_REACTIVE_JAR);
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CLIENTS;
+        Duration hold = Duration.ofSeconds(args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_SECONDS);
+        String heap = args.length > 4 ? args[4] : DEFAULT_HEAP;
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(Level.WARN);
+
+        Path work = Files.createDirectories(Path.of("target", "footprint")).toAbsolutePath();
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 3);
+        broker.afterPropertiesSet();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            createDatabase(postgres, DATABASE);
+            List<String> common = List.of("--logging.level.by.task=WARN");
+            List<String> blocking = append(common,
+                    "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", DATABASE),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=postgres",
+                    "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString());
+            List<Variant> variants = List.of(
+                    new Variant("blocking", blockingJar, append(blocking,
+                            "--server.tomcat.max-connections=20000", "--server.tomcat.accept-count=1000")),
+                    new Variant("virtual", blockingJar, append(blocking, "--spring.profiles.active=virtual")),
+                    new Variant("reactive", reactiveJar, append(common,
+                            "--spring.r2dbc.url=r2dbc:postgresql://localhost:" + postgres.getPort() + "/" + DATABASE,
+                            "--spring.r2dbc.username=postgres",
+                            "--spring.r2dbc.password=postgres",
+                            "--user-events.producer.bootstrap.servers=" + broker.getBrokersAsString())));
+
+            DataSource database = postgres.getDatabase("postgres", DATABASE);
+            boolean seeded = false;
+            System.out.printf("%-9s %8s %9s %7s %9s %9s %8s %8s %8s %8s %8s %9s %8s %8s%n", "variant", "clients",
+                    "requests", "RPS", "p50 ms", "p99 ms", "http err", "io err", "threads", "RSS MB", "sockets",
+                    "db total", "db busy", "busy max");
+            for (Variant variant : variants) {
+                Process process = null;
+                try {
+                    int port = freePort();
+                    process = start(jvm(variant.jar(), heap), append(variant.arguments(), "--server.port=" + port),
+                            work.resolve(variant.name() + ".log"));
+                    String baseUrl = "http://localhost:" + port;
+                    awaitStarted(process, baseUrl);
+                    if (!seeded) {
+                        seed(baseUrl);
+                        seeded = true;
+                    }
+                    Result result = run(port, clients, hold, process, database);
+                    long[] latencies = result.latencies();
+                    List<Sample> samples = result.samples();
+                    System.out.printf("%-9s %8d %9d %7.0f %9.1f %9.1f %8d %8d %8d %8d %8d %9d %8.1f %8d%n",
+                            variant.name(), clients, latencies.length, latencies.length / (double) hold.toSeconds(),
+                            percentile(latencies, 0.50), percentile(latencies, 0.99), result.httpErrors(),
+                            result.ioErrors(),
+                            max(samples, Sample::threads), max(samples, Sample::rssKb) / 1024,
+                            max(samples, Sample::sockets), max(samples, Sample::dbTotal),
+                            samples.stream().mapToLong(Sample::dbBusy).average().orElse(Double.NaN),
+                            max(samples, Sample::dbBusy));
+                } finally {
+                    if (process != null) {
+                        process.destroy();
+                        if (!process.waitFor(STOP_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+                            // после OutOfMemoryError сервис может не завершиться по SIGTERM
+                            process.destroyForcibly().waitFor();
+                        }
+                    }
+                }
+            }
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    /**
+     * Подключает клиентов за {@link #RAMP} и держит их {@code hold}. Задержки считаются только
+     * на удержании, пока сервис опрашивает отдельный поток.
+     */
+    private static Result run(int port, int clientCount, Duration hold, Process process, DataSource database)
+            throws Exception {
+        long holdStart = System.nanoTime() + RAMP.toNanos();
+        long deadline = holdStart + hold.toNanos();
+        AtomicLong httpErrors = new AtomicLong();
+        AtomicLong ioErrors = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>(clientCount);
+        List<Sample> samples;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clientCount; client++) {
+                long startAt = System.nanoTime() + RAMP.toNanos() * client / clientCount;
+                futures.add(executor.submit(() -> client(port, startAt, holdStart, deadline, httpErrors, ioErrors)));
+            }
+            samples = probe(process, database, holdStart, deadline);
+        }
+        List<long[]> perClient = new ArrayList<>(clientCount);
+        for (Future<long[]> future : futures) {
+            perClient.add(future.get());
+        }
+        long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(latencies);
+        return new Result(latencies, httpErrors.get(), ioErrors.get(), samples);
+    }
+
+    /**
+     * Один клиент: ждёт своей очереди на подключение, затем читает пользователя и думает до дедлайна.
+     * Как VU в k6, клиент держит собственное keep-alive соединение и переоткрывает его, только если сервер
+     * его закрыл. Ответы кроме 200 и 404 (503 bulkhead'а, 500) считаются отдельно от таймаутов и разрывов.
+     *
+     * @return задержки успешных запросов на удержании в микросекундах
+     */
+    private static long[] client(int port, long startAt, long holdStart, long deadline, AtomicLong httpErrors,
+                                 AtomicLong ioErrors) throws InterruptedException {
+        Thread.sleep(Duration.ofNanos(Math.max(0, startAt - System.nanoTime())));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[256];
+        int count = 0;
+        KeepAliveConnection connection = new KeepAliveConnection(port);
+        try {
+            while (System.nanoTime() < deadline) {
+                long started = System.nanoTime();
+                int status;
+                try {
+                    status = connection.get("/api/users/" + (1 + random.nextInt(ID_RANGE)));
+                } catch (IOException e) {
+                    connection.close();
+                    status = -1;
+                }
+                boolean measured = started >= holdStart && System.nanoTime() < deadline;
+                if (measured && (status == 200 || status == 404)) {
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = (System.nanoTime() - started) / 1_000;
+                } else if (measured) {
+                    (status == -1 ? ioErrors : httpErrors).incrementAndGet();
+                }
+                Thread.sleep(THINK);
+            }
+        } finally {
+            connection.close();
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    /**
+     * Снимки сервиса и базы раз в {@link #PROBE_INTERVAL} от начала удержания до дедлайна.
+     */
+    private static List<Sample> probe(Process process, DataSource database, long holdStart, long deadline)
+            throws SQLException, InterruptedException {
+        List<Sample> samples = new ArrayList<>();
+        Thread.sleep(Duration.ofNanos(Math.max(0, holdStart - System.nanoTime())));
+        try (Connection connection = database.getConnection(); Statement statement = connection.createStatement()) {
+            while (System.nanoTime() < deadline) {
+                long dbTotal;
+                long dbBusy;
+                try (ResultSet row = statement.executeQuery("SELECT count(*), count(*) FILTER (WHERE state <> 'idle') "
+                        + "FROM pg_stat_activity WHERE datname = '" + DATABASE + "' AND pid <> pg_backend_pid()")) {
+                    row.next();
+                    dbTotal = row.getLong(1);
+                    dbBusy = row.getLong(2);
+                }
+                samples.add(new Sample(procStatus(process, "Threads:"), procStatus(process, "VmRSS:"),
+                        sockets(process), dbTotal, dbBusy));
+                Thread.sleep(PROBE_INTERVAL);
+            }
+        }
+        return samples;
+    }
+
+    private static void seed(String baseUrl) throws IOException, InterruptedException {
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            for (int i = 1; i <= ID_RANGE; i++) {
+                String body = "{\"name\":\"Load Test\",\"email\":\"seed-" + i + "@test.com\",\"age\":30}";
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/users"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status != 201) {
+                    throw new IllegalStateException("Seeding failed with status " + status);
+                }
+            }
+        }
+    }
+
+    private static void awaitStarted(Process process, String baseUrl) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        HttpRequest request = get(baseUrl + "/api/users/1");
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            while (System.nanoTime() - started < START_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Service exited with " + process.exitValue());
+                }
+                try {
+                    int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status == 200 || status == 404) {
+                        return;
+                    }
+                } catch (IOException notListeningYet) {
+                    // Порт ещё не открыт
+                }
+                Thread.sleep(100);
+            }
+        }
+        throw new IllegalStateException("Service did not answer within " + START_TIMEOUT);
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).build();
+    }
+
+    /**
+     * @param sorted задержки в микросекундах по возрастанию
+     * @return перцентиль в миллисекундах
+     */
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000.0;
+    }
+
+    private static long max(List<Sample> samples, ToLongFunction<Sample> field) {
+        return samples.stream().mapToLong(field).max().orElse(-1);
+    }
+
+    private static Path jar(String path) {
+        Path jar = Path.of(path).toAbsolutePath().normalize();
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("Jar not found: " + jar + ", build it with mvn install first");
+        }
+        return jar;
+    }
+
+    private static Process start(List<String> command, List<String> arguments, Path log) throws IOException {
+        List<String> commandLine = new ArrayList<>(command);
+        commandLine.addAll(arguments);
+        return new ProcessBuilder(commandLine)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void createDatabase(EmbeddedPostgres postgres, String name) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name);
+        }
+    }
+
+    private static List<String> append(List<String> arguments, String... extra) {
+        List<String> extended = new ArrayList<>(arguments);
+        extended.addAll(List.of(extra));
+        return extended;
+    }
+
+    private static List<String> jvm(Path jar, String heap) {
+        return List.of(ProcessHandle.current().info().command().orElse("java"), "-Xmx" + heap, "-jar", jar.toString());
+    }
+
+    /**
+     * @return числовое значение поля из {@code /proc/<pid>/status} или {@code -1}, если {@code /proc} недоступен
+     */
+    private static long procStatus(Process process, String field) {
+        try (Stream<String> lines = Files.lines(Path.of("/proc", Long.toString(process.pid()), "status"))) {
+            return lines.filter(line -> line.startsWith(field))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return число открытых сокетов процесса: клиентские соединения плюс база, Kafka и слушающий порт
+     */
+    private static long sockets(Process process) {
+        try (Stream<Path> descriptors = Files.list(Path.of("/proc", Long.toString(process.pid()), "fd"))) {
+            return descriptors.filter(descriptor -> {
+                try {
+                    return Files.readSymbolicLink(descriptor).toString().startsWith("socket:");
+                } catch (IOException closed) {
+                    return false;
+                }
+            }).count();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * HTTP/1.1 поверх одного сокета: запрос GET и чтение ответа с Content-Length или chunked-телом.
+     * Блокирующий ввод-вывод на виртуальном потоке не занимает поток ОС, пока клиент ждёт ответа или думает.
+     */
+    private static final class KeepAliveConnection {
+        private final int port;
+        private Socket socket;
+        private InputStream in;
+        private OutputStream out;
+
+        KeepAliveConnection(int port) {
+            this.port = port;
+        }
+
+        /**
+         * @return код ответа; соединение остаётся открытым, если сервер не ответил {@code Connection: close}
+         */
+        int get(String path) throws IOException {
+            if (socket == null) {
+                socket = new Socket("localhost", port);
+                socket.setSoTimeout((int) REQUEST_TIMEOUT.toMillis());
+                in = new BufferedInputStream(socket.getInputStream());
+                out = socket.getOutputStream();
+            }
+            out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            String statusLine = readLine();
+            int status = Integer.parseInt(statusLine.split(" ", 3)[1]);
+            long contentLength = 0;
+            boolean chunked = false;
+            boolean close = false;
+            for (String header = readLine(); !header.isEmpty(); header = readLine()) {
+                String lower = header.toLowerCase(Locale.ROOT);
+                if (lower.startsWith("content-length:")) {
+                    contentLength = Long.parseLong(lower.substring("content-length:".length()).trim());
+                } else if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                    chunked = true;
+                } else if (lower.startsWith("connection:") && lower.contains("close")) {
+                    close = true;
+                }
+            }
+            if (chunked) {
+                for (long size = Long.parseLong(readLine().split(";")[0].trim(), 16); size > 0;
+                     size = Long.parseLong(readLine().split(";")[0].trim(), 16)) {
+                    skip(size);
+                    readLine();
+                }
+                readLine();
+            } else {
+                skip(contentLength);
+            }
+            if (close) {
+                close();
+            }
+            return status;
+        }
+
+        void close() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // соединение и так потеряно
+                }
+                socket = null;
+            }
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int b = in.read(); b != '\n'; b = in.read()) {
+                if (b == -1) {
+                    throw new EOFException("Connection closed by server");
+                }
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+            }
+            return line.toString();
+        }
+
+        private void skip(long bytes) throws IOException {
+            in.skipNBytes(bytes);
+        }
+    }
+
+    private record Variant(String name, Path jar, List<String> arguments) {
+    }
+
+    private record Sample(long threads, long rssKb, long sockets, long dbTotal, long dbBusy) {
+    }
+
+    private record Result(long[] latencies, long httpErrors, long ioErrors, List<Sample> samples) {
+    }
+}
@@ -0,0 +1,73 @@
+package by.task.benchmarks;
+
+import by.task.userservice.controller.UserController;
+import by.task.userservice.dto.UserRequestDTO;
+import by.task.userservice.exception.GlobalExceptionHandler;
+import by.task.userservice.exception.service.UserNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GlobalExceptionHandlerBenchmark {
+    private GlobalExceptionHandler handler;
+    private UserNotFoundException notFound;
+    private MethodArgumentNotValidException notValid;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        notFound = new UserNotFoundException(1L);
+
+        UserRequestDTO invalidRequest = new UserRequestDTO(" ", "invalid-email", -1);
+        BindingResult bindingResult = new BeanPropertyBindingResult(invalidRequest, "userRequestDTO");
+        bindingResult.rejectValue("name", "NotBlank", "Name is required");
+        bindingResult.rejectValue("email", "Email", "Invalid email format");
+        bindingResult.rejectValue("age", "Min", "Age must be positive");
+        MethodParameter parameter = new MethodParameter(
+                UserController.class.getMethod("createUser", UserRequestDTO.class), 0);
+        notValid = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public Map<String, String> userNotFound() {
+        return handler.handleUserNotFound(notFound);
+    }
+
+    /**
+     * Вместе с созданием исключения: на практике заполнение стека обычно дороже самого ответа.
+     */
+    @Benchmark
+    public Map<String, String> userNotFoundWithException() {
+        return handler.handleUserNotFound(new UserNotFoundException(1L));
+    }
+
+    @Benchmark
+    public Map<String, String> validationErrors() {
+        return handler.handleValidationExceptions(notValid);
+    }
+
+    @Benchmark
+    public Map<String, String> generalError() {
+        return handler.handleGeneralExceptions(notFound);
+    }
+}
@@ -0,0 +1,126 @@
+package by.task.benchmarks;
+
+import by.task.userservice.logging.SamplingTurboFilter;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость INFO-сообщения сервисного слоя для потока запроса при восьми конкурентных потоках:
+ * <ul>
+ *     <li>{@code sync} — прежний вариант: шаблон Spring Boot, синхронная запись с flush на каждое событие;</li>
+ *     <li>{@code async} — JSON (ECS) через {@link AsyncAppender} с очередью 8192 и {@code neverBlock};</li>
+ *     <li>{@code asyncSampled} — то же плюс {@link SamplingTurboFilter} с долей 1%, как в профиле {@code prod}.</li>
+ * </ul>
+ * Вывод идёт во временный файл, а не в терминал, поэтому {@code sync} здесь — оценка снизу.
+ * В асинхронных вариантах часть INFO при переполнении очереди отбрасывается, это и есть цена выигрыша.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m%n";
+
+    @Param({"sync", "async", "asyncSampled"})
+    private String mode;
+
+    private LoggerContext context;
+    private Logger logger;
+    private Path output;
+
+    @Setup
+    public void setUp() throws IOException {
+        output = Files.createTempFile("logging-benchmark", ".log");
+        context = new LoggerContext();
+        context.putObject(Environment.class.getName(), new StandardEnvironment());
+
+        OutputStreamAppender<ILoggingEvent> file = new OutputStreamAppender<>();
+        file.setContext(context);
+        file.setEncoder(mode.equals("sync") ? patternEncoder() : jsonEncoder());
+        file.setOutputStream(new FileOutputStream(output.toFile()));
+        file.start();
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        if (mode.equals("sync")) {
+            root.addAppender(file);
+        } else {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            root.addAppender(async);
+        }
+        if (mode.equals("asyncSampled")) {
+            SamplingTurboFilter filter = new SamplingTurboFilter();
+            filter.setContext(context);
+            filter.setLoggerName("by.task.userservice.service.UserService");
+            filter.setRate(0.01);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+        logger = context.getLogger("by.task.userservice.service.UserService");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public void logRequest() {
+        logger.info("Creating new user: {}", "user123456789@test.com");
+    }
+
+    private Encoder<ILoggingEvent> patternEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> jsonEncoder() {
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("ecs");
+        encoder.start();
+        return encoder;
+    }
+}
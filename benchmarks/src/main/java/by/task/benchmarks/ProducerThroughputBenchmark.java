@@ -0,0 +1,188 @@
+package by.task.benchmarks;
+
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventDeserializer;
+import by.task.userevents.UserEventSerializer;
+import by.task.userevents.UserEventType;
+import by.task.userservice.config.UserEventsProperties;
+import by.task.userservice.event.UserEventPublisher;
+import ch.qos.logback.classic.Level;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Пропускная способность и задержка отправки событий пользователей во встроенный брокер (KRaft,
+ * {@value #PARTITIONS} партиции) для нескольких настроек {@code user-events.producer}. Для каждой
+ * печатает записей в секунду, p50/p99 времени от {@code send} до подтверждения, средний размер батча,
+ * степень сжатия и проверку порядка: события читаются обратно, и для каждого пользователя id событий
+ * должны возрастать в пределах одной партиции.
+ * <p>
+ * Брокер один и живёт в том же процессе, поэтому абсолютные числа — оценка сверху;
+ * смысл в сравнении настроек между собой. Аргумент — число записей на настройку.
+ * <pre>
+ * mvn -pl benchmarks -am package exec:java@producer-throughput -Dproducer.records=200000
+ * </pre>
+ */
+public class ProducerThroughputBenchmark {
+    private static final int PARTITIONS = 3;
+    private static final int USERS = 10_000;
+    private static final int DEFAULT_RECORDS = 200_000;
+    private static final Duration READ_TIMEOUT = Duration.ofMinutes(1);
+
+    public static void main(String[] args) throws Exception {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RECORDS;
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(Level.WARN);
+
+        Map<String, UserEventsProperties.Producer> configurations = new LinkedHashMap<>();
+        configurations.put("kafka-defaults", new UserEventsProperties.Producer(16384, Duration.ZERO, "none", 5, true));
+        configurations.put("default", new UserEventsProperties.Producer(131072, Duration.ofMillis(20), "lz4", 5, true));
+        configurations.put("throughput", new UserEventsProperties.Producer(262144, Duration.ofMillis(50), "zstd", 5, true));
+        configurations.put("no-idempotence", new UserEventsProperties.Producer(131072, Duration.ofMillis(20), "lz4", 1, false));
+
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS);
+        broker.afterPropertiesSet();
+        try {
+            System.out.printf("%-16s %12s %9s %9s %12s %12s %s%n",
+                    "configuration", "records/s", "p50 ms", "p99 ms", "batch avg B", "compression", "ordering");
+            for (Map.Entry<String, UserEventsProperties.Producer> configuration : configurations.entrySet()) {
+                String topic = "user-events-" + configuration.getKey();
+                broker.addTopics(new NewTopic(topic, PARTITIONS, (short) 1));
+                Result result = run(broker.getBrokersAsString(), topic, configuration.getValue(), records);
+                System.out.printf("%-16s %12.0f %9.2f %9.2f %12.0f %12.2f %s%n", configuration.getKey(),
+                        result.recordsPerSecond(), result.p50Millis(), result.p99Millis(),
+                        result.batchSizeAvg(), result.compressionRate(),
+                        result.orderViolations() == 0 ? "ok" : result.orderViolations() + " violations");
+            }
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private static Result run(String bootstrapServers, String topic, UserEventsProperties.Producer tuning,
+                              int records) throws InterruptedException {
+        Map<String, Object> config = new HashMap<>(tuning.toProducerConfig());
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        long[] latencies = new long[records];
+        AtomicInteger failures = new AtomicInteger();
+        long elapsed;
+        Map<MetricName, ? extends Metric> metrics;
+        try (KafkaProducer<String, UserEvent> producer =
+                     new KafkaProducer<>(config, new StringSerializer(), new UserEventSerializer())) {
+            // Прогрев: соединение, метаданные топика, JIT
+            int warmUp = records / 10;
+            send(producer, topic, 0, warmUp, null, failures);
+            producer.flush();
+
+            long start = System.nanoTime();
+            send(producer, topic, warmUp, records, latencies, failures);
+            producer.flush();
+            elapsed = System.nanoTime() - start;
+            metrics = producer.metrics();
+        }
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " sends failed for " + topic);
+        }
+
+        Arrays.sort(latencies);
+        return new Result(
+                records / (elapsed / 1e9),
+                latencies[(int) (records * 0.50)] / 1e6,
+                latencies[(int) (records * 0.99)] / 1e6,
+                metric(metrics, "batch-size-avg"),
+                metric(metrics, "compression-rate-avg"),
+                countOrderViolations(bootstrapServers, topic, records + records / 10));
+    }
+
+    /**
+     * Отправляет {@code count} событий с id, начиная с {@code from + 1}; пользователи чередуются по кругу.
+     */
+    private static void send(KafkaProducer<String, UserEvent> producer, String topic, int from, int count,
+                             long[] latencies, AtomicInteger failures) {
+        for (int i = from; i < from + count; i++) {
+            UserEvent event = new UserEvent(i + 1L, i % USERS + 1L, UserEventType.UPDATED,
+                    "user" + (i % USERS + 1) + "@test.com");
+            int index = i - from;
+            long sentAt = System.nanoTime();
+            producer.send(new ProducerRecord<>(topic, UserEventPublisher.partitionKey(event), event),
+                    (metadata, exception) -> {
+                        if (exception != null) {
+                            failures.incrementAndGet();
+                        } else if (latencies != null) {
+                            latencies[index] = System.nanoTime() - sentAt;
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Читает топик целиком и считает события, пришедшие раньше предыдущего события того же пользователя
+     * или в другую партицию.
+     */
+    private static int countOrderViolations(String bootstrapServers, String topic, int expected) {
+        Map<String, Object> config = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+        try (KafkaConsumer<String, UserEvent> consumer =
+                     new KafkaConsumer<>(config, new StringDeserializer(), new UserEventDeserializer())) {
+            List<TopicPartition> partitions = IntStream.range(0, PARTITIONS)
+                    .mapToObj(partition -> new TopicPartition(topic, partition))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+
+            Map<String, ConsumerRecord<String, UserEvent>> last = new HashMap<>();
+            int read = 0;
+            int violations = 0;
+            long deadline = System.nanoTime() + READ_TIMEOUT.toNanos();
+            while (read < expected && System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, UserEvent> record : consumer.poll(Duration.ofMillis(500))) {
+                    ConsumerRecord<String, UserEvent> previous = last.put(record.key(), record);
+                    if (previous != null && (previous.partition() != record.partition()
+                            || previous.value().getEventId() > record.value().getEventId())) {
+                        violations++;
+                    }
+                    read++;
+                }
+            }
+            if (read < expected) {
+                throw new IllegalStateException("Read " + read + " of " + expected + " records from " + topic);
+            }
+            return violations;
+        }
+    }
+
+    private static double metric(Map<MetricName, ? extends Metric> metrics, String name) {
+        return metrics.entrySet().stream()
+                .filter(entry -> entry.getKey().group().equals("producer-metrics")
+                        && entry.getKey().name().equals(name))
+                .mapToDouble(entry -> ((Number) entry.getValue().metricValue()).doubleValue())
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+
+    private record Result(double recordsPerSecond, double p50Millis, double p99Millis,
+                          double batchSizeAvg, double compressionRate, int orderViolations) {
+    }
+}
@@ -0,0 +1,248 @@
+package by.task.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Время от запуска JVM user-service до первого ответа {@code GET /api/users/1} (200 или 404, в обоих случаях
+ * запрос прошёл через сервис и базу) для нескольких вариантов старта. Сервис запускается отдельным процессом из исполняемого jar
+ * на встроенных PostgreSQL и Kafka (KRaft):
+ * <ul>
+ *     <li>{@code ddl-update} — прежний старт: {@code ddl-auto=update} сверяет схему с базой;</li>
+ *     <li>{@code flyway} — профиль по умолчанию: Flyway проверяет историю миграций;</li>
+ *     <li>{@code fast-start} — профиль {@code fast-start}: без миграций и метаданных JDBC, ленивые бины;</li>
+ *     <li>{@code fast-start+aot} — то же с {@code -Dspring.aot.enabled=true};</li>
+ *     <li>{@code fast-start+aot+cds} — то же из распакованного jar с CDS-архивом после тренировочного запуска;</li>
+ *     <li>{@code native} — native image {@code user-service} из того же каталога, если он собран.</li>
+ * </ul>
+ * Кроме времени печатается RSS процесса в момент первого ответа (по {@code /proc}, только Linux).
+ * Jar должен быть собран с AOT-обработкой. Аргументы — путь к jar и число запусков на вариант:
+ * <pre>
+ * mvn -B install -DskipTests -Pfast-start
+ * mvn -pl user-service -Pnative package -DskipTests
+ * mvn -pl benchmarks exec:java@startup -Dstartup.runs=5
+ * </pre>
+ */
+public class StartupBenchmark {
+    private static final String DEFAULT_JAR = "../user-service/target/user-service-1.0-SNAPSHOT-exec.jar";
+    private static final int DEFAULT_RUNS = 5;
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final String FAST_START = "--spring.profiles.active=fast-start";
+    private static final String AOT = "-Dspring.aot.enabled=true";
+    private static final String NATIVE_IMAGE = "user-service";
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args.length > 0 ? args[0] : DEFAULT_JAR).toAbsolutePath().normalize();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS;
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("Jar not found: " + jar + ", build it with -Pfast-start first");
+        }
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(Level.WARN);
+
+        Path work = Files.createDirectories(Path.of("target", "startup")).toAbsolutePath();
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 3);
+        broker.afterPropertiesSet();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            createDatabase(postgres, "ddl_update");
+            createDatabase(postgres, "migrated");
+            String kafka = "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString();
+            List<String> legacy = arguments(postgres, "ddl_update", kafka, "--spring.jpa.hibernate.ddl-auto=update",
+                    "--spring.flyway.enabled=false");
+            List<String> migrated = arguments(postgres, "migrated", kafka);
+            List<String> fastStart = arguments(postgres, "migrated", kafka, FAST_START);
+
+            Path extracted = extract(jar, work);
+            Path archive = work.resolve("user-service.jsa");
+            List<Variant> variants = new ArrayList<>(List.of(
+                    new Variant("ddl-update", jvm(jar), legacy),
+                    new Variant("flyway", jvm(jar), migrated),
+                    new Variant("fast-start", jvm(jar), fastStart),
+                    new Variant("fast-start+aot", jvm(jar, AOT), fastStart),
+                    new Variant("fast-start+aot+cds", jvm(extracted, AOT, "-XX:SharedArchiveFile=" + archive),
+                            fastStart)));
+            Path nativeImage = jar.resolveSibling(NATIVE_IMAGE);
+            if (Files.isExecutable(nativeImage)) {
+                variants.add(new Variant("native", List.of(nativeImage.toString()), migrated));
+            }
+            train(extracted, archive, fastStart, work);
+
+            System.out.printf("%-20s %10s %10s %10s %10s%n", "variant", "min ms", "median ms", "max ms", "RSS MB");
+            for (Variant variant : variants) {
+                // Первый запуск варианта не измеряется: он создаёт схему (ddl-update) или применяет миграции (flyway)
+                // и прогревает page cache
+                timeToFirstRequest(variant, work);
+                long[] millis = new long[runs];
+                long[] rssKb = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    Sample sample = timeToFirstRequest(variant, work);
+                    millis[run] = sample.millis();
+                    rssKb[run] = sample.rssKb();
+                }
+                Arrays.sort(millis);
+                Arrays.sort(rssKb);
+                System.out.printf("%-20s %10d %10d %10d %10d%n", variant.name(), millis[0], millis[runs / 2],
+                        millis[runs - 1], rssKb[runs / 2] / 1024);
+            }
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    /**
+     * Запускает сервис и опрашивает его до первого ответа от базы; процесс затем останавливается.
+     */
+    private static Sample timeToFirstRequest(Variant variant, Path work) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(variant.arguments());
+        arguments.add("--server.port=" + port);
+        Process process = start(variant.command(), arguments, work.resolve(variant.name().replace('+', '-') + ".log"));
+        long started = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/1"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            while (System.nanoTime() - started < START_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.name() + " exited with " + process.exitValue());
+                }
+                try {
+                    int status = HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status == 200 || status == 404) {
+                        return new Sample((System.nanoTime() - started) / 1_000_000, residentSetKb(process));
+                    }
+                } catch (IOException notListeningYet) {
+                    // Порт ещё не открыт
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(variant.name() + " did not answer within " + START_TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    /**
+     * Распаковывает jar средствами Spring Boot: CDS-архив привязан к classpath из обычных jar-файлов,
+     * вложенные jar исполняемого архива для него не подходят.
+     */
+    private static Path extract(Path jar, Path work) throws IOException, InterruptedException {
+        Path destination = work.resolve("extracted");
+        Process process = new ProcessBuilder(java(), "-Djarmode=tools", "-jar", jar.toString(),
+                "extract", "--force", "--destination", destination.toString())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Failed to extract " + jar);
+        }
+        try (Stream<Path> files = Files.list(destination)) {
+            return files.filter(file -> file.toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + destination));
+        }
+    }
+
+    /**
+     * Тренировочный запуск: контекст поднимается до refresh, при выходе JVM пишет загруженные классы в архив.
+     */
+    private static void train(Path jar, Path archive, List<String> arguments, Path work)
+            throws IOException, InterruptedException {
+        Files.deleteIfExists(archive);
+        List<String> training = new ArrayList<>(arguments);
+        training.add("--server.port=" + freePort());
+        Process process = start(jvm(jar, AOT, "-XX:ArchiveClassesAtExit=" + archive,
+                "-Dspring.context.exit=onRefresh"), training, work.resolve("cds-training.log"));
+        if (process.waitFor() != 0 || !Files.exists(archive)) {
+            throw new IllegalStateException("CDS training run failed, see " + work.resolve("cds-training.log"));
+        }
+    }
+
+    private static Process start(List<String> command, List<String> arguments, Path log) throws IOException {
+        List<String> commandLine = new ArrayList<>(command);
+        commandLine.addAll(arguments);
+        return new ProcessBuilder(commandLine)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void createDatabase(EmbeddedPostgres postgres, String name) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name);
+        }
+    }
+
+    private static List<String> arguments(EmbeddedPostgres postgres, String database, String... extra) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", database),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres"));
+        arguments.addAll(List.of(extra));
+        return arguments;
+    }
+
+    private static List<String> jvm(Path jar, String... options) {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(List.of(options));
+        command.add("-jar");
+        command.add(jar.toString());
+        return command;
+    }
+
+    private static String java() {
+        return ProcessHandle.current().info().command().orElse("java");
+    }
+
+    /**
+     * @return VmRSS процесса в килобайтах или {@code -1}, если {@code /proc} недоступен
+     */
+    private static long residentSetKb(Process process) {
+        try (Stream<String> lines = Files.lines(Path.of("/proc", Long.toString(process.pid()), "status"))) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variant(String name, List<String> command, List<String> arguments) {
+    }
+
+    private record Sample(long millis, long rssKb) {
+    }
+}
@@ -0,0 +1,298 @@
+package by.task.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Сравнение потоковых моделей user-service под смешанной нагрузкой {@code load-test/users.js}: 70% чтений
+ * по id, 20% страниц по 50 пользователей, 10% созданий. Сервис запускается отдельным процессом из исполняемого
+ * jar на встроенных PostgreSQL и Kafka (KRaft) без профиля (пул потоков Tomcat) и с профилем {@code virtual}.
+ * Клиенты — виртуальные потоки этого процесса, каждый шлёт запросы без пауз, как VU в k6.
+ * <p>
+ * Для каждого числа клиентов печатаются пропускная способность, перцентили задержки, число отказов 503
+ * (bulkhead или breaker), прочих ошибок, а также число потоков и RSS сервиса в конце замера (по {@code /proc},
+ * только Linux). Аргументы — путь к jar, число клиентов через запятую, длительность замера в секундах:
+ * <pre>
+ * mvn -B install -DskipTests
+ * mvn -pl benchmarks exec:java@thread-model -Dload.clients=50,400 -Dload.seconds=60
+ * </pre>
+ */
+public class ThreadModelBenchmark {
+    private static final String DEFAULT_JAR = "../user-service/target/user-service-1.0-SNAPSHOT-exec.jar";
+    private static final String DEFAULT_CLIENTS = "50,400";
+    private static final int DEFAULT_SECONDS = 60;
+    private static final int ID_RANGE = 1000;
+    private static final Duration WARM_UP = Duration.ofSeconds(20);
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args.length > 0 ? args[0] : DEFAULT_JAR).toAbsolutePath().normalize();
+        int[] clients = Arrays.stream((args.length > 1 ? args[1] : DEFAULT_CLIENTS).split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim()))
+                .toArray();
+        Duration measurement = Duration.ofSeconds(args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SECONDS);
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("Jar not found: " + jar + ", build it with mvn install first");
+        }
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(Level.WARN);
+
+        Path work = Files.createDirectories(Path.of("target", "thread-model")).toAbsolutePath();
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 3);
+        broker.afterPropertiesSet();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            createDatabase(postgres, "load");
+            List<String> arguments = List.of(
+                    "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "load"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=postgres",
+                    "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString());
+            List<Variant> variants = List.of(
+                    new Variant("platform", arguments),
+                    new Variant("virtual", append(arguments, "--spring.profiles.active=virtual")));
+
+            boolean seeded = false;
+            System.out.printf("%-10s %8s %10s %8s %9s %9s %9s %8s %8s %8s %8s%n", "variant", "clients",
+                    "requests", "RPS", "p50 ms", "p95 ms", "p99 ms", "503", "errors", "threads", "RSS MB");
+            for (int clientCount : clients) {
+                for (Variant variant : variants) {
+                    Process process = null;
+                    try {
+                        int port = freePort();
+                        process = start(jvm(jar), append(variant.arguments(), "--server.port=" + port),
+                                work.resolve(variant.name() + "-" + clientCount + ".log"));
+                        String baseUrl = "http://localhost:" + port;
+                        awaitStarted(process, baseUrl);
+                        if (!seeded) {
+                            seed(baseUrl);
+                            seeded = true;
+                        }
+                        run(baseUrl, clientCount, WARM_UP);
+                        Result result = run(baseUrl, clientCount, measurement);
+                        long[] latencies = result.latencies();
+                        System.out.printf("%-10s %8d %10d %8.0f %9.1f %9.1f %9.1f %8d %8d %8d %8d%n", variant.name(),
+                                clientCount, latencies.length, latencies.length / (double) measurement.toSeconds(),
+                                percentile(latencies, 0.50), percentile(latencies, 0.95),
+                                percentile(latencies, 0.99), result.rejected(), result.errors(),
+                                procStatus(process, "Threads:"), procStatus(process, "VmRSS:") / 1024);
+                    } finally {
+                        if (process != null) {
+                            process.destroy();
+                            process.waitFor();
+                        }
+                    }
+                }
+            }
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    /**
+     * Держит {@code clientCount} клиентов в цикле запросов заданное время.
+     */
+    private static Result run(String baseUrl, int clientCount, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>(clientCount);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clientCount; client++) {
+                int clientId = client;
+                futures.add(executor.submit(() -> client(baseUrl, clientId, deadline, rejected, errors)));
+            }
+        }
+        List<long[]> perClient = new ArrayList<>(clientCount);
+        for (Future<long[]> future : futures) {
+            perClient.add(future.get());
+        }
+        long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(latencies);
+        return new Result(latencies, rejected.get(), errors.get());
+    }
+
+    /**
+     * Один клиент: запросы без пауз до дедлайна. Учитываются только ответы, которые сценарий k6 считает
+     * успешными; 503 и прочие ответы считаются отдельно.
+     *
+     * @return задержки успешных запросов в микросекундах
+     */
+    private static long[] client(String baseUrl, int clientId, long deadline, AtomicLong rejected, AtomicLong errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[1024];
+        int count = 0;
+        long iteration = 0;
+        while (System.nanoTime() < deadline) {
+            double roll = random.nextDouble();
+            HttpRequest request;
+            if (roll < 0.7) {
+                request = get(baseUrl + "/api/users/" + (1 + random.nextInt(ID_RANGE)));
+            } else if (roll < 0.9) {
+                request = get(baseUrl + "/api/users?size=50");
+            } else {
+                request = create(baseUrl, "load-" + clientId + "-" + iteration + "-" + System.nanoTime() + "@test.com");
+            }
+            iteration++;
+            long started = System.nanoTime();
+            int status;
+            try {
+                status = HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                errors.incrementAndGet();
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long micros = (System.nanoTime() - started) / 1_000;
+            if (status == 200 || status == 201 || status == 404) {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = micros;
+            } else if (status == 503) {
+                rejected.incrementAndGet();
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static void seed(String baseUrl) throws IOException, InterruptedException {
+        for (int i = 1; i <= ID_RANGE; i++) {
+            int status = HTTP.send(create(baseUrl, "seed-" + i + "@test.com"),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status != 201) {
+                throw new IllegalStateException("Seeding failed with status " + status);
+            }
+        }
+    }
+
+    private static void awaitStarted(Process process, String baseUrl) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        HttpRequest request = get(baseUrl + "/api/users/1");
+        while (System.nanoTime() - started < START_TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Service exited with " + process.exitValue());
+            }
+            try {
+                int status = HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200 || status == 404) {
+                    return;
+                }
+            } catch (IOException notListeningYet) {
+                // Порт ещё не открыт
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Service did not answer within " + START_TIMEOUT);
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).build();
+    }
+
+    private static HttpRequest create(String baseUrl, String email) {
+        String body = "{\"name\":\"Load Test\",\"email\":\"" + email + "\",\"age\":30}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/users"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * @param sorted задержки в микросекундах по возрастанию
+     * @return перцентиль в миллисекундах
+     */
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000.0;
+    }
+
+    private static Process start(List<String> command, List<String> arguments, Path log) throws IOException {
+        List<String> commandLine = new ArrayList<>(command);
+        commandLine.addAll(arguments);
+        return new ProcessBuilder(commandLine)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void createDatabase(EmbeddedPostgres postgres, String name) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name);
+        }
+    }
+
+    private static List<String> append(List<String> arguments, String argument) {
+        List<String> extended = new ArrayList<>(arguments);
+        extended.add(argument);
+        return extended;
+    }
+
+    private static List<String> jvm(Path jar) {
+        return List.of(ProcessHandle.current().info().command().orElse("java"), "-jar", jar.toString());
+    }
+
+    /**
+     * @return числовое значение поля из {@code /proc/<pid>/status} или {@code -1}, если {@code /proc} недоступен
+     */
+    private static long procStatus(Process process, String field) {
+        try (Stream<String> lines = Files.lines(Path.of("/proc", Long.toString(process.pid()), "status"))) {
+            return lines.filter(line -> line.startsWith(field))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variant(String name, List<String> arguments) {
+    }
+
+    private record Result(long[] latencies, long rejected, long errors) {
+    }
+}
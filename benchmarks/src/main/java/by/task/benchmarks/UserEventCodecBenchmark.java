@@ -0,0 +1,83 @@
+package by.task.benchmarks;
+
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventDeserializer;
+import by.task.userevents.UserEventSerializer;
+import by.task.userevents.UserEventType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бинарный {@link by.task.userevents.UserEventCodec} против прежней JSON-сериализации spring-kafka
+ * (та же конфигурация: без type-заголовков, тип по умолчанию у десериализатора).
+ * Размер payload печатается один раз при старте прогона.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserEventCodecBenchmark {
+
+    private static final String TOPIC = "user-events";
+
+    private UserEvent event;
+    private JsonSerializer<UserEvent> jsonSerializer;
+    private JsonDeserializer<UserEvent> jsonDeserializer;
+    private UserEventSerializer binarySerializer;
+    private UserEventDeserializer binaryDeserializer;
+    private byte[] jsonPayload;
+    private byte[] binaryPayload;
+
+    @Setup
+    public void setUp() {
+        event = new UserEvent(123_456_789L, UserEventType.CREATED, "user123456789@test.com");
+        jsonSerializer = new JsonSerializer<UserEvent>().noTypeInfo();
+        jsonDeserializer = new JsonDeserializer<>(UserEvent.class, false);
+        binarySerializer = new UserEventSerializer();
+        binaryDeserializer = new UserEventDeserializer();
+        jsonPayload = jsonSerializer.serialize(TOPIC, event);
+        binaryPayload = binarySerializer.serialize(TOPIC, event);
+        System.out.printf("payload: json=%d B, binary=%d B%n", jsonPayload.length, binaryPayload.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonSerializer.close();
+        jsonDeserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public UserEvent deserializeJson() {
+        return jsonDeserializer.deserialize(TOPIC, jsonPayload);
+    }
+
+    @Benchmark
+    public UserEvent deserializeBinary() {
+        return binaryDeserializer.deserialize(TOPIC, binaryPayload);
+    }
+}
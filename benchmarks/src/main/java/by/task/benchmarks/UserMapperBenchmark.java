@@ -0,0 +1,57 @@
+package by.task.benchmarks;
+
+import by.task.userservice.dto.UserRequestDTO;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.mapper.UserMapper;
+import by.task.userservice.mapper.UserMapperImpl;
+import by.task.userservice.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserMapperBenchmark {
+    private UserMapper userMapper;
+    private UserRequestDTO request;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapperImpl();
+        request = new UserRequestDTO("Test User", "user@test.com", 30);
+        user = new User("Test User", "user@test.com", 30);
+        user.setId(1L);
+        user.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+    }
+
+    @Benchmark
+    public User toEntity() {
+        return userMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public UserResponseDTO toDTO() {
+        return userMapper.toDTO(user);
+    }
+
+    @Benchmark
+    public User updateEntityFromDTO() {
+        userMapper.updateEntityFromDTO(request, user);
+        return user;
+    }
+}
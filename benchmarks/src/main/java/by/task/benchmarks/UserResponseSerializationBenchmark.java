@@ -0,0 +1,53 @@
+package by.task.benchmarks;
+
+import by.task.userservice.dto.UserResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserResponseSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<UserResponseDTO> users;
+
+    @Setup
+    public void setUp() {
+        // Та же конфигурация, что у ObjectMapper, который Spring Boot создаёт для MVC
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        users = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            users.add(new UserResponseDTO(id, "Test User " + id, "user" + id + "@test.com", 30, createdAt));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+}
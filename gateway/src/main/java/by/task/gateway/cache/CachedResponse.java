@@ -0,0 +1,56 @@
+package by.task.gateway.cache;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.List;
+
+/**
+ * Ответ user-service целиком в памяти: его получают все запросы, объединённые в один вызов,
+ * а успешный ответ ещё и хранится в кеше.
+ *
+ * @param storedAt время получения или последней ревалидации в наносекундах
+ */
+record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long storedAt) {
+
+    /**
+     * Заголовки, которые относятся к самому представлению и могут отдаваться другим клиентам.
+     */
+    static final List<String> REPRESENTATION_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.LAST_MODIFIED, HttpHeaders.CONTENT_LANGUAGE);
+
+    String eTag() {
+        return headers.getETag();
+    }
+
+    boolean isFresh(long now, long ttlNanos) {
+        return now - storedAt < ttlNanos;
+    }
+
+    /**
+     * Кешируется только 200, если user-service не запретил это в Cache-Control.
+     */
+    boolean isCacheable() {
+        String cacheControl = headers.getCacheControl();
+        return status.isSameCodeAs(HttpStatus.OK) && (cacheControl == null
+                || !(cacheControl.contains(CacheControl.noStore().getHeaderValue())
+                || cacheControl.contains("private")));
+    }
+
+    /**
+     * 429 выставляет лимитер конкретному клиенту — остальные объединённые запросы его не получают.
+     */
+    boolean isShareable() {
+        return !status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    boolean isNotModified() {
+        return status.isSameCodeAs(HttpStatus.NOT_MODIFIED);
+    }
+
+    CachedResponse revalidatedAt(long now) {
+        return new CachedResponse(status, headers, body, now);
+    }
+}
@@ -0,0 +1,222 @@
+package by.task.gateway.cache;
+
+import by.task.gateway.config.UserCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Фильтр {@code UserResponseCache} для {@code GET /api/users/{id}}:
+ * <ul>
+ *     <li>одинаковые запросы, пришедшие, пока первый ждёт user-service, не идут дальше, а получают его ответ;</li>
+ *     <li>ответ 200 отдаётся из кеша в течение {@code gateway.user-cache.ttl}, If-None-Match клиента
+ *     сверяется с его ETag прямо в шлюзе;</li>
+ *     <li>устаревший ответ ревалидируется условным запросом с его ETag: на 304 user-service сверяет
+ *     только версию, тело не передаётся;</li>
+ *     <li>PUT, PATCH и DELETE пользователя через шлюз удаляют его из кеша.</li>
+ * </ul>
+ * Фильтр стоит перед {@link NettyWriteResponseFilter}, чтобы перехватить тело ответа, и поэтому раньше
+ * остальных фильтров маршрута: ответы из кеша и объединённые запросы лимитер не считает.
+ */
+@Component
+public class UserResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+    public static final String CACHE_METRIC = "gateway.user.cache";
+
+    private static final Pattern USER_PATH = Pattern.compile("/api/users/\\d+");
+
+    private final long ttlNanos;
+    private final Cache<String, CachedResponse> cache;
+    private final Map<String, Mono<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Ticker ticker;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter revalidated;
+
+    @Autowired
+    public UserResponseCacheGatewayFilterFactory(UserCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    UserResponseCacheGatewayFilterFactory(UserCacheProperties properties, MeterRegistry meterRegistry, Ticker ticker) {
+        super(Object.class);
+        this.ttlNanos = properties.ttl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterWrite(properties.ttl().plus(properties.revalidateWithin()))
+                .maximumSize(properties.maxEntries())
+                .build();
+        this.ticker = ticker;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.revalidated = counter(meterRegistry, "revalidated");
+    }
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        return new OrderedGatewayFilter(this::filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String key = request.getPath().value();
+        if (!USER_PATH.matcher(key).matches() || !request.getQueryParams().isEmpty()) {
+            return chain.filter(exchange);
+        }
+        HttpMethod method = request.getMethod();
+        if (HttpMethod.GET.equals(method)) {
+            return cached(key, exchange, chain);
+        }
+        if (HttpMethod.PUT.equals(method) || HttpMethod.PATCH.equals(method) || HttpMethod.DELETE.equals(method)) {
+            // До отправки ответа: следующий запрос клиента уже не получит старую версию из кеша
+            exchange.getResponse().beforeCommit(() -> Mono.fromRunnable(() -> cache.invalidate(key)));
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> cached(String key, ServerWebExchange exchange, GatewayFilterChain chain) {
+        CachedResponse stored = cache.getIfPresent(key);
+        if (stored != null && stored.isFresh(ticker.read(), ttlNanos)) {
+            hits.increment();
+            return write(exchange, stored);
+        }
+        boolean[] leader = {false};
+        Mono<CachedResponse> call = inFlight.computeIfAbsent(key, k -> {
+            leader[0] = true;
+            return fetch(k, stored, exchange, chain)
+                    .doFinally(signal -> inFlight.remove(k))
+                    .cache();
+        });
+        if (leader[0]) {
+            misses.increment();
+            return call.flatMap(response -> write(exchange, response));
+        }
+        coalesced.increment();
+        return call.flatMap(response -> response.isShareable() ? write(exchange, response) : chain.filter(exchange));
+    }
+
+    /**
+     * Один вызов user-service за всех ожидающих. If-None-Match клиента не передаётся: общий ответ
+     * должен быть полным, а 304 каждому клиенту шлюз решает сам. При устаревшей записи
+     * в запрос подставляется её ETag.
+     */
+    private Mono<CachedResponse> fetch(String key, CachedResponse stale, ServerWebExchange exchange,
+                                       GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                    if (stale != null && stale.eTag() != null) {
+                        headers.setIfNoneMatch(stale.eTag());
+                    }
+                })
+                .build();
+        CapturingResponse response = new CapturingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().request(request).response(response).build())
+                .then(Mono.fromSupplier(() -> {
+                    CachedResponse fetched = response.toCachedResponse(ticker.read());
+                    if (fetched.isNotModified() && stale != null) {
+                        revalidated.increment();
+                        fetched = stale.revalidatedAt(fetched.storedAt());
+                    }
+                    if (fetched.isCacheable()) {
+                        cache.put(key, fetched);
+                    }
+                    return fetched;
+                }));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        if (cached.status().isSameCodeAs(HttpStatus.OK) && cached.eTag() != null
+                && exchange.checkNotModified(cached.eTag())) {
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(CACHE_METRIC)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Собирает ответ user-service в память вместо записи клиенту; статус и заголовки
+     * по-прежнему ставятся в исходный ответ.
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+        private byte[] body = new byte[0];
+
+        CapturingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body)
+                    .doOnNext(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        this.body = bytes;
+                    })
+                    .then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).concatMap(Flux::from));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.empty();
+        }
+
+        CachedResponse toCachedResponse(long now) {
+            HttpStatusCode status = getStatusCode() == null ? HttpStatus.OK : getStatusCode();
+            HttpHeaders headers = new HttpHeaders();
+            for (String name : CachedResponse.REPRESENTATION_HEADERS) {
+                if (getHeaders().containsKey(name)) {
+                    headers.put(name, getHeaders().get(name));
+                }
+            }
+            return new CachedResponse(status, headers, body, now);
+        }
+    }
+}
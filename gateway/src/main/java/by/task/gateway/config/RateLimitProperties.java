@@ -0,0 +1,23 @@
+package by.task.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Лимиты по умолчанию для маршрутов с {@code RequestRateLimiter}; маршрут может переопределить
+ * их аргументами {@code token-bucket-rate-limiter.*}.
+ *
+ * @param clientHeader  заголовок с идентификатором клиента; без него клиент определяется по адресу
+ * @param idleTimeout   бакет клиента, не обращавшегося дольше, удаляется
+ * @param maxClients    предел числа бакетов в памяти
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("50") int replenishRate,
+        @DefaultValue("100") int burstCapacity,
+        @DefaultValue("X-Client-Id") String clientHeader,
+        @DefaultValue("10m") Duration idleTimeout,
+        @DefaultValue("100000") long maxClients) {
+}
@@ -0,0 +1,18 @@
+package by.task.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param ttl              сколько ответ отдаётся из кеша без обращения к user-service
+ * @param revalidateWithin сколько устаревший ответ хранится ради условного запроса по ETag
+ * @param maxEntries       предел числа ответов в кеше
+ */
+@ConfigurationProperties(prefix = "gateway.user-cache")
+public record UserCacheProperties(
+        @DefaultValue("1s") Duration ttl,
+        @DefaultValue("1m") Duration revalidateWithin,
+        @DefaultValue("10000") long maxEntries) {
+}
@@ -0,0 +1,36 @@
+package by.task.gateway.ratelimit;
+
+import by.task.gateway.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Клиент для лимитера — значение заголовка {@code gateway.rate-limit.client-header}, а без него адрес клиента.
+ * Заголовок должен проставлять доверенный балансировщик перед шлюзом: иначе клиент обойдёт лимит,
+ * меняя значение в каждом запросе.
+ */
+@Component
+public class ClientKeyResolver implements KeyResolver {
+    private final String clientHeader;
+
+    @Autowired
+    public ClientKeyResolver(RateLimitProperties properties) {
+        this.clientHeader = properties.clientHeader();
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        String client = exchange.getRequest().getHeaders().getFirst(clientHeader);
+        if (StringUtils.hasText(client)) {
+            return Mono.just(client);
+        }
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        return address == null ? Mono.empty() : Mono.just(address.getHostString());
+    }
+}
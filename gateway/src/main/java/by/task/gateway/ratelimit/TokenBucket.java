@@ -0,0 +1,35 @@
+package by.task.gateway.ratelimit;
+
+/**
+ * Бакет одного клиента: до {@code capacity} токенов, пополнение {@code replenishRate} токенов в секунду.
+ * Пополнение считается при обращении по прошедшему времени, фоновых задач нет.
+ */
+final class TokenBucket {
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(int capacity, int replenishRate, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = replenishRate / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * @param now время в наносекундах от того же источника, что и при создании
+     * @return число оставшихся токенов или {@code -1}, если токена нет
+     */
+    synchronized long tryConsume(long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        if (tokens < 1) {
+            return -1;
+        }
+        tokens -= 1;
+        return (long) tokens;
+    }
+}
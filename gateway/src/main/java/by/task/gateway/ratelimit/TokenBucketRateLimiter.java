@@ -0,0 +1,89 @@
+package by.task.gateway.ratelimit;
+
+import by.task.gateway.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Token bucket в памяти шлюза для фильтра {@code RequestRateLimiter}: отдельный бакет на пару маршрут и клиент.
+ * В отличие от {@code RedisRateLimiter} лимит считается на каждом экземпляре шлюза отдельно,
+ * зато решение не требует сетевого вызова.
+ */
+@Component
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+    public static final String CONFIGURATION_PROPERTY_NAME = "token-bucket-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private final Config defaultConfig;
+    private final Cache<String, TokenBucket> buckets;
+    private final Ticker ticker;
+
+    @Autowired
+    public TokenBucketRateLimiter(RateLimitProperties properties, ConfigurationService configurationService) {
+        this(properties, configurationService, Ticker.systemTicker());
+    }
+
+    TokenBucketRateLimiter(RateLimitProperties properties, ConfigurationService configurationService, Ticker ticker) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.defaultConfig = new Config()
+                .setReplenishRate(properties.replenishRate())
+                .setBurstCapacity(properties.burstCapacity());
+        this.buckets = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterAccess(properties.idleTimeout())
+                .maximumSize(properties.maxClients())
+                .build();
+        this.ticker = ticker;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        TokenBucket bucket = buckets.get(routeId + ':' + id,
+                key -> new TokenBucket(config.getBurstCapacity(), config.getReplenishRate(), ticker.read()));
+        long remaining = bucket.tryConsume(ticker.read());
+        return Mono.just(new Response(remaining >= 0, Map.of(
+                REMAINING_HEADER, String.valueOf(Math.max(remaining, 0)),
+                REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()),
+                BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()))));
+    }
+
+    @Validated
+    public static class Config {
+        @Min(1)
+        private int replenishRate;
+
+        @Min(1)
+        private int burstCapacity;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package by.task.gateway;
+
+import by.task.gateway.cache.UserResponseCacheGatewayFilterFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "gateway.rate-limit.replenish-rate=1",
+        "gateway.rate-limit.burst-capacity=5",
+        "gateway.user-cache.ttl=1s"
+})
+class GatewayIntegrationTest {
+
+    private static final String USER_URL = "/api/users/{id}";
+    private static final String CLIENT_HEADER = "X-Client-Id";
+    private static final Duration UPSTREAM_DELAY = Duration.ofMillis(300);
+
+    /**
+     * Заглушка user-service: версия пользователя — ETag, на совпавший If-None-Match отвечает 304.
+     */
+    private static final Map<String, AtomicInteger> upstreamCalls = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private static final Map<String, String> lastIfNoneMatch = new ConcurrentHashMap<>();
+    private static DisposableServer userService;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void startUserService() {
+        userService = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/users/{id}", GatewayIntegrationTest::getUser)
+                        .put("/api/users/{id}", (request, response) -> {
+                            versions.computeIfAbsent(request.param("id"), id -> new AtomicLong(1)).incrementAndGet();
+                            return response.status(HttpStatus.OK.value()).send();
+                        }))
+                .bindNow();
+    }
+
+    @AfterAll
+    static void stopUserService() {
+        userService.disposeNow();
+    }
+
+    @DynamicPropertySource
+    static void userServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("USER_SERVICE_URL", () -> "http://localhost:" + userService.port());
+    }
+
+    @Test
+    void concurrentRequests_CoalescedIntoSingleUpstreamCall() {
+        WebClient client = WebClient.create("http://localhost:" + port);
+
+        List<String> bodies = Flux.range(0, 20)
+                .flatMap(i -> client.get().uri(USER_URL, 1).header(CLIENT_HEADER, "client-" + i)
+                        .retrieve()
+                        .bodyToMono(String.class), 20)
+                .collectList()
+                .block();
+
+        assertEquals(20, bodies.size());
+        assertTrue(bodies.stream().allMatch("{\"id\":1,\"version\":1}"::equals));
+        assertEquals(1, upstreamCalls("1"));
+        assertTrue(meterRegistry.counter(UserResponseCacheGatewayFilterFactory.CACHE_METRIC, "result", "coalesced")
+                .count() > 0);
+    }
+
+    @Test
+    void repeatedRequest_WithinTtl_ServedFromCacheAndHonorsIfNoneMatch() {
+        String eTag = getUser(2, "cache").expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody().jsonPath("$.id").isEqualTo(2)
+                .returnResult().getResponseHeaders().getETag();
+
+        getUser(2, "cache").expectStatus().isOk()
+                .expectBody().jsonPath("$.id").isEqualTo(2);
+        webTestClient.get().uri(USER_URL, 2).header(CLIENT_HEADER, "cache").ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag);
+
+        assertEquals(1, upstreamCalls("2"));
+        assertTrue(lastIfNoneMatch.get("2").isEmpty());
+    }
+
+    @Test
+    void expiredEntry_RevalidatedWithETag() throws InterruptedException {
+        getUser(3, "revalidate").expectStatus().isOk();
+        Thread.sleep(1_100);
+
+        getUser(3, "revalidate").expectStatus().isOk()
+                .expectBody().jsonPath("$.id").isEqualTo(3);
+
+        assertEquals(2, upstreamCalls("3"));
+        assertEquals("\"1\"", lastIfNoneMatch.get("3"));
+    }
+
+    @Test
+    void update_EvictsCachedUser() {
+        getUser(4, "update").expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        webTestClient.put().uri(USER_URL, 4).header(CLIENT_HEADER, "update").exchange().expectStatus().isOk();
+
+        getUser(4, "update").expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"");
+        assertEquals(2, upstreamCalls("4"));
+    }
+
+    @Test
+    void clientOverBurst_RateLimitedWithoutAffectingOthers() {
+        for (int id = 10; id < 15; id++) {
+            getUser(id, "greedy").expectStatus().isOk()
+                    .expectHeader().exists("X-RateLimit-Remaining");
+        }
+
+        getUser(15, "greedy").expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        getUser(15, "polite").expectStatus().isOk();
+        assertEquals(1, upstreamCalls("15"));
+    }
+
+    private WebTestClient.ResponseSpec getUser(long id, String client) {
+        return webTestClient.get().uri(USER_URL, id).header(CLIENT_HEADER, client).exchange();
+    }
+
+    private static int upstreamCalls(String id) {
+        return upstreamCalls.getOrDefault(id, new AtomicInteger()).get();
+    }
+
+    private static Mono<Void> getUser(HttpServerRequest request, HttpServerResponse response) {
+        String id = request.param("id");
+        upstreamCalls.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+        String ifNoneMatch = request.requestHeaders().get(HttpHeaders.IF_NONE_MATCH, "");
+        lastIfNoneMatch.put(id, ifNoneMatch);
+        String eTag = "\"" + versions.computeIfAbsent(id, key -> new AtomicLong(1)).get() + "\"";
+        if (ifNoneMatch.equals(eTag)) {
+            return response.status(HttpStatus.NOT_MODIFIED.value()).header(HttpHeaders.ETAG, eTag).send();
+        }
+        // Задержка только у пользователя 1, на котором проверяется объединение запросов
+        Duration delay = id.equals("1") ? UPSTREAM_DELAY : Duration.ZERO;
+        return Mono.delay(delay)
+                .then(response.status(HttpStatus.OK.value())
+                        .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .header(HttpHeaders.ETAG, eTag)
+                        .sendString(Mono.just("{\"id\":" + id + ",\"version\":" + eTag.replace("\"", "") + "}"))
+                        .then());
+    }
+}
@@ -0,0 +1,33 @@
+package by.task.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTest {
+
+    private static final long START = 1_000L;
+
+    @Test
+    void tryConsume_BurstExhausted_DeniesUntilRefilled() {
+        TokenBucket bucket = new TokenBucket(3, 2, START);
+
+        assertEquals(2, bucket.tryConsume(START));
+        assertEquals(1, bucket.tryConsume(START));
+        assertEquals(0, bucket.tryConsume(START));
+        assertEquals(-1, bucket.tryConsume(START));
+
+        assertEquals(0, bucket.tryConsume(START + TimeUnit.MILLISECONDS.toNanos(500)));
+        assertEquals(-1, bucket.tryConsume(START + TimeUnit.MILLISECONDS.toNanos(500)));
+    }
+
+    @Test
+    void tryConsume_LongIdle_RefillsOnlyUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 2, START);
+        bucket.tryConsume(START);
+
+        assertEquals(2, bucket.tryConsume(START + TimeUnit.MINUTES.toNanos(1)));
+    }
+}
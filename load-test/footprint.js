@@ -0,0 +1,75 @@
+// Сравнение footprint блокирующего user-service и user-service-reactive при 10k одновременных клиентов (k6).
+// Каждый виртуальный пользователь держит своё keep-alive соединение и раз в THINK секунд читает пользователя,
+// отдельный сценарий probe раз в 5 секунд снимает с сервиса потоки, память, открытые дескрипторы
+// (≈ TCP-соединения) и занятые соединения пула БД через /actuator/metrics.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e CLIENTS=10000 load-test/footprint.js
+//
+// Прогнать против обоих вариантов на одинаковых настройках JVM (например, -Xmx512m) и сравнить
+// server_threads, server_memory_mb, server_open_files, db_connections и http_req_duration.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const CLIENTS = parseInt(__ENV.CLIENTS || '10000');
+const RAMP = __ENV.RAMP || '1m';
+const HOLD = __ENV.HOLD || '3m';
+const THINK = parseFloat(__ENV.THINK || '1');
+const ID_RANGE = parseInt(__ENV.ID_RANGE || '1000');
+
+const threads = new Trend('server_threads');
+const memory = new Trend('server_memory_mb');
+const openFiles = new Trend('server_open_files');
+const dbConnections = new Trend('db_connections');
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: RAMP, target: CLIENTS },
+                { duration: HOLD, target: CLIENTS },
+            ],
+            gracefulRampDown: '10s',
+        },
+        probe: {
+            executor: 'constant-vus',
+            exec: 'probe',
+            vus: 1,
+            duration: `${parseDuration(RAMP) + parseDuration(HOLD)}s`,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const id = 1 + Math.floor(Math.random() * ID_RANGE);
+    const res = http.get(`${BASE_URL}/api/users/${id}`, { tags: { endpoint: 'getUserById' } });
+    check(res, { 'get by id: 200 or 404': (r) => r.status === 200 || r.status === 404 });
+    sleep(THINK);
+}
+
+export function probe() {
+    record(threads, 'jvm.threads.live');
+    record(memory, 'jvm.memory.used', 1 / (1024 * 1024));
+    record(openFiles, 'process.files.open');
+    // У блокирующего сервиса пул Hikari, у реактивного — r2dbc-pool; лишняя метрика вернёт 404
+    record(dbConnections, 'hikaricp.connections.active');
+    record(dbConnections, 'r2dbc.pool.acquired');
+    sleep(5);
+}
+
+function record(trend, metric, scale = 1) {
+    const res = http.get(`${BASE_URL}/actuator/metrics/${metric}`, { tags: { endpoint: 'actuator' } });
+    if (res.status === 200) {
+        trend.add(res.json('measurements.0.value') * scale);
+    }
+}
+
+function parseDuration(value) {
+    const match = /^(\d+)([smh])$/.exec(value);
+    const multiplier = { s: 1, m: 60, h: 3600 }[match[2]];
+    return parseInt(match[1]) * multiplier;
+}
@@ -0,0 +1,49 @@
+// Нагрузочный сценарий для user-service (k6: https://k6.io).
+// Смешанная нагрузка: чтение по id, постраничный список и создание пользователей.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=500 load-test/users.js
+//
+// Сравнение режимов: прогнать сценарий против сервиса, запущенного без профиля
+// и с профилем virtual, и сравнить http_req_duration (p95/p99) и http_reqs (RPS).
+// Ту же смесь запросов повторяет benchmarks/.../ThreadModelBenchmark: меняя сценарий, поменяйте и его.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '200');
+const DURATION = __ENV.DURATION || '2m';
+const ID_RANGE = parseInt(__ENV.ID_RANGE || '1000');
+
+const created = new Counter('users_created');
+
+export const options = {
+    scenarios: {
+        mixed: {
+            executor: 'constant-vus',
+            vus: VUS,
+            duration: DURATION,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const roll = Math.random();
+    if (roll < 0.7) {
+        const id = 1 + Math.floor(Math.random() * ID_RANGE);
+        const res = http.get(`${BASE_URL}/api/users/${id}`, { tags: { endpoint: 'getUserById' } });
+        check(res, { 'get by id: 200 or 404': (r) => r.status === 200 || r.status === 404 });
+    } else if (roll < 0.9) {
+        const res = http.get(`${BASE_URL}/api/users?size=50`, { tags: { endpoint: 'getAllUsers' } });
+        check(res, { 'list: 200 or 404': (r) => r.status === 200 || r.status === 404 });
+    } else {
+        const email = `load-${__VU}-${__ITER}-${Date.now()}@test.com`;
+        const res = http.post(`${BASE_URL}/api/users`,
+            JSON.stringify({ name: 'Load Test', email: email, age: 30 }),
+            { headers: { 'Content-Type': 'application/json' }, tags: { endpoint: 'createUser' } });
+        if (check(res, { 'create: 201': (r) => r.status === 201 })) {
+            created.add(1);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package by.task.notificationservice.config;
+
+import by.task.notificationservice.dedup.DeliveredEventStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class DedupConfig {
+    public static final String DUPLICATES_METRIC = "notification.dedup.duplicates";
+
+    @Bean(destroyMethod = "close")
+    public DeliveredEventStore deliveredEventStore(NotificationDedupProperties properties,
+                                                   MeterRegistry meterRegistry) {
+        DeliveredEventStore store = new DeliveredEventStore(properties.path(), properties.capacity(),
+                properties.retention(), Clock.systemUTC());
+        Gauge.builder("notification.dedup.entries", store, DeliveredEventStore::size)
+                .description("Delivered event ids remembered by the dedup store")
+                .register(meterRegistry);
+        return store;
+    }
+}
@@ -0,0 +1,35 @@
+package by.task.notificationservice.config;
+
+import by.task.userevents.UserEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+@Configuration
+public class KafkaConsumerConfig {
+    public static final String BATCH_LISTENER_FACTORY = "batchListenerFactory";
+
+    /**
+     * Пакетный листенер: смещения коммитятся вручную один раз на пачку после успешной отправки писем.
+     * Число потоков равно числу партиций топика, чтобы каждая партиция обрабатывалась своим потребителем.
+     */
+    @Bean(BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, UserEvent> batchListenerFactory(
+            ConsumerFactory<String, UserEvent> consumerFactory, NotificationProperties properties) {
+        ConcurrentKafkaListenerContainerFactory<String, UserEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(properties.concurrency());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        ExponentialBackOff backOff = new ExponentialBackOff(500, 2.0);
+        backOff.setMaxElapsedTime(30_000);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
+}
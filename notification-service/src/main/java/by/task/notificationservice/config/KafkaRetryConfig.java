@@ -0,0 +1,70 @@
+package by.task.notificationservice.config;
+
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventSerializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaRetryConfig {
+    public static final String RETRY_LISTENER_FACTORY = "retryListenerFactory";
+    public static final String RETRY_TEMPLATE = "notificationRetryTemplate";
+
+    /**
+     * Продюсер ступеней повтора и DLT. Значения — события или исходные байты записей,
+     * которые не удалось десериализовать: такие сразу уходят в DLT как есть, и из основного листенера
+     * ({@code NotificationRetryService#deadLetterUndeserializable}), и из ступеней повтора.
+     */
+    @Bean(RETRY_TEMPLATE)
+    public KafkaTemplate<String, Object> notificationRetryTemplate(KafkaProperties kafkaProperties) {
+        Map<Class<?>, Serializer<?>> serializers = new LinkedHashMap<>();
+        serializers.put(UserEvent.class, new UserEventSerializer());
+        serializers.put(byte[].class, new ByteArraySerializer());
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null),
+                new StringSerializer(),
+                new DelegatingByTypeSerializer(serializers));
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    /**
+     * Поштучный листенер ступеней повтора: каждая запись ждёт своей задержки на паузе партиции,
+     * не задерживая основной пакетный листенер.
+     */
+    @Bean(RETRY_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, UserEvent> retryListenerFactory(
+            ConsumerFactory<String, UserEvent> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, UserEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        return factory;
+    }
+
+    @Bean
+    public RetryTopicConfiguration notificationRetryTopics(KafkaTemplate<String, Object> notificationRetryTemplate,
+                                                           NotificationRetryProperties properties) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .includeTopic(properties.topic())
+                .maxAttempts(properties.attempts())
+                .exponentialBackoff(properties.initialDelay().toMillis(), properties.multiplier(),
+                        properties.maxDelay().toMillis())
+                .dltSuffix(NotificationRetryProperties.DLT_SUFFIX)
+                .autoCreateTopicsWith(properties.partitions(), properties.replicationFactor())
+                .listenerFactory(RETRY_LISTENER_FACTORY)
+                .create(notificationRetryTemplate);
+    }
+}
@@ -0,0 +1,60 @@
+package by.task.notificationservice.config;
+
+import by.task.notificationservice.mail.PooledMailSender;
+import by.task.notificationservice.mail.SmtpConnectionPool;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.mail.Session;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+    private static final int DEFAULT_SMTP_PORT = 25;
+
+    @Bean
+    public Session mailSession(MailProperties mailProperties) {
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.putAll(mailProperties.getProperties());
+        return Session.getInstance(javaMailProperties);
+    }
+
+    @Bean(destroyMethod = "close")
+    public SmtpConnectionPool smtpConnectionPool(Session mailSession, MailProperties mailProperties,
+                                                 SmtpPoolProperties properties) {
+        int port = mailProperties.getPort() != null ? mailProperties.getPort() : DEFAULT_SMTP_PORT;
+        return new SmtpConnectionPool(mailSession, mailProperties.getHost(), port,
+                mailProperties.getUsername(), mailProperties.getPassword(), properties);
+    }
+
+    @Bean(destroyMethod = "close")
+    public PooledMailSender pooledMailSender(SmtpConnectionPool smtpConnectionPool, Session mailSession,
+                                             SmtpPoolProperties properties) {
+        return new PooledMailSender(smtpConnectionPool, mailSession, properties);
+    }
+
+    @Bean
+    public MeterBinder smtpPoolMetrics(SmtpConnectionPool pool) {
+        return registry -> {
+            Gauge.builder("smtp.pool.connections.active", pool, SmtpConnectionPool::getActive)
+                    .description("SMTP connections currently borrowed")
+                    .register(registry);
+            Gauge.builder("smtp.pool.connections.idle", pool, SmtpConnectionPool::getIdle)
+                    .description("Open SMTP connections waiting in the pool")
+                    .register(registry);
+            Gauge.builder("smtp.pool.connections.open", pool, SmtpConnectionPool::getOpen)
+                    .description("Open SMTP connections")
+                    .register(registry);
+            Gauge.builder("smtp.pool.connections.max", pool, SmtpConnectionPool::getMaxConnections)
+                    .register(registry);
+            Gauge.builder("smtp.pool.utilization", pool, SmtpConnectionPool::getUtilization)
+                    .description("Share of pool connections in use")
+                    .register(registry);
+        };
+    }
+}
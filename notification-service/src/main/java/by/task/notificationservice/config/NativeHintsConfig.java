@@ -0,0 +1,26 @@
+package by.task.notificationservice.config;
+
+import by.task.userevents.UserEventDeserializer;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Метаданные достижимости для native image. Десериализатор событий Kafka создаёт по имени класса
+ * из {@code spring.kafka.*}. Шаблоны писем ищутся по маске, поэтому в образ явно включаются
+ * все файлы каталога по умолчанию.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.NotificationRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class NotificationRuntimeHints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerType(UserEventDeserializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("templates/notification/*.txt");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package by.task.notificationservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Хранилище id доставленных событий. {@code retention} — сколько id гарантированно помнится;
+ * по умолчанию совпадает с хранением топика в Kafka, старше него повторная доставка невозможна.
+ * {@code capacity} — слотов в каждом из двух поколений, файл занимает {@code 16 * capacity} байт.
+ */
+@ConfigurationProperties(prefix = "notification.dedup")
+public record NotificationDedupProperties(
+        @DefaultValue("data/notification-dedup.bin") Path path,
+        @DefaultValue("1048576") int capacity,
+        @DefaultValue("7d") Duration retention) {
+}
@@ -0,0 +1,12 @@
+package by.task.notificationservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "notification")
+public record NotificationProperties(
+        @DefaultValue("user-events") String topic,
+        @DefaultValue("3") int concurrency,
+        @DefaultValue("noreply@example.com") String from,
+        @DefaultValue("ваш сайт") String siteName) {
+}
@@ -0,0 +1,30 @@
+package by.task.notificationservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Неблокирующие повторы писем. Неотправленные события уходят в {@code topic} и читаются оттуда сразу;
+ * каждая следующая попытка идёт через свой топик-ступень с задержкой {@code initialDelay * multiplier^n}
+ * (не больше {@code maxDelay}). После {@code attempts} попыток событие остаётся в {@code <topic>-dlt},
+ * откуда его можно вернуть в начало не больше чем по {@code maxReplayRecords} записей за запрос.
+ */
+@ConfigurationProperties(prefix = "notification.retry")
+public record NotificationRetryProperties(
+        @DefaultValue("notifications-failed") String topic,
+        @DefaultValue("5") int attempts,
+        @DefaultValue("5s") Duration initialDelay,
+        @DefaultValue("6.0") double multiplier,
+        @DefaultValue("10m") Duration maxDelay,
+        @DefaultValue("3") int partitions,
+        @DefaultValue("1") short replicationFactor,
+        @DefaultValue("1000") int maxReplayRecords) {
+
+    public static final String DLT_SUFFIX = "-dlt";
+
+    public String deadLetterTopic() {
+        return topic + DLT_SUFFIX;
+    }
+}
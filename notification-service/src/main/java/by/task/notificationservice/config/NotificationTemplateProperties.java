@@ -0,0 +1,19 @@
+package by.task.notificationservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * @param location       каталог с файлами шаблонов {@code <operation>_<locale>.txt}
+ * @param defaultLocale  локаль, если у запроса её нет или для неё нет шаблона
+ * @param reloadInterval период проверки файлов на изменения; {@code 0} отключает перезагрузку
+ */
+@ConfigurationProperties(prefix = "notification.templates")
+public record NotificationTemplateProperties(
+        @DefaultValue("classpath:/templates/notification/") String location,
+        @DefaultValue("ru") Locale defaultLocale,
+        @DefaultValue("5s") Duration reloadInterval) {
+}
@@ -0,0 +1,14 @@
+package by.task.notificationservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "notification.smtp-pool")
+public record SmtpPoolProperties(
+        @DefaultValue("8") int maxConnections,
+        @DefaultValue("30s") Duration borrowTimeout,
+        @DefaultValue("500") int maxMessagesPerConnection,
+        @DefaultValue("20") int minMessagesPerConnection) {
+}
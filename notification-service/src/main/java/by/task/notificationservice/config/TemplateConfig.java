@@ -0,0 +1,20 @@
+package by.task.notificationservice.config;
+
+import by.task.notificationservice.template.NotificationTemplates;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.util.Map;
+
+@Configuration
+public class TemplateConfig {
+
+    @Bean(destroyMethod = "close")
+    public NotificationTemplates notificationTemplates(ResourcePatternResolver resourcePatternResolver,
+                                                       NotificationTemplateProperties properties,
+                                                       NotificationProperties notificationProperties) {
+        return new NotificationTemplates(resourcePatternResolver, properties,
+                Map.of("siteName", notificationProperties.siteName()));
+    }
+}
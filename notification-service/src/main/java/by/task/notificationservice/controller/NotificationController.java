@@ -0,0 +1,51 @@
+package by.task.notificationservice.controller;
+
+import by.task.notificationservice.config.NotificationRetryProperties;
+import by.task.notificationservice.dto.NotificationRequestDTO;
+import by.task.notificationservice.service.NotificationRetryService;
+import by.task.notificationservice.service.NotificationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+    private final NotificationService notificationService;
+    private final NotificationRetryService retryService;
+    private final NotificationRetryProperties retryProperties;
+
+    @Autowired
+    public NotificationController(NotificationService notificationService, NotificationRetryService retryService,
+                                  NotificationRetryProperties retryProperties) {
+        this.notificationService = notificationService;
+        this.retryService = retryService;
+        this.retryProperties = retryProperties;
+    }
+
+    @PostMapping
+    public ResponseEntity<Void> sendNotification(@Valid @RequestBody NotificationRequestDTO requestDTO) {
+        notificationService.sendNotification(requestDTO.getOperation(), requestDTO.getEmail(),
+                requestDTO.getLocale());
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Возвращает записи из DLT в начало конвейера повторов; {@code limit} ограничен
+     * {@code notification.retry.max-replay-records}.
+     */
+    @PostMapping("/dlt/replay")
+    public ResponseEntity<Map<String, Integer>> replayDeadLetters(@RequestParam(required = false) Integer limit) {
+        int maxRecords = limit == null || limit < 1 || limit > retryProperties.maxReplayRecords()
+                ? retryProperties.maxReplayRecords()
+                : limit;
+        return ResponseEntity.ok(Map.of("replayed", retryService.replayDeadLetters(maxRecords)));
+    }
+}
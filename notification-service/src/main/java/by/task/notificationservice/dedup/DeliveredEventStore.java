@@ -0,0 +1,246 @@
+package by.task.notificationservice.dedup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Множество id доставленных событий в отображённом в память файле: проверка и вставка за O(1)
+ * без обращения к базе, а после перезапуска файл просто отображается заново, без загрузки.
+ * <p>
+ * Файл — заголовок и два поколения одинаковой ёмкости, каждое — хеш-таблица с открытой адресацией
+ * из {@code long}-слотов ({@code 0} — пустой слот). Новые id пишутся в текущее поколение, поиск идёт
+ * по обоим. Когда текущее поколение старше {@code retention} или заполнено на 3/4, старое поколение
+ * очищается и становится текущим. Так id помнится не меньше {@code retention} (если поколение
+ * не переполнилось раньше) и не больше двух таких периодов.
+ * <p>
+ * Записи попадают в page cache сразу и переживают падение процесса; на диск файл сбрасывается
+ * при ротации и при закрытии. После сбоя ОС последние записи могут потеряться — тогда письмо
+ * по повторно доставленному событию уйдёт ещё раз.
+ */
+public class DeliveredEventStore implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DeliveredEventStore.class);
+
+    private static final int MAGIC = 0x4E444450;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int FORMAT_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int CURRENT_OFFSET = 12;
+    private static final int STARTED_AT_OFFSET = 16;
+    private static final int COUNT_OFFSET = 32;
+    private static final int GENERATIONS = 2;
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final long EMPTY = 0L;
+    private static final byte[] ZEROS = new byte[64 * 1024];
+
+    private final Path path;
+    private final int capacity;
+    private final int mask;
+    private final int maxEntries;
+    private final long retentionMillis;
+    private final Clock clock;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * @param capacity число слотов в одном поколении, округляется вверх до степени двойки
+     */
+    public DeliveredEventStore(Path path, int capacity, Duration retention, Clock clock) {
+        if (capacity < 2 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Недопустимая ёмкость хранилища дедупликации: " + capacity);
+        }
+        this.path = path;
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.maxEntries = this.capacity / 4 * 3;
+        this.retentionMillis = retention.toMillis();
+        this.clock = clock;
+        long size = HEADER_SIZE + (long) GENERATIONS * this.capacity * Long.BYTES;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.lock = channel.tryLock();
+            if (lock == null) {
+                channel.close();
+                throw new IllegalStateException("Файл дедупликации " + path + " занят другим процессом");
+            }
+            boolean reusable = channel.size() == size;
+            if (!reusable) {
+                channel.truncate(0);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть файл дедупликации " + path, e);
+        }
+        if (hasValidHeader()) {
+            logger.info("Opened dedup store {} with {} remembered events", path, size());
+        } else {
+            initialize();
+            logger.info("Created dedup store {} with {} slots per generation", path, this.capacity);
+        }
+    }
+
+    /**
+     * @return {@code true}, если событие уже отмечено доставленным
+     */
+    public synchronized boolean contains(long eventId) {
+        requireId(eventId);
+        rotateIfExpired();
+        int current = current();
+        return find(current, eventId) || find(GENERATIONS - 1 - current, eventId);
+    }
+
+    /**
+     * Отмечает событие доставленным; повторная отметка ничего не меняет.
+     */
+    public synchronized void add(long eventId) {
+        requireId(eventId);
+        rotateIfExpired();
+        int current = current();
+        if (find(current, eventId) || find(GENERATIONS - 1 - current, eventId)) {
+            return;
+        }
+        if (count(current) >= maxEntries) {
+            logger.warn("Dedup generation filled before retention elapsed, rotating early; consider a larger capacity");
+            current = rotate();
+        }
+        int slot = slot(eventId);
+        while (buffer.getLong(offset(current, slot)) != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        buffer.putLong(offset(current, slot), eventId);
+        buffer.putInt(COUNT_OFFSET + current * Integer.BYTES, count(current) + 1);
+    }
+
+    /**
+     * Число запомненных событий в обоих поколениях.
+     */
+    public synchronized long size() {
+        return (long) count(0) + count(1);
+    }
+
+    @Override
+    public synchronized void close() {
+        buffer.force();
+        try {
+            lock.release();
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close dedup store {}", path, e);
+        }
+    }
+
+    private boolean find(int generation, long eventId) {
+        int slot = slot(eventId);
+        long value;
+        while ((value = buffer.getLong(offset(generation, slot))) != EMPTY) {
+            if (value == eventId) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    private void rotateIfExpired() {
+        if (clock.millis() - startedAt(current()) >= retentionMillis) {
+            rotate();
+        }
+    }
+
+    /**
+     * Очищает старое поколение и делает его текущим.
+     *
+     * @return индекс нового текущего поколения
+     */
+    private int rotate() {
+        int next = GENERATIONS - 1 - current();
+        clear(next);
+        buffer.putLong(STARTED_AT_OFFSET + next * Long.BYTES, clock.millis());
+        buffer.putInt(CURRENT_OFFSET, next);
+        buffer.force();
+        logger.debug("Rotated dedup store {}, {} events remain remembered", path, count(GENERATIONS - 1 - next));
+        return next;
+    }
+
+    private void clear(int generation) {
+        long start = offset(generation, 0);
+        long end = start + (long) capacity * Long.BYTES;
+        for (long position = start; position < end; position += ZEROS.length) {
+            buffer.put((int) position, ZEROS, 0, (int) Math.min(ZEROS.length, end - position));
+        }
+        buffer.putInt(COUNT_OFFSET + generation * Integer.BYTES, 0);
+    }
+
+    private void initialize() {
+        for (int generation = 0; generation < GENERATIONS; generation++) {
+            clear(generation);
+            buffer.putLong(STARTED_AT_OFFSET + generation * Long.BYTES, clock.millis());
+        }
+        buffer.putInt(CURRENT_OFFSET, 0);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(FORMAT_OFFSET, FORMAT_VERSION);
+        // Магическое число пишется последним: файл, недописанный при сбое, пересоздаётся
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.force();
+    }
+
+    private boolean hasValidHeader() {
+        return buffer.getInt(MAGIC_OFFSET) == MAGIC
+                && buffer.getInt(FORMAT_OFFSET) == FORMAT_VERSION
+                && buffer.getInt(CAPACITY_OFFSET) == capacity
+                && (current() == 0 || current() == 1);
+    }
+
+    private int current() {
+        return buffer.getInt(CURRENT_OFFSET);
+    }
+
+    private int count(int generation) {
+        return buffer.getInt(COUNT_OFFSET + generation * Integer.BYTES);
+    }
+
+    private long startedAt(int generation) {
+        return buffer.getLong(STARTED_AT_OFFSET + generation * Long.BYTES);
+    }
+
+    private int offset(int generation, int slot) {
+        return HEADER_SIZE + (generation * capacity + slot) * Long.BYTES;
+    }
+
+    /**
+     * Перемешивание битов (финализатор MurmurHash3): последовательные id outbox
+     * не должны ложиться в соседние слоты одной длинной цепочкой.
+     */
+    private int slot(long eventId) {
+        long h = eventId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private static void requireId(long eventId) {
+        if (eventId == EMPTY) {
+            throw new IllegalArgumentException("Id события не может быть 0");
+        }
+    }
+}
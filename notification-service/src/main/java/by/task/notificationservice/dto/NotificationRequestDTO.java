@@ -0,0 +1,51 @@
+package by.task.notificationservice.dto;
+
+import by.task.userevents.UserEventType;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Locale;
+
+public class NotificationRequestDTO {
+    @NotBlank(message = "Email is required")
+    @Email(message = "Invalid email format")
+    private String email;
+
+    @NotNull(message = "Operation is required")
+    private UserEventType operation;
+
+    private Locale locale;
+
+    public NotificationRequestDTO() {
+    }
+
+    public NotificationRequestDTO(String email, UserEventType operation) {
+        this.email = email;
+        this.operation = operation;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public UserEventType getOperation() {
+        return operation;
+    }
+
+    public void setOperation(UserEventType operation) {
+        this.operation = operation;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+    }
+}
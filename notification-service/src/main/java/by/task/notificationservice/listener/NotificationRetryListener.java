@@ -0,0 +1,93 @@
+package by.task.notificationservice.listener;
+
+import by.task.notificationservice.config.DedupConfig;
+import by.task.notificationservice.config.KafkaRetryConfig;
+import by.task.notificationservice.dedup.DeliveredEventStore;
+import by.task.notificationservice.service.NotificationService;
+import by.task.userevents.UserEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Повторная отправка писем, не ушедших из основного листенера. Ступени повтора и DLT создаёт
+ * {@link KafkaRetryConfig#notificationRetryTopics}: каждая ступень — свой топик и свой контейнер,
+ * поэтому ожидание задержки не мешает ни основному потоку событий, ни другим ступеням.
+ */
+@Component
+public class NotificationRetryListener {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetryListener.class);
+
+    public static final String LISTENER_ID = "notification-retry";
+    public static final String ATTEMPTS_METRIC = "notification.retry.attempts";
+
+    private final NotificationService notificationService;
+    private final DeliveredEventStore deliveredEvents;
+    private final MeterRegistry meterRegistry;
+    private final Counter deadLettered;
+    private final Counter duplicates;
+
+    @Autowired
+    public NotificationRetryListener(NotificationService notificationService, DeliveredEventStore deliveredEvents,
+                                     MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.deliveredEvents = deliveredEvents;
+        this.meterRegistry = meterRegistry;
+        this.duplicates = Counter.builder(DedupConfig.DUPLICATES_METRIC)
+                .description("Already delivered user events dropped without sending an email")
+                .tag("listener", LISTENER_ID)
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("notification.dlt.records")
+                .description("Notifications that exhausted all retry tiers")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = "${notification.retry.topic}",
+            containerFactory = KafkaRetryConfig.RETRY_LISTENER_FACTORY)
+    public void onRetry(ConsumerRecord<String, UserEvent> record) {
+        UserEvent event = record.value();
+        if (event.getEventId() != null && deliveredEvents.contains(event.getEventId())) {
+            logger.debug("Skipping already delivered user event ID: {}", event.getEventId());
+            duplicates.increment();
+            return;
+        }
+        try {
+            notificationService.sendNotification(event.getOperation(), event.getEmail());
+        } catch (RuntimeException e) {
+            attempts(record.topic(), "failure").increment();
+            throw e;
+        }
+        if (event.getEventId() != null) {
+            deliveredEvents.add(event.getEventId());
+        }
+        attempts(record.topic(), "success").increment();
+    }
+
+    @DltHandler
+    public void onDeadLetter(ConsumerRecord<String, Object> record,
+                             @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String error) {
+        deadLettered.increment();
+        logger.error("Notification moved to {} at offset {}: {}", record.topic(), record.offset(), error);
+    }
+
+    /**
+     * Счётчик на ступень: тег {@code tier} — имя топика ступени.
+     */
+    private Counter attempts(String tier, String outcome) {
+        return Counter.builder(ATTEMPTS_METRIC)
+                .description("Notification retry attempts per tier")
+                .tag("tier", tier)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
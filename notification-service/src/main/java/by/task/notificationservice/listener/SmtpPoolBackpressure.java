@@ -0,0 +1,54 @@
+package by.task.notificationservice.listener;
+
+import by.task.notificationservice.mail.SmtpConnectionPool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Приостанавливает чтение user-events, пока пул SMTP-соединений исчерпан, и возобновляет,
+ * как только соединение освободилось. Уже полученные пачки дорабатываются, новые не запрашиваются.
+ */
+@Component
+public class SmtpPoolBackpressure implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(SmtpPoolBackpressure.class);
+
+    private final SmtpConnectionPool pool;
+    private final KafkaListenerEndpointRegistry registry;
+    private final Counter pauses;
+
+    @Autowired
+    public SmtpPoolBackpressure(SmtpConnectionPool pool, KafkaListenerEndpointRegistry registry,
+                                MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.registry = registry;
+        this.pauses = Counter.builder("smtp.pool.backpressure.pauses")
+                .description("Times the user-events consumer was paused because the SMTP pool was saturated")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        pool.setSaturationListener(this::onSaturationChanged);
+    }
+
+    void onSaturationChanged(boolean saturated) {
+        MessageListenerContainer container = registry.getListenerContainer(UserEventsListener.LISTENER_ID);
+        if (container == null) {
+            return;
+        }
+        if (saturated) {
+            logger.debug("SMTP pool saturated, pausing {}", UserEventsListener.LISTENER_ID);
+            pauses.increment();
+            container.pause();
+        } else {
+            container.resume();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package by.task.notificationservice.listener;
+
+import by.task.notificationservice.config.DedupConfig;
+import by.task.notificationservice.config.KafkaConsumerConfig;
+import by.task.notificationservice.dedup.DeliveredEventStore;
+import by.task.notificationservice.mail.MailBatchException;
+import by.task.notificationservice.service.NotificationRetryService;
+import by.task.notificationservice.service.NotificationService;
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Получает события пользователей пачками и отправляет письма о создании и удалении аккаунта.
+ * Неотправленные письма не задерживают партицию: их события уходят в топик повторов,
+ * после чего пачка коммитится целиком. Обработчик ошибок контейнера повторяет пачку только тогда,
+ * когда не удалось записать в топик повторов.
+ * <p>
+ * События, по которым письмо уже ушло (повторная доставка после ребалансировки или
+ * дубликат внутри пачки), отбрасываются по id в {@link DeliveredEventStore}.
+ * <p>
+ * Записи, которые не удалось десериализовать, приходят с пустым значением и заголовком исключения
+ * {@code ErrorHandlingDeserializer}; они уходят в DLT как есть до отправки писем пачки.
+ */
+@Component
+public class UserEventsListener {
+    private static final Logger logger = LoggerFactory.getLogger(UserEventsListener.class);
+
+    public static final String LISTENER_ID = "user-events-notifications";
+
+    private final NotificationService notificationService;
+    private final NotificationRetryService retryService;
+    private final DeliveredEventStore deliveredEvents;
+    private final Counter duplicates;
+
+    @Autowired
+    public UserEventsListener(NotificationService notificationService, NotificationRetryService retryService,
+                              DeliveredEventStore deliveredEvents, MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.retryService = retryService;
+        this.deliveredEvents = deliveredEvents;
+        this.duplicates = Counter.builder(DedupConfig.DUPLICATES_METRIC)
+                .description("Already delivered user events dropped without sending an email")
+                .tag("listener", LISTENER_ID)
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            idIsGroup = false,
+            topics = "${notification.topic}",
+            containerFactory = KafkaConsumerConfig.BATCH_LISTENER_FACTORY)
+    public void onUserEvents(List<ConsumerRecord<String, UserEvent>> records, Acknowledgment acknowledgment) {
+        logger.debug("Received batch of {} user events", records.size());
+        List<UserEvent> events = new ArrayList<>(records.size());
+        List<Integer> recordIndexes = new ArrayList<>(records.size());
+        Set<Long> batchEventIds = new HashSet<>();
+        List<ConsumerRecord<String, UserEvent>> undeserializable = new ArrayList<>();
+        for (int index = 0; index < records.size(); index++) {
+            ConsumerRecord<String, UserEvent> record = records.get(index);
+            UserEvent event = record.value();
+            if (event == null && record.headers()
+                    .lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+                undeserializable.add(record);
+                continue;
+            }
+            if (!isNotifiable(event)) {
+                continue;
+            }
+            if (event.getEventId() != null
+                    && (!batchEventIds.add(event.getEventId()) || deliveredEvents.contains(event.getEventId()))) {
+                logger.debug("Skipping already delivered user event ID: {}", event.getEventId());
+                duplicates.increment();
+                continue;
+            }
+            events.add(event);
+            recordIndexes.add(index);
+        }
+        if (!undeserializable.isEmpty()) {
+            retryService.deadLetterUndeserializable(undeserializable);
+        }
+
+        List<Integer> failedIndexes = List.of();
+        try {
+            notificationService.sendNotifications(events);
+        } catch (MailBatchException e) {
+            logger.warn("Failed to notify {} of {} users, scheduling retries", e.getFailedIndexes().size(),
+                    events.size(), e);
+            failedIndexes = e.getFailedIndexes();
+        }
+        // До записи в топик повторов: если она не удастся и пачка придёт снова, отправленные письма не повторятся
+        markDelivered(events, failedIndexes);
+        if (!failedIndexes.isEmpty()) {
+            List<ConsumerRecord<String, UserEvent>> failedRecords = new ArrayList<>(failedIndexes.size());
+            for (int failedIndex : failedIndexes) {
+                failedRecords.add(records.get(recordIndexes.get(failedIndex)));
+            }
+            retryService.scheduleRetries(failedRecords);
+        }
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * Отмечает доставленными все события пачки, кроме неотправленных: их письма ещё уйдут из топика повторов.
+     * Индексы неотправленных возрастают, поэтому обход идёт одним проходом.
+     */
+    private void markDelivered(List<UserEvent> events, List<Integer> failedIndexes) {
+        int nextFailed = 0;
+        for (int index = 0; index < events.size(); index++) {
+            if (nextFailed < failedIndexes.size() && failedIndexes.get(nextFailed) == index) {
+                nextFailed++;
+                continue;
+            }
+            Long eventId = events.get(index).getEventId();
+            if (eventId != null) {
+                deliveredEvents.add(eventId);
+            }
+        }
+    }
+
+    private boolean isNotifiable(UserEvent event) {
+        return event != null
+                && event.getEmail() != null
+                && (event.getOperation() == UserEventType.CREATED || event.getOperation() == UserEventType.DELETED);
+    }
+}
@@ -0,0 +1,31 @@
+package by.task.notificationservice.mail;
+
+import org.springframework.mail.MailSendException;
+
+import java.util.List;
+
+/**
+ * Ошибка пакетной отправки: {@link #getFailedIndexes()} — индексы всех неотправленных писем по возрастанию,
+ * {@link #getFailedIndex()} — наименьший из них.
+ */
+public class MailBatchException extends MailSendException {
+    private final List<Integer> failedIndexes;
+
+    public MailBatchException(int failedIndex, Throwable cause) {
+        this(List.of(failedIndex), cause);
+    }
+
+    public MailBatchException(List<Integer> failedIndexes, Throwable cause) {
+        super("Failed to send " + failedIndexes.size() + " message(s) starting at index " + failedIndexes.get(0),
+                cause);
+        this.failedIndexes = List.copyOf(failedIndexes);
+    }
+
+    public int getFailedIndex() {
+        return failedIndexes.get(0);
+    }
+
+    public List<Integer> getFailedIndexes() {
+        return failedIndexes;
+    }
+}
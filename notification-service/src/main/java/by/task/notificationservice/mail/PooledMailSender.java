@@ -0,0 +1,128 @@
+package by.task.notificationservice.mail;
+
+import by.task.notificationservice.config.SmtpPoolProperties;
+import by.task.notificationservice.mail.SmtpConnectionPool.PooledConnection;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/**
+ * Отправляет письма через {@link SmtpConnectionPool}. Пачка делится на непрерывные части,
+ * каждая часть уходит по одному соединению подряд, без переподключения между письмами.
+ * Части отправляются параллельно, поэтому одновременно в работе не больше писем, чем соединений в пуле.
+ */
+public class PooledMailSender implements AutoCloseable {
+    private final SmtpConnectionPool pool;
+    private final Session session;
+    private final SmtpPoolProperties properties;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PooledMailSender(SmtpConnectionPool pool, Session session, SmtpPoolProperties properties) {
+        this.pool = pool;
+        this.session = session;
+        this.properties = properties;
+    }
+
+    public void send(SimpleMailMessage message) {
+        sendAll(List.of(message));
+    }
+
+    /**
+     * @throws MailBatchException со всеми неотправленными письмами: часть, на которой случилась ошибка,
+     *                            считается неотправленной от упавшего письма до своего конца
+     */
+    public void sendAll(List<SimpleMailMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        int parts = Math.max(1, Math.min(pool.getMaxConnections(),
+                messages.size() / properties.minMessagesPerConnection()));
+        if (parts == 1) {
+            sendPart(messages, 0, messages.size());
+            return;
+        }
+
+        int partSize = (messages.size() + parts - 1) / parts;
+        List<CompletableFuture<Void>> sends = new ArrayList<>(parts);
+        for (int from = 0; from < messages.size(); from += partSize) {
+            int start = from;
+            int end = Math.min(messages.size(), from + partSize);
+            sends.add(CompletableFuture.runAsync(() -> sendPart(messages, start, end), executor));
+        }
+
+        // Части идут по возрастанию индексов, поэтому список неотправленных остаётся упорядоченным
+        List<Integer> failedIndexes = new ArrayList<>();
+        Throwable firstCause = null;
+        for (int part = 0; part < sends.size(); part++) {
+            try {
+                sends.get(part).join();
+            } catch (CompletionException e) {
+                int start = part * partSize;
+                MailBatchException failure = e.getCause() instanceof MailBatchException batchException
+                        ? batchException
+                        : new MailBatchException(range(start, Math.min(messages.size(), start + partSize)),
+                        e.getCause());
+                failedIndexes.addAll(failure.getFailedIndexes());
+                if (firstCause == null) {
+                    firstCause = failure.getCause();
+                }
+            }
+        }
+        if (!failedIndexes.isEmpty()) {
+            throw new MailBatchException(failedIndexes, firstCause);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private void sendPart(List<SimpleMailMessage> messages, int from, int to) {
+        PooledConnection connection;
+        try {
+            connection = pool.borrow();
+        } catch (MailSendException e) {
+            throw new MailBatchException(range(from, to), e);
+        }
+
+        boolean broken = false;
+        int index = from;
+        try {
+            for (; index < to; index++) {
+                MimeMessage mimeMessage = toMimeMessage(messages.get(index));
+                connection.transport().sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+                connection.messageSent();
+            }
+        } catch (MessagingException | RuntimeException e) {
+            broken = true;
+            throw new MailBatchException(range(index, to), e);
+        } finally {
+            pool.release(connection, broken);
+        }
+    }
+
+    private static List<Integer> range(int from, int to) {
+        return IntStream.range(from, to).boxed().toList();
+    }
+
+    private MimeMessage toMimeMessage(SimpleMailMessage message) throws MessagingException {
+        MimeMessage mimeMessage = new MimeMessage(session);
+        message.copyTo(new MimeMailMessage(new MimeMessageHelper(mimeMessage, StandardCharsets.UTF_8.name())));
+        mimeMessage.saveChanges();
+        return mimeMessage;
+    }
+}
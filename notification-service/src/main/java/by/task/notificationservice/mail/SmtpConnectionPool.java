@@ -0,0 +1,202 @@
+package by.task.notificationservice.mail;
+
+import by.task.notificationservice.config.SmtpPoolProperties;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailSendException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Пул постоянных SMTP-соединений. Соединение открывается при первой выдаче и переиспользуется
+ * для последующих писем, пока не отправит {@code maxMessagesPerConnection} сообщений или не оборвётся.
+ * Число одновременно выданных соединений ограничено {@code maxConnections}; при исчерпании пула
+ * {@link #borrow()} ждёт до {@code borrowTimeout}, а подписчик насыщения получает уведомление.
+ */
+public class SmtpConnectionPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final SmtpPoolProperties properties;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private volatile Consumer<Boolean> saturationListener = saturated -> {
+    };
+    private volatile boolean saturated;
+    private volatile boolean closed;
+
+    public SmtpConnectionPool(Session session, String host, int port, String username, String password,
+                              SmtpPoolProperties properties) {
+        this.session = session;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.properties = properties;
+        this.permits = new Semaphore(properties.maxConnections(), true);
+    }
+
+    public PooledConnection borrow() {
+        if (closed) {
+            throw new MailSendException("SMTP connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire()) {
+                updateSaturation(true);
+                Duration timeout = properties.borrowTimeout();
+                if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new MailSendException("No SMTP connection available within " + timeout);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for SMTP connection", e);
+        }
+        active.incrementAndGet();
+
+        PooledConnection connection = idle.pollFirst();
+        try {
+            if (connection == null) {
+                connection = new PooledConnection(session.getTransport("smtp"));
+            }
+            connection.ensureConnected();
+            return connection;
+        } catch (MessagingException | RuntimeException e) {
+            release(connection, true);
+            throw new MailSendException("Failed to open SMTP connection to " + host + ":" + port, e);
+        }
+    }
+
+    public void release(PooledConnection connection, boolean broken) {
+        try {
+            if (connection != null) {
+                if (broken || closed || connection.sent >= properties.maxMessagesPerConnection()) {
+                    connection.close();
+                } else {
+                    idle.offerFirst(connection);
+                }
+            }
+        } finally {
+            active.decrementAndGet();
+            permits.release();
+            if (permits.availablePermits() > 0) {
+                updateSaturation(false);
+            }
+        }
+    }
+
+    public void setSaturationListener(Consumer<Boolean> saturationListener) {
+        this.saturationListener = saturationListener;
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public int getIdle() {
+        return idle.size();
+    }
+
+    public int getOpen() {
+        return open.get();
+    }
+
+    public int getMaxConnections() {
+        return properties.maxConnections();
+    }
+
+    public double getUtilization() {
+        return (double) active.get() / properties.maxConnections();
+    }
+
+    public boolean isSaturated() {
+        return saturated;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        List<PooledConnection> connections = new ArrayList<>();
+        idle.drainTo(connections);
+        connections.forEach(PooledConnection::close);
+    }
+
+    /**
+     * Подписчик уведомляется под той же блокировкой, что меняет флаг: иначе запоздавшее уведомление
+     * о насыщении могло прийти после уведомления о его снятии, и подписчик остался бы на паузе
+     * при простаивающем пуле.
+     */
+    private void updateSaturation(boolean value) {
+        if (saturated != value) {
+            synchronized (this) {
+                if (saturated == value) {
+                    return;
+                }
+                saturated = value;
+                logger.debug("SMTP connection pool saturated: {}", value);
+                saturationListener.accept(value);
+            }
+        }
+    }
+
+    public final class PooledConnection {
+        private final Transport transport;
+        private boolean connected;
+        private int sent;
+
+        private PooledConnection(Transport transport) {
+            this.transport = transport;
+        }
+
+        public Transport transport() {
+            return transport;
+        }
+
+        public void messageSent() {
+            sent++;
+        }
+
+        private void ensureConnected() throws MessagingException {
+            if (connected && transport.isConnected()) {
+                return;
+            }
+            if (connected) {
+                connected = false;
+                open.decrementAndGet();
+            }
+            transport.connect(host, port, username, password);
+            connected = true;
+            open.incrementAndGet();
+            sent = 0;
+        }
+
+        private void close() {
+            if (!connected) {
+                return;
+            }
+            connected = false;
+            open.decrementAndGet();
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                logger.debug("Failed to close SMTP connection", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package by.task.notificationservice.service;
+
+import by.task.notificationservice.config.KafkaRetryConfig;
+import by.task.notificationservice.config.NotificationRetryProperties;
+import by.task.userevents.UserEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Начало и конец конвейера повторов: ставит неотправленные события в топик повторов
+ * и возвращает в него записи из DLT по запросу.
+ */
+@Service
+public class NotificationRetryService {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetryService.class);
+
+    static final String REPLAY_GROUP = "notification-service-dlt-replay";
+    private static final Duration REPLAY_POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final KafkaTemplate<String, Object> retryTemplate;
+    private final NotificationRetryProperties properties;
+    private final DefaultKafkaConsumerFactory<String, byte[]> replayConsumerFactory;
+    private final Counter scheduled;
+    private final Counter replayed;
+    private final Counter undeserializable;
+
+    @Autowired
+    public NotificationRetryService(@Qualifier(KafkaRetryConfig.RETRY_TEMPLATE)
+                                    KafkaTemplate<String, Object> retryTemplate,
+                                    NotificationRetryProperties properties,
+                                    ConsumerFactory<String, UserEvent> consumerFactory,
+                                    MeterRegistry meterRegistry) {
+        this.retryTemplate = retryTemplate;
+        this.properties = properties;
+        Map<String, Object> replayProperties = new HashMap<>(consumerFactory.getConfigurationProperties());
+        replayProperties.put(ConsumerConfig.GROUP_ID_CONFIG, REPLAY_GROUP);
+        replayProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        replayProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.replayConsumerFactory = new DefaultKafkaConsumerFactory<>(replayProperties,
+                new StringDeserializer(), new ByteArrayDeserializer());
+        this.scheduled = Counter.builder("notification.retry.scheduled")
+                .description("Events moved from the main consumer to the retry topics")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("notification.dlt.replayed")
+                .description("Dead-lettered events returned to the retry topics")
+                .register(meterRegistry);
+        this.undeserializable = Counter.builder("notification.dlt.undeserializable")
+                .description("User events that failed deserialization and went straight to the DLT")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Публикует события в первую ступень повторов и ждёт подтверждения брокера,
+     * чтобы исходную пачку можно было закоммитить без потери записей.
+     */
+    public void scheduleRetries(List<ConsumerRecord<String, UserEvent>> records) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, UserEvent> record : records) {
+            sends.add(retryTemplate.send(properties.topic(), record.key(), record.value()));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+        scheduled.increment(records.size());
+        logger.info("Scheduled {} notifications for retry", records.size());
+    }
+
+    /**
+     * Отправляет в DLT исходные байты записей, которые не удалось десериализовать: повторять их бесполезно.
+     * Заголовки — те же {@code kafka_dlt-*}, что пишет конвейер повторов. Как и {@link #scheduleRetries},
+     * ждёт подтверждения брокера.
+     */
+    public void deadLetterUndeserializable(List<ConsumerRecord<String, UserEvent>> records) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, UserEvent> record : records) {
+            DeserializationException exception = SerializationUtils.getExceptionFromHeader(record,
+                    SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, new LogAccessor(getClass()));
+            ProducerRecord<String, Object> deadLetter = new ProducerRecord<>(properties.deadLetterTopic(),
+                    record.key(), exception == null ? null : exception.getData());
+            deadLetter.headers()
+                    .add(KafkaHeaders.DLT_ORIGINAL_TOPIC, record.topic().getBytes(StandardCharsets.UTF_8))
+                    .add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(Integer.BYTES)
+                            .putInt(record.partition()).array())
+                    .add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES)
+                            .putLong(record.offset()).array());
+            if (exception != null) {
+                deadLetter.headers()
+                        .add(KafkaHeaders.DLT_EXCEPTION_FQCN, DeserializationException.class.getName()
+                                .getBytes(StandardCharsets.UTF_8))
+                        .add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, String.valueOf(exception.getMessage())
+                                .getBytes(StandardCharsets.UTF_8));
+            }
+            logger.warn("Failed to deserialize user event at {}-{}@{}, moving it to {}", record.topic(),
+                    record.partition(), record.offset(), properties.deadLetterTopic(), exception);
+            sends.add(retryTemplate.send(deadLetter));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+        undeserializable.increment(records.size());
+    }
+
+    /**
+     * Переносит до {@code maxRecords} записей из DLT в топик повторов, начиная с последнего закоммиченного
+     * смещения группы {@value #REPLAY_GROUP}; перенесённые записи проходят все ступени заново.
+     * Записи переносятся байтами как есть, поэтому формат событий здесь не важен.
+     *
+     * @return число перенесённых записей
+     */
+    public synchronized int replayDeadLetters(int maxRecords) {
+        String deadLetterTopic = properties.deadLetterTopic();
+        try (Consumer<String, byte[]> consumer = replayConsumerFactory.createConsumer()) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(deadLetterTopic);
+            if (partitions == null || partitions.isEmpty()) {
+                return 0;
+            }
+            consumer.assign(partitions.stream()
+                    .map(partition -> new TopicPartition(deadLetterTopic, partition.partition()))
+                    .toList());
+
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+            List<CompletableFuture<?>> sends = new ArrayList<>();
+            while (sends.size() < maxRecords) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(REPLAY_POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (sends.size() == maxRecords) {
+                        break;
+                    }
+                    sends.add(retryTemplate.send(properties.topic(), record.key(), record.value()));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+            consumer.commitSync(offsets);
+            replayed.increment(sends.size());
+            logger.info("Replayed {} notifications from {}", sends.size(), deadLetterTopic);
+            return sends.size();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package by.task.notificationservice.service;
+
+import by.task.notificationservice.config.NotificationProperties;
+import by.task.notificationservice.mail.PooledMailSender;
+import by.task.notificationservice.template.NotificationTemplate;
+import by.task.notificationservice.template.NotificationTemplates;
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+public class NotificationService {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+
+    private final PooledMailSender mailSender;
+    private final NotificationProperties properties;
+    private final NotificationTemplates templates;
+
+    @Autowired
+    public NotificationService(PooledMailSender mailSender, NotificationProperties properties,
+                               NotificationTemplates templates) {
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.templates = templates;
+    }
+
+    public void sendNotification(UserEventType operation, String email) {
+        sendNotification(operation, email, null);
+    }
+
+    /**
+     * @param locale локаль письма; {@code null} — локаль по умолчанию
+     */
+    public void sendNotification(UserEventType operation, String email, Locale locale) {
+        logger.debug("Sending {} notification to {}", operation, email);
+        mailSender.send(createMessage(operation, email, locale, new StringBuilder()));
+    }
+
+    /**
+     * Отправляет письма по всем событиям через общий пул соединений.
+     *
+     * @throws by.task.notificationservice.mail.MailBatchException с индексом первого неотправленного события
+     */
+    public void sendNotifications(List<UserEvent> events) {
+        logger.debug("Sending {} notifications", events.size());
+        // Один буфер на всю пачку: рендеринг не создаёт промежуточных строк
+        StringBuilder buffer = new StringBuilder();
+        List<SimpleMailMessage> messages = new ArrayList<>(events.size());
+        for (UserEvent event : events) {
+            messages.add(createMessage(event.getOperation(), event.getEmail(), null, buffer));
+        }
+        mailSender.sendAll(messages);
+    }
+
+    private SimpleMailMessage createMessage(UserEventType operation, String email, Locale locale,
+                                            StringBuilder buffer) {
+        NotificationTemplate template = templates.get(operation, locale);
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(properties.from());
+        message.setTo(email);
+        message.setSubject(template.subject().render(buffer, email));
+        message.setText(template.body().render(buffer, email));
+        return message;
+    }
+}
@@ -0,0 +1,88 @@
+package by.task.notificationservice.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Шаблон, разобранный один раз при загрузке. Константы (например, {@code ${siteName}})
+ * подставляются при компиляции и склеиваются с соседним текстом, так что при рендеринге
+ * остаются только готовые куски текста и места для {@code ${email}}.
+ */
+public final class CompiledTemplate {
+    static final String EMAIL_VARIABLE = "email";
+
+    private static final String VARIABLE_START = "${";
+    private static final char VARIABLE_END = '}';
+
+    /** Куски текста по порядку; {@code null} означает место для email. */
+    private final String[] parts;
+    private final String constantText;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] parts) {
+        this.parts = parts;
+        this.constantText = parts.length == 0 ? "" : parts.length == 1 && parts[0] != null ? parts[0] : null;
+        int length = 0;
+        for (String part : parts) {
+            if (part != null) {
+                length += part.length();
+            }
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * @throws IllegalArgumentException если в шаблоне неизвестная переменная или незакрытая {@code ${}
+     */
+    public static CompiledTemplate compile(String source, Map<String, String> constants) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < source.length()) {
+            int start = source.indexOf(VARIABLE_START, position);
+            if (start < 0) {
+                literal.append(source, position, source.length());
+                break;
+            }
+            int end = source.indexOf(VARIABLE_END, start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Незакрытая переменная в позиции " + start);
+            }
+            literal.append(source, position, start);
+            String name = source.substring(start + VARIABLE_START.length(), end).trim();
+            if (EMAIL_VARIABLE.equals(name)) {
+                if (!literal.isEmpty()) {
+                    parts.add(literal.toString());
+                    literal.setLength(0);
+                }
+                parts.add(null);
+            } else if (constants.containsKey(name)) {
+                literal.append(constants.get(name));
+            } else {
+                throw new IllegalArgumentException("Неизвестная переменная ${" + name + "}");
+            }
+            position = end + 1;
+        }
+        if (!literal.isEmpty()) {
+            parts.add(literal.toString());
+        }
+        return new CompiledTemplate(parts.toArray(String[]::new));
+    }
+
+    /**
+     * Рендерит шаблон в переданный буфер. Шаблон без переменных возвращает заранее
+     * собранную строку и буфер не трогает.
+     */
+    public String render(StringBuilder buffer, String email) {
+        if (constantText != null) {
+            return constantText;
+        }
+        buffer.setLength(0);
+        buffer.ensureCapacity(literalLength + email.length());
+        for (String part : parts) {
+            buffer.append(part != null ? part : email);
+        }
+        return buffer.toString();
+    }
+}
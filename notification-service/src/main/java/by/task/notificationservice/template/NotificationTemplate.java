@@ -0,0 +1,7 @@
+package by.task.notificationservice.template;
+
+/**
+ * Скомпилированные тема и текст письма для одной операции и локали.
+ */
+public record NotificationTemplate(CompiledTemplate subject, CompiledTemplate body) {
+}
@@ -0,0 +1,182 @@
+package by.task.notificationservice.template;
+
+import by.task.notificationservice.config.NotificationTemplateProperties;
+import by.task.userevents.UserEventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Реестр скомпилированных шаблонов писем.
+ * <p>
+ * Файлы {@code <operation>_<locale>.txt} из {@link NotificationTemplateProperties#location()}
+ * компилируются при старте: первая строка — тема, после пустой строки — текст письма.
+ * Поиск по операции и локали кэшируется. Фоновый поток периодически сравнивает время изменения
+ * и размер файлов и при изменениях подменяет весь набор атомарно. Если новые файлы не
+ * компилируются, остаются прежние шаблоны, а ошибка пишется в лог. Поэтому правка шаблона
+ * не требует перезапуска консьюмера.
+ */
+public class NotificationTemplates implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationTemplates.class);
+
+    private static final String TEMPLATE_PATTERN = "*.txt";
+    private static final String TEMPLATE_SUFFIX = ".txt";
+
+    private final ResourcePatternResolver resourceResolver;
+    private final NotificationTemplateProperties properties;
+    private final Map<String, String> constants;
+    private final ScheduledExecutorService reloader;
+
+    private volatile Snapshot snapshot;
+
+    public NotificationTemplates(ResourcePatternResolver resourceResolver, NotificationTemplateProperties properties,
+                                 Map<String, String> constants) {
+        this.resourceResolver = resourceResolver;
+        this.properties = properties;
+        this.constants = Map.copyOf(constants);
+        this.snapshot = load(scan());
+
+        if (properties.reloadInterval().isZero()) {
+            this.reloader = null;
+        } else {
+            this.reloader = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().daemon().name("notification-templates-reload").factory());
+            long interval = properties.reloadInterval().toMillis();
+            reloader.scheduleWithFixedDelay(this::reloadIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Шаблон для операции: сначала точная локаль, затем её язык, затем локаль по умолчанию.
+     *
+     * @throws IllegalArgumentException если для операции нет ни одного шаблона
+     */
+    public NotificationTemplate get(UserEventType operation, Locale locale) {
+        Locale requested = locale != null ? locale : properties.defaultLocale();
+        Snapshot current = snapshot;
+        return current.resolved().computeIfAbsent(new TemplateKey(operation, requested),
+                key -> resolve(current.templates(), key));
+    }
+
+    /**
+     * Перечитывает шаблоны, если файлы изменились с прошлой загрузки.
+     *
+     * @return {@code true}, если набор шаблонов был заменён
+     */
+    public boolean reloadIfChanged() {
+        try {
+            Map<Resource, Long> resources = scan();
+            if (fingerprint(resources) == snapshot.fingerprint()) {
+                return false;
+            }
+            snapshot = load(resources);
+            logger.info("Notification templates reloaded from {}", properties.location());
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Failed to reload notification templates, keeping previous version", e);
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    private NotificationTemplate resolve(Map<TemplateKey, NotificationTemplate> templates, TemplateKey key) {
+        NotificationTemplate template = templates.get(key);
+        if (template == null) {
+            template = templates.get(new TemplateKey(key.operation(), Locale.of(key.locale().getLanguage())));
+        }
+        if (template == null) {
+            template = templates.get(new TemplateKey(key.operation(), properties.defaultLocale()));
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("Для операции " + key.operation() + " уведомление не отправляется");
+        }
+        return template;
+    }
+
+    private Map<Resource, Long> scan() {
+        try {
+            Map<Resource, Long> resources = new HashMap<>();
+            for (Resource resource : resourceResolver.getResources(properties.location() + TEMPLATE_PATTERN)) {
+                resources.put(resource, resource.lastModified() * 31 + resource.contentLength());
+            }
+            return resources;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать шаблоны из " + properties.location(), e);
+        }
+    }
+
+    private Snapshot load(Map<Resource, Long> resources) {
+        Map<TemplateKey, NotificationTemplate> templates = new HashMap<>();
+        for (Resource resource : resources.keySet()) {
+            String filename = Objects.requireNonNull(resource.getFilename());
+            try {
+                templates.put(parseKey(filename), parseTemplate(resource.getContentAsString(StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось прочитать шаблон " + filename, e);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Некорректный шаблон " + filename + ": " + e.getMessage(), e);
+            }
+        }
+        if (templates.isEmpty()) {
+            throw new IllegalStateException("Не найдено ни одного шаблона в " + properties.location());
+        }
+        return new Snapshot(Map.copyOf(templates), new ConcurrentHashMap<>(), fingerprint(resources));
+    }
+
+    private static TemplateKey parseKey(String filename) {
+        String name = filename.substring(0, filename.length() - TEMPLATE_SUFFIX.length());
+        int separator = name.indexOf('_');
+        if (separator < 0) {
+            throw new IllegalArgumentException("ожидается имя вида <operation>_<locale>.txt");
+        }
+        UserEventType operation = UserEventType.valueOf(name.substring(0, separator).toUpperCase(Locale.ROOT));
+        Locale locale = Locale.forLanguageTag(name.substring(separator + 1).replace('_', '-'));
+        return new TemplateKey(operation, locale);
+    }
+
+    private NotificationTemplate parseTemplate(String content) {
+        String normalized = content.replace("\r\n", "\n");
+        int subjectEnd = normalized.indexOf("\n\n");
+        if (subjectEnd < 0) {
+            throw new IllegalArgumentException("тема должна отделяться от текста пустой строкой");
+        }
+        return new NotificationTemplate(
+                CompiledTemplate.compile(normalized.substring(0, subjectEnd).strip(), constants),
+                CompiledTemplate.compile(normalized.substring(subjectEnd + 2).stripTrailing(), constants));
+    }
+
+    private static long fingerprint(Map<Resource, Long> resources) {
+        long fingerprint = resources.size();
+        for (Map.Entry<Resource, Long> entry : resources.entrySet()) {
+            fingerprint += Objects.hashCode(entry.getKey().getFilename()) * 31L + entry.getValue();
+        }
+        return fingerprint;
+    }
+
+    private record TemplateKey(UserEventType operation, Locale locale) {
+    }
+
+    private record Snapshot(Map<TemplateKey, NotificationTemplate> templates,
+                            ConcurrentHashMap<TemplateKey, NotificationTemplate> resolved,
+                            long fingerprint) {
+    }
+}
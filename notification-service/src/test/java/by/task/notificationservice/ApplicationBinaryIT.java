@@ -0,0 +1,160 @@
+package by.task.notificationservice;
+
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventSerializer;
+import by.task.userevents.UserEventType;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверки собранного артефакта как чёрного ящика: исполняемого jar ({@code mvn verify}) или native image
+ * ({@code mvn -Pnative verify}), путь передаётся в {@code app.binary}. Сервис запускается отдельным процессом
+ * со встроенной Kafka и GreenMail; проверяются десериализатор событий, шаблоны из ресурсов и JSON API.
+ */
+class ApplicationBinaryIT {
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(3);
+    private static final long MAIL_TIMEOUT_MS = 30_000;
+    private static final String TOPIC = "user-events";
+    private static final String CREATED_TEXT = "Здравствуйте! Ваш аккаунт на сайте ваш сайт был успешно создан.";
+    private static final String DELETED_TEXT = "Здравствуйте! Ваш аккаунт был удалён.";
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort())
+            .withPerMethodLifecycle(false);
+
+    private static final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private static EmbeddedKafkaKraftBroker broker;
+    private static Process application;
+    private static Path log;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startApplication() throws Exception {
+        Path binary = Path.of(System.getProperty("app.binary", "target/notification-service-1.0-SNAPSHOT.jar"));
+        assertTrue(Files.isRegularFile(binary), "Build the artifact first: " + binary.toAbsolutePath());
+        broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+        broker.afterPropertiesSet();
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        if (binary.toString().endsWith(".jar")) {
+            command.add(ProcessHandle.current().info().command().orElse("java"));
+            command.add("-jar");
+        }
+        log = Files.createTempFile("application-binary-it", ".log");
+        command.addAll(List.of(binary.toAbsolutePath().toString(),
+                "--server.port=" + port,
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "--spring.mail.port=" + greenMail.getSmtp().getPort(),
+                "--notification.dedup.path=" + log.resolveSibling(log.getFileName() + ".dedup")));
+        application = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        baseUrl = "http://localhost:" + port;
+        awaitHealthy();
+    }
+
+    @AfterAll
+    static void stopApplication() throws Exception {
+        if (application != null) {
+            application.destroy();
+            application.waitFor();
+        }
+        if (broker != null) {
+            broker.destroy();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @Test
+    void userCreatedEvent_SendsCreationEmail() throws Exception {
+        Map<String, Object> config = Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        try (KafkaProducer<String, UserEvent> producer =
+                     new KafkaProducer<>(config, new StringSerializer(), new UserEventSerializer())) {
+            producer.send(new ProducerRecord<>(TOPIC, "1",
+                    new UserEvent(100L, 1L, UserEventType.CREATED, "created@it.test"))).get();
+        }
+
+        MimeMessage message = awaitSingleMessage();
+        assertEquals("created@it.test", message.getAllRecipients()[0].toString());
+        assertEquals(CREATED_TEXT, ((String) message.getContent()).trim());
+    }
+
+    @Test
+    void sendNotificationApi_SendsEmail() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/notifications"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"api@it.test\",\"operation\":\"DELETED\"}"))
+                .build();
+
+        assertEquals(202, http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+
+        MimeMessage message = awaitSingleMessage();
+        assertEquals(DELETED_TEXT, ((String) message.getContent()).trim());
+    }
+
+    private static MimeMessage awaitSingleMessage() {
+        assertTrue(greenMail.waitForIncomingEmail(MAIL_TIMEOUT_MS, 1), "No email received, see " + log);
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        assertEquals(1, messages.length);
+        return messages[0];
+    }
+
+    private static void awaitHealthy() throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("Application exited with " + application.exitValue()
+                        + ", see " + log);
+            }
+            try {
+                if (http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException notListeningYet) {
+                // Порт ещё не открыт
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Application did not become healthy within " + START_TIMEOUT + ", see " + log);
+    }
+}
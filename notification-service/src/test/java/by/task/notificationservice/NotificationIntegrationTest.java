@@ -0,0 +1,210 @@
+package by.task.notificationservice;
+
+import by.task.notificationservice.dto.NotificationRequestDTO;
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventSerializer;
+import by.task.userevents.UserEventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "notification.dedup.path=target/dedup/${random.uuid}.bin"
+})
+@EmbeddedKafka(partitions = 3, topics = NotificationIntegrationTest.TOPIC)
+@AutoConfigureMockMvc
+class NotificationIntegrationTest {
+
+    static final String TOPIC = "user-events";
+    private static final String RETRY_TOPIC = "notifications-failed";
+    private static final String DEAD_LETTER_TOPIC = RETRY_TOPIC + "-dlt";
+    private static final long MAIL_TIMEOUT_MS = 15_000;
+    private static final String EMAIL = "user@test.com";
+    private static final String OTHER_EMAIL = "other@test.com";
+    private static final String CREATED_TEXT = "Здравствуйте! Ваш аккаунт на сайте ваш сайт был успешно создан.";
+    private static final String DELETED_TEXT = "Здравствуйте! Ваш аккаунт был удалён.";
+    private static final String CREATED_TEXT_EN = "Hello! Your account on ваш сайт has been created successfully.";
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withPerMethodLifecycle(false);
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private DefaultKafkaProducerFactory<String, UserEvent> producerFactory;
+    private KafkaTemplate<String, UserEvent> kafkaTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(embeddedKafka);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, UserEventSerializer.class);
+        producerFactory = new DefaultKafkaProducerFactory<>(producerProps);
+        kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        producerFactory.destroy();
+    }
+
+    @Test
+    void userCreatedEvent_SendsCreationEmail() throws Exception {
+        kafkaTemplate.send(TOPIC, "1", new UserEvent(1L, UserEventType.CREATED, EMAIL)).get();
+
+        MimeMessage message = awaitSingleMessage();
+        assertEquals(EMAIL, message.getAllRecipients()[0].toString());
+        assertEquals(CREATED_TEXT, ((String) message.getContent()).trim());
+    }
+
+    @Test
+    void userDeletedEvent_SendsDeletionEmail() throws Exception {
+        kafkaTemplate.send(TOPIC, "2", new UserEvent(2L, UserEventType.DELETED, EMAIL)).get();
+
+        MimeMessage message = awaitSingleMessage();
+        assertEquals(EMAIL, message.getAllRecipients()[0].toString());
+        assertEquals(DELETED_TEXT, ((String) message.getContent()).trim());
+    }
+
+    @Test
+    void userUpdatedEvent_SendsNothing() throws Exception {
+        kafkaTemplate.send(TOPIC, "3", new UserEvent(3L, UserEventType.UPDATED, EMAIL)).get();
+        kafkaTemplate.send(TOPIC, "3", new UserEvent(3L, UserEventType.DELETED, OTHER_EMAIL)).get();
+
+        MimeMessage message = awaitSingleMessage();
+        assertEquals(OTHER_EMAIL, message.getAllRecipients()[0].toString());
+    }
+
+    @Test
+    void redeliveredEvent_SendsSingleEmail() throws Exception {
+        String email = "redelivered@test.com";
+        String marker = "marker@test.com";
+        kafkaTemplate.send(TOPIC, "6", new UserEvent(600L, 6L, UserEventType.CREATED, email)).get();
+        kafkaTemplate.send(TOPIC, "6", new UserEvent(600L, 6L, UserEventType.CREATED, email)).get();
+        // Та же партиция: письмо-маркер уходит только после обработки обоих дубликатов
+        kafkaTemplate.send(TOPIC, "6", new UserEvent(601L, 6L, UserEventType.DELETED, marker)).get();
+
+        long deadline = System.currentTimeMillis() + MAIL_TIMEOUT_MS;
+        while (countMessagesTo(marker) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, countMessagesTo(marker));
+        assertEquals(1, countMessagesTo(email));
+    }
+
+    @Test
+    void retryTopicEvent_SendsEmail() throws Exception {
+        kafkaTemplate.send(RETRY_TOPIC, "4", new UserEvent(4L, UserEventType.CREATED, EMAIL)).get();
+
+        MimeMessage message = awaitSingleMessage();
+        assertEquals(EMAIL, message.getAllRecipients()[0].toString());
+    }
+
+    @Test
+    void replayDeadLetters_MovesDeadLetterBackAndSendsEmail() throws Exception {
+        kafkaTemplate.send(DEAD_LETTER_TOPIC, "5", new UserEvent(5L, UserEventType.DELETED, OTHER_EMAIL)).get();
+
+        mockMvc.perform(post("/api/notifications/dlt/replay"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replayed").value(1));
+
+        MimeMessage message = awaitSingleMessage();
+        assertEquals(OTHER_EMAIL, message.getAllRecipients()[0].toString());
+        assertEquals(DELETED_TEXT, ((String) message.getContent()).trim());
+
+        mockMvc.perform(post("/api/notifications/dlt/replay"))
+                .andExpect(jsonPath("$.replayed").value(0));
+    }
+
+    @Test
+    void sendNotificationApi_SendsEmail() throws Exception {
+        NotificationRequestDTO requestDTO = new NotificationRequestDTO(EMAIL, UserEventType.CREATED);
+
+        mockMvc.perform(post("/api/notifications")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isAccepted());
+
+        MimeMessage message = awaitSingleMessage();
+        assertEquals(CREATED_TEXT, ((String) message.getContent()).trim());
+    }
+
+    @Test
+    void sendNotificationApi_WithLocale_UsesLocalizedTemplate() throws Exception {
+        NotificationRequestDTO requestDTO = new NotificationRequestDTO(EMAIL, UserEventType.CREATED);
+        requestDTO.setLocale(Locale.ENGLISH);
+
+        mockMvc.perform(post("/api/notifications")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isAccepted());
+
+        MimeMessage message = awaitSingleMessage();
+        assertEquals("Account notification", message.getSubject());
+        assertEquals(CREATED_TEXT_EN, ((String) message.getContent()).trim());
+    }
+
+    @Test
+    void sendNotificationApi_InvalidEmail_ReturnsBadRequest() throws Exception {
+        NotificationRequestDTO requestDTO = new NotificationRequestDTO("invalid-email", UserEventType.CREATED);
+
+        mockMvc.perform(post("/api/notifications")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long countMessagesTo(String email) throws Exception {
+        long count = 0;
+        for (MimeMessage message : greenMail.getReceivedMessages()) {
+            if (email.equals(message.getAllRecipients()[0].toString())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private MimeMessage awaitSingleMessage() {
+        assertTrue(greenMail.waitForIncomingEmail(MAIL_TIMEOUT_MS, 1), "Письмо не получено");
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        assertEquals(1, messages.length);
+        return messages[0];
+    }
+}
@@ -0,0 +1,111 @@
+package by.task.notificationservice.dedup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeliveredEventStoreTest {
+
+    private static final Duration RETENTION = Duration.ofHours(1);
+    private static final int CAPACITY = 16;
+
+    @TempDir
+    private Path directory;
+
+    private final Clock clock = mock(Clock.class);
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("dedup.bin");
+        when(clock.millis()).thenReturn(0L);
+    }
+
+    @Test
+    void add_ThenContains() {
+        try (DeliveredEventStore store = open(CAPACITY)) {
+            store.add(42L);
+            store.add(42L);
+
+            assertTrue(store.contains(42L));
+            assertFalse(store.contains(43L));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void reopen_KeepsDeliveredEvents() {
+        try (DeliveredEventStore store = open(CAPACITY)) {
+            store.add(1L);
+            store.add(2L);
+        }
+
+        try (DeliveredEventStore store = open(CAPACITY)) {
+            assertTrue(store.contains(1L));
+            assertTrue(store.contains(2L));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void reopen_WithOtherCapacity_StartsEmpty() {
+        try (DeliveredEventStore store = open(CAPACITY)) {
+            store.add(1L);
+        }
+
+        try (DeliveredEventStore store = open(CAPACITY * 2)) {
+            assertFalse(store.contains(1L));
+        }
+    }
+
+    @Test
+    void retention_RemembersAtLeastOnePeriodAndForgetsAfterTwo() {
+        try (DeliveredEventStore store = open(CAPACITY)) {
+            store.add(1L);
+
+            when(clock.millis()).thenReturn(RETENTION.toMillis());
+            store.add(2L);
+            assertTrue(store.contains(1L));
+
+            when(clock.millis()).thenReturn(RETENTION.toMillis() * 2);
+            assertFalse(store.contains(1L));
+            assertTrue(store.contains(2L));
+        }
+    }
+
+    @Test
+    void add_GenerationFull_RotatesEarly() {
+        try (DeliveredEventStore store = open(CAPACITY)) {
+            for (long id = 1; id <= CAPACITY * 2; id++) {
+                store.add(id);
+            }
+
+            assertTrue(store.contains(CAPACITY * 2L));
+            assertFalse(store.contains(1L));
+            assertTrue(store.size() <= CAPACITY * 3 / 2);
+        }
+    }
+
+    @Test
+    void add_ZeroId_Throws() {
+        try (DeliveredEventStore store = open(CAPACITY)) {
+            assertThrows(IllegalArgumentException.class, () -> store.add(0L));
+        }
+    }
+
+    private DeliveredEventStore open(int capacity) {
+        return new DeliveredEventStore(file, capacity, RETENTION, clock);
+    }
+}
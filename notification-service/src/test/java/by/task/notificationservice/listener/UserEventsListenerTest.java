@@ -0,0 +1,205 @@
+package by.task.notificationservice.listener;
+
+import by.task.notificationservice.dedup.DeliveredEventStore;
+import by.task.notificationservice.mail.MailBatchException;
+import by.task.notificationservice.service.NotificationRetryService;
+import by.task.notificationservice.service.NotificationService;
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.mail.MailSendException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UserEventsListenerTest {
+
+    private static final String TOPIC = "user-events";
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private NotificationRetryService retryService;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @TempDir
+    private Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DeliveredEventStore deliveredEvents;
+
+    private UserEventsListener listener;
+
+    @BeforeEach
+    void setUp() {
+        deliveredEvents = new DeliveredEventStore(directory.resolve("dedup.bin"), 64, Duration.ofDays(1),
+                Clock.systemUTC());
+        listener = new UserEventsListener(notificationService, retryService, deliveredEvents, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveredEvents.close();
+    }
+
+    @Test
+    void onUserEvents_AllSent_AcknowledgesWithoutRetries() {
+        List<ConsumerRecord<String, UserEvent>> records = List.of(
+                record(0, new UserEvent(1L, UserEventType.CREATED, "first@test.com")));
+
+        listener.onUserEvents(records, acknowledgment);
+
+        verify(retryService, never()).scheduleRetries(anyList());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void onUserEvents_SomeFailed_SchedulesOnlyFailedRecordsAndAcknowledges() {
+        ConsumerRecord<String, UserEvent> created = record(0,
+                new UserEvent(11L, 1L, UserEventType.CREATED, "a@test.com"));
+        ConsumerRecord<String, UserEvent> updated = record(1,
+                new UserEvent(12L, 2L, UserEventType.UPDATED, "b@test.com"));
+        ConsumerRecord<String, UserEvent> deleted = record(2,
+                new UserEvent(13L, 3L, UserEventType.DELETED, "c@test.com"));
+        ConsumerRecord<String, UserEvent> malformed = record(3, null);
+        ConsumerRecord<String, UserEvent> last = record(4,
+                new UserEvent(14L, 4L, UserEventType.CREATED, "d@test.com"));
+        // Письма отправляются только по CREATED и DELETED: индексы 1 и 2 в пачке писем — записи 2 и 4
+        doThrow(new MailBatchException(List.of(1, 2), new MailSendException("smtp down")))
+                .when(notificationService).sendNotifications(anyList());
+
+        listener.onUserEvents(List.of(created, updated, deleted, malformed, last), acknowledgment);
+
+        verify(retryService).scheduleRetries(List.of(deleted, last));
+        verify(acknowledgment).acknowledge();
+        assertTrue(deliveredEvents.contains(11L));
+        assertFalse(deliveredEvents.contains(13L));
+        assertFalse(deliveredEvents.contains(14L));
+    }
+
+    @Test
+    void onUserEvents_Redelivered_SkipsDeliveredAndInBatchDuplicates() {
+        deliveredEvents.add(21L);
+        List<ConsumerRecord<String, UserEvent>> records = List.of(
+                record(0, new UserEvent(21L, 1L, UserEventType.CREATED, "a@test.com")),
+                record(1, new UserEvent(22L, 2L, UserEventType.DELETED, "b@test.com")),
+                record(2, new UserEvent(22L, 2L, UserEventType.DELETED, "b@test.com")),
+                record(3, new UserEvent(3L, UserEventType.CREATED, "legacy@test.com")));
+
+        listener.onUserEvents(records, acknowledgment);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserEvent>> sent = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).sendNotifications(sent.capture());
+        assertEquals(List.of("b@test.com", "legacy@test.com"),
+                sent.getValue().stream().map(UserEvent::getEmail).toList());
+        assertTrue(deliveredEvents.contains(22L));
+        assertEquals(2, meterRegistry.get("notification.dedup.duplicates").counter().count());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void onUserEvents_RetryTopicUnavailable_DoesNotAcknowledge() {
+        List<ConsumerRecord<String, UserEvent>> records = List.of(
+                record(0, new UserEvent(1L, UserEventType.CREATED, "first@test.com")));
+        doThrow(new MailBatchException(0, new MailSendException("smtp down")))
+                .when(notificationService).sendNotifications(anyList());
+        doThrow(new IllegalStateException("broker down")).when(retryService).scheduleRetries(anyList());
+
+        assertThrows(IllegalStateException.class, () -> listener.onUserEvents(records, acknowledgment));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void onUserEvents_RetryTopicUnavailable_RedeliveredBatchSendsOnlyFailedAgain() {
+        ConsumerRecord<String, UserEvent> sentRecord = record(0,
+                new UserEvent(31L, 1L, UserEventType.CREATED, "sent@test.com"));
+        ConsumerRecord<String, UserEvent> failedRecord = record(1,
+                new UserEvent(32L, 2L, UserEventType.DELETED, "failed@test.com"));
+        List<ConsumerRecord<String, UserEvent>> records = List.of(sentRecord, failedRecord);
+        doThrow(new MailBatchException(List.of(1), new MailSendException("smtp down")))
+                .doNothing()
+                .when(notificationService).sendNotifications(anyList());
+        doThrow(new IllegalStateException("broker down")).when(retryService).scheduleRetries(anyList());
+
+        assertThrows(IllegalStateException.class, () -> listener.onUserEvents(records, acknowledgment));
+        listener.onUserEvents(records, acknowledgment);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserEvent>> sent = ArgumentCaptor.forClass(List.class);
+        verify(notificationService, times(2)).sendNotifications(sent.capture());
+        assertEquals(List.of("failed@test.com"),
+                sent.getAllValues().get(1).stream().map(UserEvent::getEmail).toList());
+        assertTrue(deliveredEvents.contains(32L));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void onUserEvents_UndeserializableRecord_MovedToDeadLetterTopicBeforeSending() {
+        ConsumerRecord<String, UserEvent> created = record(0,
+                new UserEvent(41L, 1L, UserEventType.CREATED, "a@test.com"));
+        ConsumerRecord<String, UserEvent> broken = record(1, null);
+        byte[] data = "not an event".getBytes(StandardCharsets.UTF_8);
+        SerializationUtils.deserializationException(broken.headers(), data,
+                new DeserializationException("bad payload", data, false, new IllegalArgumentException()), false);
+
+        listener.onUserEvents(List.of(created, broken), acknowledgment);
+
+        verify(retryService).deadLetterUndeserializable(List.of(broken));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserEvent>> sent = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).sendNotifications(sent.capture());
+        assertEquals(List.of("a@test.com"), sent.getValue().stream().map(UserEvent::getEmail).toList());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void onUserEvents_DeadLetterTopicUnavailable_SendsNothingAndDoesNotAcknowledge() {
+        ConsumerRecord<String, UserEvent> broken = record(0, null);
+        SerializationUtils.deserializationException(broken.headers(), new byte[]{1},
+                new DeserializationException("bad payload", new byte[]{1}, false, new IllegalArgumentException()),
+                false);
+        List<ConsumerRecord<String, UserEvent>> records = List.of(broken,
+                record(1, new UserEvent(42L, 1L, UserEventType.CREATED, "a@test.com")));
+        doThrow(new IllegalStateException("broker down")).when(retryService).deadLetterUndeserializable(anyList());
+
+        assertThrows(IllegalStateException.class, () -> listener.onUserEvents(records, acknowledgment));
+
+        verify(notificationService, never()).sendNotifications(anyList());
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    private ConsumerRecord<String, UserEvent> record(long offset, UserEvent event) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, String.valueOf(offset), event);
+    }
+}
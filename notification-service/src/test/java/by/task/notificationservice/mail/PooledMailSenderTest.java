@@ -0,0 +1,176 @@
+package by.task.notificationservice.mail;
+
+import by.task.notificationservice.config.SmtpPoolProperties;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledMailSenderTest {
+
+    private static final String HOST = "localhost";
+    private static final int MAX_CONNECTIONS = 2;
+    private static final int MESSAGES = 100;
+    private static final String FROM = "noreply@test.com";
+    private static final String TEXT = "Здравствуйте! Ваш аккаунт был удалён.";
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private SmtpConnectionPool pool;
+    private PooledMailSender mailSender;
+
+    @BeforeEach
+    void setUp() {
+        SmtpPoolProperties properties = new SmtpPoolProperties(MAX_CONNECTIONS, Duration.ofMillis(200), 500, 10);
+        Session session = Session.getInstance(new Properties());
+        pool = new SmtpConnectionPool(session, HOST, ServerSetupTest.SMTP.getPort(), null, null, properties);
+        mailSender = new PooledMailSender(pool, session, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailSender.close();
+        pool.close();
+    }
+
+    @Test
+    void sendAll_ManyMessages_ReusesPooledConnections() {
+        List<SimpleMailMessage> messages = new ArrayList<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            messages.add(createMessage("user" + i + "@test.com"));
+        }
+
+        mailSender.sendAll(messages);
+
+        assertTrue(greenMail.waitForIncomingEmail(10_000, MESSAGES));
+        assertEquals(MESSAGES, greenMail.getReceivedMessages().length);
+        assertEquals(0, pool.getActive());
+        assertTrue(pool.getOpen() <= MAX_CONNECTIONS);
+        assertEquals(pool.getOpen(), pool.getIdle());
+    }
+
+    @Test
+    void send_SequentialMessages_KeepsSingleConnectionOpen() {
+        mailSender.send(createMessage("first@test.com"));
+        mailSender.send(createMessage("second@test.com"));
+
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 2));
+        assertEquals(1, pool.getOpen());
+    }
+
+    @Test
+    void borrow_PoolExhausted_NotifiesSaturationAndTimesOut() {
+        AtomicInteger saturations = new AtomicInteger();
+        pool.setSaturationListener(saturated -> {
+            if (saturated) {
+                saturations.incrementAndGet();
+            }
+        });
+        SmtpConnectionPool.PooledConnection first = pool.borrow();
+        SmtpConnectionPool.PooledConnection second = pool.borrow();
+
+        assertThrows(MailBatchException.class, () -> mailSender.send(createMessage("user@test.com")));
+        assertEquals(1, saturations.get());
+        assertTrue(pool.isSaturated());
+
+        pool.release(first, false);
+        pool.release(second, false);
+        assertFalse(pool.isSaturated());
+        assertEquals(0.0, pool.getUtilization());
+    }
+
+    @Test
+    void borrowAndRelease_Interleaved_ListenerEndsResumedWhenPoolIsIdle() throws Exception {
+        AtomicBoolean paused = new AtomicBoolean();
+        pool.setSaturationListener(saturated -> {
+            if (saturated) {
+                // Медленная пауза контейнера расширяет окно между сменой флага и уведомлением
+                sleep(2);
+            }
+            paused.set(saturated);
+        });
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < 8; worker++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        try {
+                            pool.release(pool.borrow(), false);
+                        } catch (MailSendException ignored) {
+                            // Пул не выдал соединение за borrowTimeout
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+
+        assertEquals(0, pool.getActive());
+        assertFalse(pool.isSaturated());
+        assertFalse(paused.get());
+    }
+
+    @Test
+    void sendAll_ServerDown_ReportsFirstFailedIndex() {
+        greenMail.stop();
+
+        MailBatchException exception = assertThrows(MailBatchException.class,
+                () -> mailSender.sendAll(List.of(createMessage("user@test.com"))));
+        assertEquals(0, exception.getFailedIndex());
+        assertEquals(0, pool.getActive());
+    }
+
+    @Test
+    void sendAll_ServerDownForSeveralParts_ReportsEveryUnsentIndex() {
+        greenMail.stop();
+        List<SimpleMailMessage> messages = new ArrayList<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            messages.add(createMessage("user" + i + "@test.com"));
+        }
+
+        MailBatchException exception = assertThrows(MailBatchException.class, () -> mailSender.sendAll(messages));
+        assertEquals(MESSAGES, exception.getFailedIndexes().size());
+        assertEquals(0, exception.getFailedIndex());
+        assertEquals(MESSAGES - 1, exception.getFailedIndexes().get(MESSAGES - 1));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private SimpleMailMessage createMessage(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(FROM);
+        message.setTo(to);
+        message.setSubject("Test");
+        message.setText(TEXT);
+        return message;
+    }
+}
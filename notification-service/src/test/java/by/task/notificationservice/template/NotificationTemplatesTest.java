@@ -0,0 +1,109 @@
+package by.task.notificationservice.template;
+
+import by.task.notificationservice.config.NotificationTemplateProperties;
+import by.task.userevents.UserEventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationTemplatesTest {
+
+    private static final String EMAIL = "user@test.com";
+    private static final Locale RU = Locale.of("ru");
+
+    @TempDir
+    Path directory;
+
+    private NotificationTemplates templates;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        write("created_ru.txt", "Тема\n\nАккаунт на ${siteName} для ${email} создан.\n");
+        write("created_en.txt", "Subject\n\nAccount on ${siteName} for ${email} created.\n");
+        write("deleted_ru.txt", "Тема\n\nАккаунт удалён.\n");
+        templates = new NotificationTemplates(new PathMatchingResourcePatternResolver(),
+                new NotificationTemplateProperties(directory.toUri().toString(), RU, Duration.ZERO),
+                Map.of("siteName", "example.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        templates.close();
+    }
+
+    @Test
+    void render_InlinesConstantsAndEmail() {
+        NotificationTemplate template = templates.get(UserEventType.CREATED, RU);
+
+        assertEquals("Тема", template.subject().render(new StringBuilder(), EMAIL));
+        assertEquals("Аккаунт на example.com для user@test.com создан.",
+                template.body().render(new StringBuilder(), EMAIL));
+    }
+
+    @Test
+    void get_FallsBackToLanguageThenDefaultLocale() {
+        NotificationTemplate english = templates.get(UserEventType.CREATED, Locale.of("en"));
+
+        assertSame(english, templates.get(UserEventType.CREATED, Locale.US));
+        assertEquals("Аккаунт удалён.",
+                templates.get(UserEventType.DELETED, Locale.US).body().render(new StringBuilder(), EMAIL));
+        assertSame(templates.get(UserEventType.DELETED, RU), templates.get(UserEventType.DELETED, null));
+    }
+
+    @Test
+    void get_MissingOperation_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> templates.get(UserEventType.UPDATED, RU));
+    }
+
+    @Test
+    void reloadIfChanged_PicksUpEditedFile() throws IOException {
+        assertFalse(templates.reloadIfChanged());
+
+        write("deleted_ru.txt", "Тема\n\nАккаунт ${email} удалён навсегда.\n");
+
+        assertTrue(templates.reloadIfChanged());
+        assertEquals("Аккаунт user@test.com удалён навсегда.",
+                templates.get(UserEventType.DELETED, RU).body().render(new StringBuilder(), EMAIL));
+    }
+
+    @Test
+    void reloadIfChanged_BrokenTemplate_KeepsPrevious() throws IOException {
+        NotificationTemplate before = templates.get(UserEventType.DELETED, RU);
+
+        write("deleted_ru.txt", "Тема\n\nАккаунт ${unknown} удалён.\n");
+
+        assertFalse(templates.reloadIfChanged());
+        assertSame(before, templates.get(UserEventType.DELETED, RU));
+    }
+
+    @Test
+    void compile_UnclosedVariable_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("Привет, ${email", Map.of()));
+    }
+
+    private void write(String filename, String content) throws IOException {
+        Path file = directory.resolve(filename);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        // Время изменения сдвигается явно: на некоторых ФС разрешение mtime — секунда
+        Instant modified = templates != null ? Instant.now().plusSeconds(10) : Instant.now();
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+    }
+}
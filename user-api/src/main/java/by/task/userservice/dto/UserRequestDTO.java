@@ -5,6 +5,8 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.Locale;
+
 public class UserRequestDTO {
     @NotBlank(message = "Name is required")
     private String name;
@@ -22,10 +24,18 @@ public class UserRequestDTO {
 
     public UserRequestDTO(String name, String email, Integer age) {
         this.name = name;
-        this.email = email;
+        this.email = normalizeEmail(email);
         this.age = age;
     }
 
+    /**
+     * Email хранится и ищется в нижнем регистре без пробелов по краям: так обычный уникальный индекс
+     * по {@code users.email} работает как регистронезависимый.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.strip().toLowerCase(Locale.ROOT);
+    }
+
     public String getName() {
         return name;
     }
@@ -39,7 +49,7 @@ public class UserRequestDTO {
     }
 
     public void setEmail(String email) {
-        this.email = email;
+        this.email = normalizeEmail(email);
     }
 
     public Integer getAge() {
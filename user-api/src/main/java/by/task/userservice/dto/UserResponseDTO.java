@@ -8,6 +8,7 @@ public class UserResponseDTO {
     private String email;
     private Integer age;
     private LocalDateTime createdAt;
+    private Long version;
 
     public UserResponseDTO() {
     }
@@ -59,4 +60,12 @@ public class UserResponseDTO {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,7 @@
+package by.task.userservice.exception.service;
+
+public class DuplicateEmailException extends UserServiceException {
+    public DuplicateEmailException(String email) {
+        super("Пользователь с email " + email + " уже существует");
+    }
+}
@@ -8,4 +8,8 @@ public class UserNotFoundException extends UserServiceException {
     public UserNotFoundException(Long id, Throwable cause) {
         super("Пользователь с ID " + id + " не найден", cause);
     }
-}
\ No newline at end of file
+
+    public UserNotFoundException(String email) {
+        super("Пользователь с email " + email + " не найден");
+    }
+}
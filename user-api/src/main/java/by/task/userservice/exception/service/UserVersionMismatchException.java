@@ -0,0 +1,7 @@
+package by.task.userservice.exception.service;
+
+public class UserVersionMismatchException extends UserServiceException {
+    public UserVersionMismatchException(Long id) {
+        super("Пользователь с ID " + id + " был изменён: версия не совпадает с If-Match");
+    }
+}
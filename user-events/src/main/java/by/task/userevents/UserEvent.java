@@ -0,0 +1,62 @@
+package by.task.userevents;
+
+public class UserEvent {
+    private Long eventId;
+    private Long userId;
+    private UserEventType operation;
+    private String email;
+
+    public UserEvent() {
+    }
+
+    public UserEvent(Long userId, UserEventType operation, String email) {
+        this.userId = userId;
+        this.operation = operation;
+        this.email = email;
+    }
+
+    /**
+     * Создаёт событие с идентификатором, который не меняется при повторных отправках.
+     *
+     * @param eventId id записи outbox, из которой отправлено событие
+     */
+    public UserEvent(Long eventId, Long userId, UserEventType operation, String email) {
+        this(userId, operation, email);
+        this.eventId = eventId;
+    }
+
+    /**
+     * Идентификатор события для дедупликации у получателей; {@code null} у событий формата версии 1.
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public UserEventType getOperation() {
+        return operation;
+    }
+
+    public void setOperation(UserEventType operation) {
+        this.operation = operation;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
@@ -0,0 +1,99 @@
+package by.task.userevents;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Компактный бинарный формат события пользователя.
+ * <p>
+ * Раскладка версии 2 (big-endian):
+ * <pre>
+ * | version: u8 | operation: u8 | eventId: i64 | userId: i64 | emailLength: u16 | email: UTF-8 |
+ * </pre>
+ * Версия 1 отличается только отсутствием {@code eventId}. {@code eventId == 0} означает событие
+ * без идентификатора, {@code emailLength == 0xFFFF} — отсутствующий email. Коды операций
+ * заданы явно и не зависят от порядка констант {@link UserEventType}.
+ * Новые поля добавляются только с повышением версии; декодер обязан читать
+ * все версии, которые могут оставаться в топике.
+ */
+public final class UserEventCodec {
+
+    public static final byte VERSION_1 = 1;
+    public static final byte VERSION_2 = 2;
+    public static final byte CURRENT_VERSION = VERSION_2;
+
+    private static final int HEADER_SIZE = Byte.BYTES + Byte.BYTES + Long.BYTES + Long.BYTES + Short.BYTES;
+    private static final long NO_EVENT_ID = 0L;
+    private static final int NULL_LENGTH = 0xFFFF;
+    private static final int MAX_EMAIL_BYTES = NULL_LENGTH - 1;
+
+    private UserEventCodec() {
+    }
+
+    public static byte[] encode(UserEvent event) {
+        if (event.getUserId() == null || event.getOperation() == null) {
+            throw new SerializationException("Событие пользователя без userId или operation");
+        }
+        byte[] email = event.getEmail() == null
+                ? null
+                : event.getEmail().getBytes(StandardCharsets.UTF_8);
+        if (email != null && email.length > MAX_EMAIL_BYTES) {
+            throw new SerializationException("Email слишком длинный: " + email.length + " байт");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (email == null ? 0 : email.length));
+        buffer.put(CURRENT_VERSION);
+        buffer.put(operationCode(event.getOperation()));
+        buffer.putLong(event.getEventId() == null ? NO_EVENT_ID : event.getEventId());
+        buffer.putLong(event.getUserId());
+        if (email == null) {
+            buffer.putShort((short) NULL_LENGTH);
+        } else {
+            buffer.putShort((short) email.length);
+            buffer.put(email);
+        }
+        return buffer.array();
+    }
+
+    public static UserEvent decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            byte version = buffer.get();
+            if (version != VERSION_1 && version != VERSION_2) {
+                throw new SerializationException("Неизвестная версия события пользователя: " + version);
+            }
+            UserEventType operation = operationOf(buffer.get());
+            long eventId = version == VERSION_1 ? NO_EVENT_ID : buffer.getLong();
+            long userId = buffer.getLong();
+            int emailLength = Short.toUnsignedInt(buffer.getShort());
+            String email = null;
+            if (emailLength != NULL_LENGTH) {
+                email = new String(data, buffer.position(), emailLength, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + emailLength);
+            }
+            return new UserEvent(eventId == NO_EVENT_ID ? null : eventId, userId, operation, email);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new SerializationException("Усечённое событие пользователя: " + data.length + " байт", e);
+        }
+    }
+
+    private static byte operationCode(UserEventType operation) {
+        return switch (operation) {
+            case CREATED -> 1;
+            case UPDATED -> 2;
+            case DELETED -> 3;
+        };
+    }
+
+    private static UserEventType operationOf(byte code) {
+        return switch (code) {
+            case 1 -> UserEventType.CREATED;
+            case 2 -> UserEventType.UPDATED;
+            case 3 -> UserEventType.DELETED;
+            default -> throw new SerializationException("Неизвестный код операции: " + code);
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package by.task.userevents;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka-десериализатор событий пользователя в формате {@link UserEventCodec}.
+ */
+public class UserEventDeserializer implements Deserializer<UserEvent> {
+
+    @Override
+    public UserEvent deserialize(String topic, byte[] data) {
+        return data == null ? null : UserEventCodec.decode(data);
+    }
+}
@@ -0,0 +1,14 @@
+package by.task.userevents;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka-сериализатор событий пользователя в формате {@link UserEventCodec}.
+ */
+public class UserEventSerializer implements Serializer<UserEvent> {
+
+    @Override
+    public byte[] serialize(String topic, UserEvent data) {
+        return data == null ? null : UserEventCodec.encode(data);
+    }
+}
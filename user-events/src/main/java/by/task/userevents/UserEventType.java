@@ -0,0 +1,7 @@
+package by.task.userevents;
+
+public enum UserEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,104 @@
+package by.task.userevents;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserEventCodecTest {
+
+    private static final UserEvent EVENT = new UserEvent(1001L, 42L, UserEventType.CREATED, "пользователь@test.com");
+
+    private final UserEventSerializer serializer = new UserEventSerializer();
+    private final UserEventDeserializer deserializer = new UserEventDeserializer();
+
+    @Test
+    void roundTrip_PreservesAllFields() {
+        UserEvent decoded = deserializer.deserialize("user-events", serializer.serialize("user-events", EVENT));
+
+        assertEquals(EVENT.getEventId(), decoded.getEventId());
+        assertEquals(EVENT.getUserId(), decoded.getUserId());
+        assertEquals(EVENT.getOperation(), decoded.getOperation());
+        assertEquals(EVENT.getEmail(), decoded.getEmail());
+    }
+
+    @Test
+    void roundTrip_NullEmail() {
+        UserEvent event = new UserEvent(7L, UserEventType.DELETED, null);
+
+        UserEvent decoded = UserEventCodec.decode(UserEventCodec.encode(event));
+
+        assertEquals(UserEventType.DELETED, decoded.getOperation());
+        assertNull(decoded.getEmail());
+    }
+
+    @Test
+    void roundTrip_WithoutEventId() {
+        UserEvent decoded = UserEventCodec.decode(UserEventCodec.encode(new UserEvent(7L, UserEventType.CREATED, null)));
+
+        assertNull(decoded.getEventId());
+        assertEquals(7L, decoded.getUserId());
+    }
+
+    @Test
+    void decode_Version1_ReadsEventWithoutId() {
+        byte[] email = "old@test.com".getBytes(StandardCharsets.UTF_8);
+        byte[] data = ByteBuffer.allocate(12 + email.length)
+                .put(UserEventCodec.VERSION_1)
+                .put((byte) 3)
+                .putLong(9L)
+                .putShort((short) email.length)
+                .put(email)
+                .array();
+
+        UserEvent decoded = UserEventCodec.decode(data);
+
+        assertNull(decoded.getEventId());
+        assertEquals(9L, decoded.getUserId());
+        assertEquals(UserEventType.DELETED, decoded.getOperation());
+        assertEquals("old@test.com", decoded.getEmail());
+    }
+
+    @Test
+    void encode_SmallerThanJson() throws Exception {
+        byte[] json = new ObjectMapper().writeValueAsBytes(EVENT);
+
+        assertTrue(UserEventCodec.encode(EVENT).length < json.length);
+    }
+
+    @Test
+    void serialize_NullPassesThrough() {
+        assertNull(serializer.serialize("user-events", null));
+        assertNull(deserializer.deserialize("user-events", null));
+    }
+
+    @Test
+    void decode_UnknownVersion_Throws() {
+        byte[] data = UserEventCodec.encode(EVENT);
+        data[0] = 99;
+
+        assertThrows(SerializationException.class, () -> UserEventCodec.decode(data));
+    }
+
+    @Test
+    void decode_Truncated_Throws() {
+        byte[] data = UserEventCodec.encode(EVENT);
+        byte[] truncated = Arrays.copyOf(data, data.length - 3);
+
+        assertThrows(SerializationException.class, () -> UserEventCodec.decode(truncated));
+    }
+
+    @Test
+    void encode_WithoutUserId_Throws() {
+        assertThrows(SerializationException.class,
+                () -> UserEventCodec.encode(new UserEvent(null, UserEventType.CREATED, "a@test.com")));
+    }
+}
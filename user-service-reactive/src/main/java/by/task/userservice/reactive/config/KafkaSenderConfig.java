@@ -0,0 +1,60 @@
+package by.task.userservice.reactive.config;
+
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventSerializer;
+import by.task.userservice.dto.UserResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaSenderConfig {
+
+    @Bean(destroyMethod = "close")
+    public KafkaSender<String, UserEvent> userEventSender(UserEventsProperties properties) {
+        Map<String, Object> producerProperties = new HashMap<>(properties.producer());
+        producerProperties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProperties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, UserEventSerializer.class);
+        // Пачка outbox отправляется одним потоком записей, порядок внутри ключа сохраняет идемпотентный продюсер
+        SenderOptions<String, UserEvent> options = SenderOptions.<String, UserEvent>create(producerProperties)
+                .stopOnError(true);
+        return KafkaSender.create(options);
+    }
+
+    /**
+     * Снимки в том же JSON, что отдаёт REST API; пустое значение остаётся пустым — это tombstone.
+     */
+    @Bean(destroyMethod = "close")
+    public KafkaSender<String, UserResponseDTO> userSnapshotSender(UserEventsProperties properties,
+                                                                   ObjectMapper objectMapper) {
+        SenderOptions<String, UserResponseDTO> options = SenderOptions.<String, UserResponseDTO>create(
+                        new HashMap<>(properties.producer()))
+                .withKeySerializer(new StringSerializer())
+                .withValueSerializer(snapshotSerializer(objectMapper))
+                .stopOnError(true);
+        return KafkaSender.create(options);
+    }
+
+    private static Serializer<UserResponseDTO> snapshotSerializer(ObjectMapper objectMapper) {
+        return (topic, snapshot) -> {
+            if (snapshot == null) {
+                return null;
+            }
+            try {
+                return objectMapper.writeValueAsBytes(snapshot);
+            } catch (JsonProcessingException e) {
+                throw new SerializationException("Failed to serialize snapshot of user " + snapshot.getId(), e);
+            }
+        };
+    }
+}
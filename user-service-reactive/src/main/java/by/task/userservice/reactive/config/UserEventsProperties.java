@@ -0,0 +1,30 @@
+package by.task.userservice.reactive.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * @param producer свойства Kafka-продюсера как есть ({@code bootstrap.servers}, {@code acks}, ...)
+ */
+@ConfigurationProperties(prefix = "user-events")
+public record UserEventsProperties(
+        @DefaultValue("user-events") String topic,
+        @DefaultValue Map<String, String> producer,
+        @DefaultValue Outbox outbox,
+        @DefaultValue Snapshots snapshots) {
+
+    public record Outbox(
+            @DefaultValue("500") int batchSize,
+            @DefaultValue("500ms") Duration pollInterval,
+            @DefaultValue("30s") Duration sendTimeout) {
+    }
+
+    /**
+     * Компактируемый топик снимков пользователей; его создаёт и настраивает блокирующий user-service.
+     */
+    public record Snapshots(@DefaultValue("user-snapshots") String topic) {
+    }
+}
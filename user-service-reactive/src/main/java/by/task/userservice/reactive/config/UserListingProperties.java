@@ -0,0 +1,17 @@
+package by.task.userservice.reactive.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "users.listing")
+public record UserListingProperties(
+        @DefaultValue("100") int defaultPageSize,
+        @DefaultValue("1000") int maxPageSize) {
+
+    public int clampPageSize(Integer requested) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(requested, maxPageSize));
+    }
+}
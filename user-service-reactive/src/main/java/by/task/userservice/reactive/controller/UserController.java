@@ -0,0 +1,132 @@
+package by.task.userservice.reactive.controller;
+
+import by.task.userservice.dto.UserRequestDTO;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.exception.service.UserVersionMismatchException;
+import by.task.userservice.reactive.config.UserListingProperties;
+import by.task.userservice.reactive.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Те же эндпоинты, DTO и ETag, что у блокирующего {@code UserController}, кроме пакетных {@code /bulk},
+ * поиска {@code /by-email}, фильтров списка и выборки полей {@code fields}.
+ */
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final UserService userService;
+    private final UserListingProperties listingProperties;
+
+    @Autowired
+    public UserController(UserService userService, UserListingProperties listingProperties) {
+        this.userService = userService;
+        this.listingProperties = listingProperties;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<UserResponseDTO>> createUser(@Valid @RequestBody UserRequestDTO userDTO) {
+        return userService.createUser(userDTO)
+                .map(createdUser -> ResponseEntity.status(HttpStatus.CREATED)
+                        .eTag(eTag(createdUser.getVersion()))
+                        .body(createdUser));
+    }
+
+    /**
+     * If-None-Match сверяется с версией прочитанного пользователя: на совпадение уходит 304 без тела.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserResponseDTO>> getUserById(@PathVariable Long id, ServerWebExchange exchange) {
+        return userService.getUserById(id)
+                .filter(user -> !exchange.checkNotModified(eTag(user.getVersion())))
+                .map(user -> ResponseEntity.ok()
+                        .eTag(eTag(user.getVersion()))
+                        .body(user));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<UserResponseDTO>>> getAllUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        return userService.getUsersPage(after, listingProperties.clampPageSize(size))
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.getNextCursor() != null) {
+                        response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+                    }
+                    return response.body(page.getItems());
+                });
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserResponseDTO> streamAllUsers() {
+        return userService.streamAllUsers();
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<UserResponseDTO>> updateUser(
+            @PathVariable Long id,
+            @Valid @RequestBody UserRequestDTO userDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> userService.updateUser(id, userDTO, expectedVersion(id, ifMatch)))
+                .map(updatedUser -> ResponseEntity.ok()
+                        .eTag(eTag(updatedUser.getVersion()))
+                        .body(updatedUser));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> userService.deleteUser(id, expectedVersion(id, ifMatch)))
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private static String eTag(long version) {
+        return ETag.quoteETagIfNecessary(String.valueOf(version));
+    }
+
+    /**
+     * Версия из If-Match: {@code null} без заголовка или для {@code *}. Поддерживается один сильный ETag;
+     * слабый, чужой ETag или список значений считаются несовпадением и дают 412 без обращения к базе.
+     */
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.size() == 1 && tags.get(0).isWildcard()) {
+            return null;
+        }
+        if (tags.size() == 1 && !tags.get(0).weak()) {
+            try {
+                return Long.valueOf(tags.get(0).tag());
+            } catch (NumberFormatException ignored) {
+                // не наш ETag — совпасть не может
+            }
+        }
+        throw new UserVersionMismatchException(id);
+    }
+}
@@ -0,0 +1,80 @@
+package by.task.userservice.reactive.exception;
+
+import by.task.userservice.exception.service.DuplicateEmailException;
+import by.task.userservice.exception.service.EmptyUserListException;
+import by.task.userservice.exception.service.InvalidUserException;
+import by.task.userservice.exception.service.UserNotFoundException;
+import by.task.userservice.exception.service.UserVersionMismatchException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Те же коды и тела ошибок, что у блокирующего сервиса.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(UserNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> handleUserNotFound(UserNotFoundException ex) {
+        return errorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(EmptyUserListException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> handleEmptyList(EmptyUserListException ex) {
+        return errorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(DuplicateEmailException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleDuplicateEmail(DuplicateEmailException ex) {
+        return errorResponse(ex.getMessage());
+    }
+
+    /**
+     * Срабатывает, когда дубликат email прошёл предварительную проверку (гонка создания или изменение email).
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return errorResponse("Данные конфликтуют с существующим пользователем");
+    }
+
+    @ExceptionHandler(UserVersionMismatchException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public Map<String, String> handleVersionMismatch(UserVersionMismatchException ex) {
+        return errorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler({InvalidUserException.class, WebExchangeBindException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleValidationExceptions(Exception ex) {
+        if (ex instanceof WebExchangeBindException validationEx) {
+            Map<String, String> errors = new HashMap<>();
+            validationEx.getBindingResult().getFieldErrors().forEach(error ->
+                    errors.put(error.getField(), error.getDefaultMessage()));
+            return errors;
+        }
+        return errorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(Exception.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public Map<String, String> handleGeneralExceptions(Exception ex) {
+        return errorResponse("Внутренняя ошибка сервера");
+    }
+
+    private Map<String, String> errorResponse(String message) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", message);
+        return response;
+    }
+}
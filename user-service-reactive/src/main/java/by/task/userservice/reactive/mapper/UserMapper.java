@@ -0,0 +1,24 @@
+package by.task.userservice.reactive.mapper;
+
+import by.task.userservice.dto.UserRequestDTO;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.reactive.model.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+@Mapper(componentModel = "spring")
+public interface UserMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    User toEntity(UserRequestDTO dto);
+
+    UserResponseDTO toDTO(User user);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntityFromDTO(UserRequestDTO dto, @MappingTarget User user);
+}
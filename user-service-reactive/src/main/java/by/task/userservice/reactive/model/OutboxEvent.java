@@ -0,0 +1,78 @@
+package by.task.userservice.reactive.model;
+
+import by.task.userevents.UserEventType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка таблицы {@code user_outbox}, общей с блокирующим user-service.
+ * Записывается в той же транзакции, что и изменение {@link User}, отправляется {@code ReactiveOutboxRelay}.
+ */
+@Table("user_outbox")
+public class OutboxEvent {
+    @Id
+    private Long id;
+
+    @Column("user_id")
+    private Long userId;
+
+    private UserEventType operation;
+
+    private String email;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(Long id, Long userId, UserEventType operation, String email) {
+        this.id = id;
+        this.userId = userId;
+        this.operation = operation;
+        this.email = email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public UserEventType getOperation() {
+        return operation;
+    }
+
+    public void setOperation(UserEventType operation) {
+        this.operation = operation;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,123 @@
+package by.task.userservice.reactive.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка таблицы {@code users}. Id выдаётся заранее из {@code users_seq}, поэтому новизну
+ * записи определяет флаг, а не пустой id.
+ */
+@Table("users")
+public class User implements Persistable<Long> {
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String email;
+
+    private Integer age;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    /**
+     * Та же колонка версии, что у JPA-варианта: ETag там меняется и после изменений из этого сервиса.
+     */
+    @Version
+    private Long version;
+
+    @Transient
+    private boolean isNew;
+
+    public User() {
+    }
+
+    public User(String name, String email, Integer age) {
+        this.name = name;
+        this.email = email;
+        this.age = age;
+    }
+
+    /**
+     * Помечает пользователя как новую запись: следующий save выполнит INSERT.
+     */
+    public User asNew(Long id) {
+        this.id = id;
+        this.createdAt = LocalDateTime.now();
+        this.isNew = true;
+        return this;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "User{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", email='" + email + '\'' +
+                ", age=" + age +
+                ", createdAt=" + createdAt +
+                ", version=" + version +
+                '}';
+    }
+}
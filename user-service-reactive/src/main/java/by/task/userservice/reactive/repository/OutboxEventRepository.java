@@ -0,0 +1,28 @@
+package by.task.userservice.reactive.repository;
+
+import by.task.userservice.reactive.model.OutboxEvent;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface OutboxEventRepository extends ReactiveCrudRepository<OutboxEvent, Long> {
+
+    @Modifying
+    @Query("INSERT INTO user_outbox (id, user_id, operation, email, created_at) "
+            + "VALUES (nextval('user_outbox_seq'), :userId, :operation, :email, now())")
+    Mono<Void> append(long userId, String operation, String email);
+
+    @Query("SELECT * FROM user_outbox ORDER BY id LIMIT :limit")
+    Flux<OutboxEvent> findBatch(int limit);
+
+    /**
+     * Та же advisory-блокировка, что у {@code OutboxRelay} блокирующего сервиса:
+     * outbox разгружает только один экземпляр, какой бы вариант сервиса ни был запущен.
+     */
+    @Query("SELECT pg_try_advisory_xact_lock(:key)")
+    Mono<Boolean> tryAcquireRelayLock(long key);
+}
@@ -0,0 +1,22 @@
+package by.task.userservice.reactive.repository;
+
+import by.task.userservice.reactive.model.User;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface UserRepository extends ReactiveCrudRepository<User, Long> {
+
+    @Query("SELECT nextval('users_seq')")
+    Mono<Long> nextId();
+
+    @Query("SELECT * FROM users WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<User> findPage(long afterId, int limit);
+
+    Flux<User> findAllByOrderByIdAsc();
+
+    Mono<Boolean> existsByEmail(String email);
+}
@@ -0,0 +1,132 @@
+package by.task.userservice.reactive.service;
+
+import by.task.userevents.UserEvent;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.reactive.config.UserEventsProperties;
+import by.task.userservice.reactive.mapper.UserMapper;
+import by.task.userservice.reactive.model.OutboxEvent;
+import by.task.userservice.reactive.model.User;
+import by.task.userservice.reactive.repository.OutboxEventRepository;
+import by.task.userservice.reactive.repository.UserRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+import reactor.util.function.Tuple2;
+
+import java.util.List;
+
+/**
+ * Переносит события из таблицы outbox в топик user-events через {@link KafkaSender}.
+ * Повторяет {@code OutboxRelay} блокирующего сервиса: пачка уходит в продюсер целиком,
+ * строки удаляются только после подтверждения брокером всех записей пачки. Вместе с событиями в топик
+ * снимков уходит текущее состояние каждого пользователя пачки или tombstone удалённого, как в {@code OutboxRelay}.
+ */
+@Component
+public class ReactiveOutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOutboxRelay.class);
+
+    static final long RELAY_LOCK_KEY = 0x5553455256454E54L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaSender<String, UserEvent> kafkaSender;
+    private final KafkaSender<String, UserResponseDTO> snapshotSender;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final UserEventsProperties properties;
+
+    @Autowired
+    public ReactiveOutboxRelay(OutboxEventRepository outboxEventRepository,
+                               KafkaSender<String, UserEvent> kafkaSender,
+                               KafkaSender<String, UserResponseDTO> snapshotSender,
+                               UserRepository userRepository,
+                               UserMapper userMapper,
+                               ReactiveTransactionManager transactionManager,
+                               UserEventsProperties properties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaSender = kafkaSender;
+        this.snapshotSender = snapshotSender;
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${user-events.outbox.poll-interval:500ms}")
+    public Mono<Void> relay() {
+        int batchSize = properties.outbox().batchSize();
+        return transactionalOperator.transactional(relayBatch(batchSize))
+                .flatMap(relayed -> relayed == batchSize ? Mono.defer(this::relay) : Mono.empty());
+    }
+
+    Mono<Integer> relayBatch(int batchSize) {
+        return outboxEventRepository.tryAcquireRelayLock(RELAY_LOCK_KEY)
+                .filter(Boolean::booleanValue)
+                .flatMap(locked -> outboxEventRepository.findBatch(batchSize).collectList())
+                .filter(batch -> !batch.isEmpty())
+                .flatMap(this::send)
+                .defaultIfEmpty(0);
+    }
+
+    private Mono<Integer> send(List<OutboxEvent> batch) {
+        Flux<SenderRecord<String, UserEvent, Long>> records = Flux.fromIterable(batch)
+                .map(event -> SenderRecord.create(new ProducerRecord<>(properties.topic(),
+                        String.valueOf(event.getUserId()), toUserEvent(event)), event.getId()));
+        Mono<List<Long>> events = kafkaSender.send(records)
+                .map(this::acknowledgedId)
+                .collectList();
+        return Mono.zip(events, sendSnapshots(batch))
+                .map(Tuple2::getT1)
+                .timeout(properties.outbox().sendTimeout())
+                .onErrorMap(e -> new IllegalStateException("Failed to relay outbox batch, will retry", e))
+                .flatMap(ids -> outboxEventRepository.deleteAllById(ids)
+                        .doOnSuccess(done -> logger.debug("Relayed {} user events to {}", ids.size(),
+                                properties.topic()))
+                        .thenReturn(ids.size()));
+    }
+
+    private Mono<Long> sendSnapshots(List<OutboxEvent> batch) {
+        List<Long> userIds = batch.stream().map(OutboxEvent::getUserId).distinct().toList();
+        String topic = properties.snapshots().topic();
+        Flux<SenderRecord<String, UserResponseDTO, Long>> records = userRepository.findAllById(userIds)
+                .collectMap(User::getId)
+                .flatMapMany(users -> Flux.fromIterable(userIds)
+                        .map(userId -> SenderRecord.create(new ProducerRecord<>(topic, String.valueOf(userId),
+                                users.containsKey(userId) ? userMapper.toDTO(users.get(userId)) : null), userId)));
+        return snapshotSender.send(records)
+                .map(this::acknowledgedSnapshot)
+                .count();
+    }
+
+    private Long acknowledgedSnapshot(SenderResult<Long> result) {
+        if (result.exception() != null) {
+            logger.warn("Failed to send snapshot of user ID: {}", result.correlationMetadata(), result.exception());
+            throw new IllegalStateException("Snapshot of user " + result.correlationMetadata() + " not sent",
+                    result.exception());
+        }
+        return result.correlationMetadata();
+    }
+
+    private Long acknowledgedId(SenderResult<Long> result) {
+        if (result.exception() != null) {
+            logger.warn("Failed to send outbox event ID: {}", result.correlationMetadata(), result.exception());
+            throw new IllegalStateException("Outbox event " + result.correlationMetadata() + " not sent",
+                    result.exception());
+        }
+        return result.correlationMetadata();
+    }
+
+    private UserEvent toUserEvent(OutboxEvent event) {
+        return new UserEvent(event.getId(), event.getUserId(), event.getOperation(), event.getEmail());
+    }
+}
@@ -0,0 +1,171 @@
+package by.task.userservice.reactive.service;
+
+import by.task.userevents.UserEventType;
+import by.task.userservice.dto.UserPageDTO;
+import by.task.userservice.dto.UserRequestDTO;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.exception.service.DuplicateEmailException;
+import by.task.userservice.exception.service.EmptyUserListException;
+import by.task.userservice.exception.service.InvalidUserException;
+import by.task.userservice.exception.service.UserNotFoundException;
+import by.task.userservice.exception.service.UserVersionMismatchException;
+import by.task.userservice.reactive.mapper.UserMapper;
+import by.task.userservice.reactive.model.User;
+import by.task.userservice.reactive.repository.OutboxEventRepository;
+import by.task.userservice.reactive.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.List;
+
+/**
+ * Реактивный аналог {@code UserService} блокирующего сервиса: те же правила и те же события в outbox,
+ * но ни один поток не ждёт базу.
+ */
+@Service
+public class UserService {
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    private static final int VERSION_CONFLICT_RETRIES = 3;
+
+    private final UserRepository userRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserMapper userMapper;
+
+    @Autowired
+    public UserService(UserRepository userRepository, OutboxEventRepository outboxEventRepository,
+                       UserMapper userMapper) {
+        this.userRepository = userRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.userMapper = userMapper;
+    }
+
+    /**
+     * Гонку двух одновременных созданий с одним email разрешает уникальный индекс:
+     * проигравший получает {@link org.springframework.dao.DataIntegrityViolationException}.
+     */
+    @Transactional
+    public Mono<UserResponseDTO> createUser(UserRequestDTO userDTO) {
+        logger.info("Creating new user: {}", userDTO.getEmail());
+        User user = userMapper.toEntity(userDTO);
+        return validateUser(user)
+                .then(userRepository.existsByEmail(user.getEmail()))
+                .flatMap(exists -> exists
+                        ? Mono.error(new DuplicateEmailException(user.getEmail()))
+                        : userRepository.nextId())
+                .flatMap(id -> userRepository.save(user.asNew(id)))
+                .flatMap(savedUser -> appendEvent(UserEventType.CREATED, savedUser))
+                .map(userMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<UserResponseDTO> getUserById(Long id) {
+        logger.info("Fetching user by ID: {}", id);
+        return findUser(id).map(userMapper::toDTO);
+    }
+
+    /**
+     * Страница пользователей по ключу: {@code afterId} — последний id предыдущей страницы.
+     * Запрашивается на одну запись больше, чтобы без COUNT понять, есть ли следующая страница.
+     */
+    @Transactional(readOnly = true)
+    public Mono<UserPageDTO> getUsersPage(Long afterId, int size) {
+        logger.info("Fetching users page after ID: {}, size: {}", afterId, size);
+        long cursor = afterId == null ? 0L : afterId;
+        return userRepository.findPage(cursor, size + 1)
+                .collectList()
+                .flatMap(users -> {
+                    if (users.isEmpty() && afterId == null) {
+                        return Mono.error(new EmptyUserListException());
+                    }
+                    boolean hasNext = users.size() > size;
+                    List<User> page = hasNext ? users.subList(0, size) : users;
+                    Long nextCursor = hasNext ? page.get(page.size() - 1).getId() : null;
+                    return Mono.just(new UserPageDTO(page.stream().map(userMapper::toDTO).toList(), nextCursor));
+                });
+    }
+
+    /**
+     * Все пользователи по возрастанию id. Строки читаются из курсора по мере спроса подписчика,
+     * поэтому медленный клиент не заставляет держать весь результат в памяти.
+     */
+    public Flux<UserResponseDTO> streamAllUsers() {
+        logger.info("Streaming all users");
+        return userRepository.findAllByOrderByIdAsc().map(userMapper::toDTO);
+    }
+
+    /**
+     * Чтение и запись разделены, поэтому UPDATE проверяет прочитанную версию ({@code @Version}).
+     * Если между ними пользователя изменил другой запрос, безусловное обновление перечитывает
+     * его и повторяется, а условное отвечает несовпадением версии, как и блокирующий сервис.
+     *
+     * @param expectedVersion версия из If-Match или {@code null}, если обновлять безусловно
+     */
+    @Transactional
+    public Mono<UserResponseDTO> updateUser(Long id, UserRequestDTO userDTO, Long expectedVersion) {
+        logger.info("Updating user ID: {}", id);
+        return findUser(id, expectedVersion)
+                .flatMap(existingUser -> {
+                    userMapper.updateEntityFromDTO(userDTO, existingUser);
+                    return validateUser(existingUser).then(userRepository.save(existingUser));
+                })
+                .transform(write -> retryUnconditional(write, id, expectedVersion))
+                .flatMap(updatedUser -> appendEvent(UserEventType.UPDATED, updatedUser))
+                .map(userMapper::toDTO);
+    }
+
+    /**
+     * @param expectedVersion версия из If-Match или {@code null}, если удалять безусловно
+     * @see #updateUser
+     */
+    @Transactional
+    public Mono<Void> deleteUser(Long id, Long expectedVersion) {
+        logger.info("Deleting user ID: {}", id);
+        return findUser(id, expectedVersion)
+                .flatMap(user -> userRepository.delete(user).thenReturn(user))
+                .transform(write -> retryUnconditional(write, id, expectedVersion))
+                .flatMap(user -> appendEvent(UserEventType.DELETED, user))
+                .then();
+    }
+
+    private Mono<User> findUser(Long id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(id)));
+    }
+
+    private Mono<User> findUser(Long id, Long expectedVersion) {
+        return findUser(id).flatMap(user -> expectedVersion == null || expectedVersion.equals(user.getVersion())
+                ? Mono.just(user)
+                : Mono.error(new UserVersionMismatchException(id)));
+    }
+
+    /**
+     * Повторяет чтение и запись, если версия устарела между ними, а If-Match не было.
+     * Конфликт условного запроса или исчерпанные повторы становятся {@link UserVersionMismatchException} (412).
+     */
+    private static Mono<User> retryUnconditional(Mono<User> write, Long id, Long expectedVersion) {
+        return write
+                .retryWhen(Retry.max(VERSION_CONFLICT_RETRIES)
+                        .filter(ex -> expectedVersion == null && ex instanceof OptimisticLockingFailureException)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .onErrorMap(OptimisticLockingFailureException.class, ex -> new UserVersionMismatchException(id));
+    }
+
+    private Mono<User> appendEvent(UserEventType operation, User user) {
+        return outboxEventRepository.append(user.getId(), operation.name(), user.getEmail())
+                .thenReturn(user);
+    }
+
+    private Mono<Void> validateUser(User user) {
+        if (user.getName() == null || user.getName().trim().isEmpty()) {
+            return Mono.error(new InvalidUserException("User name is required"));
+        }
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,21 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS user_outbox_seq INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS users (
+    id         BIGINT       PRIMARY KEY,
+    name       VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL UNIQUE,
+    age        INTEGER      NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    version    BIGINT       NOT NULL DEFAULT 0
+);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS user_outbox (
+    id         BIGINT       PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    operation  VARCHAR(16)  NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,200 @@
+package by.task.userservice.reactive.controller;
+
+import by.task.userservice.dto.UserPageDTO;
+import by.task.userservice.dto.UserRequestDTO;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.exception.service.DuplicateEmailException;
+import by.task.userservice.exception.service.EmptyUserListException;
+import by.task.userservice.exception.service.UserNotFoundException;
+import by.task.userservice.exception.service.UserVersionMismatchException;
+import by.task.userservice.reactive.config.UserListingProperties;
+import by.task.userservice.reactive.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@WebFluxTest(UserController.class)
+@EnableConfigurationProperties(UserListingProperties.class)
+class UserControllerTest {
+
+    private static final Long ID = 1L;
+    private static final String NAME = "Test User";
+    private static final String EMAIL = "user@test.com";
+    private static final String INVALID_EMAIL = "invalid-email";
+    private static final int AGE = 30;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final long VERSION = 3L;
+
+    private static final String USERS_API_URL = "/api/users";
+    private static final String USERS_API_URL_WITH_ID = USERS_API_URL + "/{id}";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private UserService userService;
+
+    @Test
+    void createUser_ValidRequest_ReturnsCreated() {
+        given(userService.createUser(any(UserRequestDTO.class))).willReturn(Mono.just(createResponse(ID)));
+
+        webTestClient.post().uri(USERS_API_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserRequestDTO(NAME, EMAIL, AGE))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(ID)
+                .jsonPath("$.email").isEqualTo(EMAIL);
+    }
+
+    @Test
+    void createUser_InvalidEmail_ReturnsBadRequest() {
+        webTestClient.post().uri(USERS_API_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserRequestDTO(NAME, INVALID_EMAIL, AGE))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("Invalid email format");
+    }
+
+    @Test
+    void getUserById_NotFound_ReturnsNotFound() {
+        given(userService.getUserById(ID)).willReturn(Mono.error(new UserNotFoundException(ID)));
+
+        webTestClient.get().uri(USERS_API_URL_WITH_ID, ID)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Пользователь с ID " + ID + " не найден");
+    }
+
+    @Test
+    void getAllUsers_NextPageExists_ReturnsCursorHeader() {
+        given(userService.getUsersPage(isNull(), eq(DEFAULT_PAGE_SIZE)))
+                .willReturn(Mono.just(new UserPageDTO(List.of(createResponse(ID)), ID)));
+
+        webTestClient.get().uri(USERS_API_URL)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(UserController.NEXT_CURSOR_HEADER, String.valueOf(ID))
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(ID);
+    }
+
+    @Test
+    void getAllUsers_Empty_ReturnsNotFound() {
+        given(userService.getUsersPage(isNull(), eq(DEFAULT_PAGE_SIZE)))
+                .willReturn(Mono.error(new EmptyUserListException()));
+
+        webTestClient.get().uri(USERS_API_URL)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void streamAllUsers_Ndjson_ReturnsOneLinePerUser() {
+        given(userService.streamAllUsers()).willReturn(Flux.just(createResponse(1L), createResponse(2L)));
+
+        webTestClient.get().uri(USERS_API_URL)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(UserResponseDTO.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void deleteUser_Existing_ReturnsNoContent() {
+        given(userService.deleteUser(ID, null)).willReturn(Mono.empty());
+
+        webTestClient.delete().uri(USERS_API_URL_WITH_ID, ID)
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    void createUser_EmailTaken_ReturnsConflict() {
+        given(userService.createUser(any(UserRequestDTO.class)))
+                .willReturn(Mono.error(new DuplicateEmailException(EMAIL)));
+
+        webTestClient.post().uri(USERS_API_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserRequestDTO(NAME, EMAIL, AGE))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void getUserById_IfNoneMatchCurrentVersion_ReturnsNotModified() {
+        given(userService.getUserById(ID)).willReturn(Mono.just(createResponse(ID)));
+
+        webTestClient.get().uri(USERS_API_URL_WITH_ID, ID)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + VERSION + "\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void updateUser_IfMatch_PassesVersionAndReturnsNewETag() {
+        UserResponseDTO updated = createResponse(ID);
+        updated.setVersion(VERSION + 1);
+        given(userService.updateUser(eq(ID), any(UserRequestDTO.class), eq(VERSION))).willReturn(Mono.just(updated));
+
+        webTestClient.put().uri(USERS_API_URL_WITH_ID, ID)
+                .header(HttpHeaders.IF_MATCH, "\"" + VERSION + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserRequestDTO(NAME, EMAIL, AGE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + (VERSION + 1) + "\"");
+    }
+
+    @Test
+    void updateUser_WeakIfMatch_ReturnsPreconditionFailedWithoutServiceCall() {
+        webTestClient.put().uri(USERS_API_URL_WITH_ID, ID)
+                .header(HttpHeaders.IF_MATCH, "W/\"" + VERSION + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserRequestDTO(NAME, EMAIL, AGE))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void deleteUser_StaleIfMatch_ReturnsPreconditionFailed() {
+        given(userService.deleteUser(ID, VERSION)).willReturn(Mono.error(new UserVersionMismatchException(ID)));
+
+        webTestClient.delete().uri(USERS_API_URL_WITH_ID, ID)
+                .header(HttpHeaders.IF_MATCH, "\"" + VERSION + "\"")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    private UserResponseDTO createResponse(Long id) {
+        UserResponseDTO response = new UserResponseDTO(id, NAME, EMAIL, AGE, LocalDateTime.of(2025, 1, 1, 12, 0));
+        response.setVersion(VERSION);
+        return response;
+    }
+}
@@ -0,0 +1,176 @@
+package by.task.userservice.reactive.service;
+
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventType;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.reactive.config.UserEventsProperties;
+import by.task.userservice.reactive.mapper.UserMapper;
+import by.task.userservice.reactive.model.OutboxEvent;
+import by.task.userservice.reactive.model.User;
+import by.task.userservice.reactive.repository.OutboxEventRepository;
+import by.task.userservice.reactive.repository.UserRepository;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveOutboxRelayTest {
+
+    private static final String TOPIC = "user-events";
+    private static final String SNAPSHOTS_TOPIC = "user-snapshots";
+    private static final int BATCH_SIZE = 2;
+    private static final String EMAIL = "user@test.com";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaSender<String, UserEvent> kafkaSender;
+
+    @Mock
+    private KafkaSender<String, UserResponseDTO> snapshotSender;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private ReactiveTransactionManager transactionManager;
+
+    private ReactiveOutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        UserEventsProperties properties = new UserEventsProperties(TOPIC, Map.of(),
+                new UserEventsProperties.Outbox(BATCH_SIZE, Duration.ofMillis(500), Duration.ofSeconds(1)),
+                new UserEventsProperties.Snapshots(SNAPSHOTS_TOPIC));
+        outboxRelay = new ReactiveOutboxRelay(outboxEventRepository, kafkaSender, snapshotSender, userRepository,
+                userMapper, transactionManager, properties);
+    }
+
+    @Test
+    void relayBatch_PendingEvents_DeletesAfterAck() {
+        when(outboxEventRepository.tryAcquireRelayLock(ReactiveOutboxRelay.RELAY_LOCK_KEY)).thenReturn(Mono.just(true));
+        when(outboxEventRepository.findBatch(BATCH_SIZE)).thenReturn(Flux.just(
+                new OutboxEvent(1L, 10L, UserEventType.CREATED, EMAIL),
+                new OutboxEvent(2L, 10L, UserEventType.DELETED, EMAIL)));
+        when(kafkaSender.<Long>send(any())).thenAnswer(invocation -> acknowledged(invocation.getArgument(0), null));
+        when(userRepository.findAllById(List.of(10L))).thenReturn(Flux.empty());
+        when(snapshotSender.<Long>send(any())).thenAnswer(invocation -> acknowledged(invocation.getArgument(0), null));
+        when(outboxEventRepository.deleteAllById(List.of(1L, 2L))).thenReturn(Mono.empty());
+
+        StepVerifier.create(outboxRelay.relayBatch(BATCH_SIZE))
+                .expectNext(BATCH_SIZE)
+                .verifyComplete();
+        List<SenderRecord<String, UserResponseDTO, Long>> snapshots = sentSnapshots();
+        assertEquals(1, snapshots.size());
+        assertEquals("10", snapshots.getFirst().key());
+        assertNull(snapshots.getFirst().value());
+    }
+
+    @Test
+    void relayBatch_SeveralEventsOfExistingUser_SendsLatestSnapshotOnce() {
+        User user = new User("Test User", EMAIL, 30);
+        user.setId(10L);
+        UserResponseDTO snapshot = new UserResponseDTO(10L, "Test User", EMAIL, 30, null);
+        when(outboxEventRepository.tryAcquireRelayLock(ReactiveOutboxRelay.RELAY_LOCK_KEY)).thenReturn(Mono.just(true));
+        when(outboxEventRepository.findBatch(BATCH_SIZE)).thenReturn(Flux.just(
+                new OutboxEvent(1L, 10L, UserEventType.CREATED, EMAIL),
+                new OutboxEvent(2L, 10L, UserEventType.UPDATED, EMAIL)));
+        when(kafkaSender.<Long>send(any())).thenAnswer(invocation -> acknowledged(invocation.getArgument(0), null));
+        when(userRepository.findAllById(List.of(10L))).thenReturn(Flux.just(user));
+        when(userMapper.toDTO(user)).thenReturn(snapshot);
+        when(snapshotSender.<Long>send(any())).thenAnswer(invocation -> acknowledged(invocation.getArgument(0), null));
+        when(outboxEventRepository.deleteAllById(List.of(1L, 2L))).thenReturn(Mono.empty());
+
+        StepVerifier.create(outboxRelay.relayBatch(BATCH_SIZE))
+                .expectNext(BATCH_SIZE)
+                .verifyComplete();
+        List<SenderRecord<String, UserResponseDTO, Long>> snapshots = sentSnapshots();
+        assertEquals(1, snapshots.size());
+        assertEquals(SNAPSHOTS_TOPIC, snapshots.getFirst().topic());
+        assertEquals(snapshot, snapshots.getFirst().value());
+    }
+
+    @Test
+    void relayBatch_SendFailed_KeepsEventsInOutbox() {
+        when(outboxEventRepository.tryAcquireRelayLock(ReactiveOutboxRelay.RELAY_LOCK_KEY)).thenReturn(Mono.just(true));
+        when(outboxEventRepository.findBatch(BATCH_SIZE)).thenReturn(Flux.just(
+                new OutboxEvent(1L, 10L, UserEventType.CREATED, EMAIL)));
+        when(kafkaSender.<Long>send(any())).thenAnswer(invocation ->
+                acknowledged(invocation.getArgument(0), new RuntimeException("broker down")));
+        when(userRepository.findAllById(List.of(10L))).thenReturn(Flux.empty());
+        when(snapshotSender.<Long>send(any())).thenAnswer(invocation -> acknowledged(invocation.getArgument(0), null));
+
+        StepVerifier.create(outboxRelay.relayBatch(BATCH_SIZE))
+                .expectError(IllegalStateException.class)
+                .verify();
+        verify(outboxEventRepository, never()).deleteAllById(any(Iterable.class));
+    }
+
+    @Test
+    void relayBatch_LockHeldByAnotherInstance_SkipsBatch() {
+        when(outboxEventRepository.tryAcquireRelayLock(ReactiveOutboxRelay.RELAY_LOCK_KEY))
+                .thenReturn(Mono.just(false));
+
+        StepVerifier.create(outboxRelay.relayBatch(BATCH_SIZE))
+                .expectNext(0)
+                .verifyComplete();
+        verify(outboxEventRepository, never()).findBatch(BATCH_SIZE);
+        verifyNoInteractions(kafkaSender, snapshotSender);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SenderRecord<String, UserResponseDTO, Long>> sentSnapshots() {
+        ArgumentCaptor<Publisher<SenderRecord<String, UserResponseDTO, Long>>> records =
+                ArgumentCaptor.forClass(Publisher.class);
+        verify(snapshotSender).send(records.capture());
+        return Flux.from(records.getValue()).collectList().block();
+    }
+
+    private <V> Flux<SenderResult<Long>> acknowledged(Publisher<SenderRecord<String, V, Long>> records,
+                                                      Exception exception) {
+        return Flux.from(records).map(record -> new SenderResult<>() {
+            @Override
+            public RecordMetadata recordMetadata() {
+                return null;
+            }
+
+            @Override
+            public Exception exception() {
+                return exception;
+            }
+
+            @Override
+            public Long correlationMetadata() {
+                return record.correlationMetadata();
+            }
+        });
+    }
+}
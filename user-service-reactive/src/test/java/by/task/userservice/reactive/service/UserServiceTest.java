@@ -0,0 +1,226 @@
+package by.task.userservice.reactive.service;
+
+import by.task.userevents.UserEventType;
+import by.task.userservice.dto.UserRequestDTO;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.exception.service.DuplicateEmailException;
+import by.task.userservice.exception.service.UserNotFoundException;
+import by.task.userservice.exception.service.UserVersionMismatchException;
+import by.task.userservice.reactive.mapper.UserMapperImpl;
+import by.task.userservice.reactive.model.OutboxEvent;
+import by.task.userservice.reactive.model.User;
+import by.task.userservice.reactive.repository.OutboxEventRepository;
+import by.task.userservice.reactive.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.BDDMockito.willAnswer;
+
+/**
+ * Сервис поверх встроенной H2 в режиме совместимости с PostgreSQL и той же schema.sql,
+ * что и в рабочей конфигурации: проверяются SQL-запросы репозиториев и запись в outbox.
+ */
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///users;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@Import({UserService.class, UserMapperImpl.class})
+class UserServiceTest {
+
+    private static final String NAME = "Test User";
+    private static final int AGE = 30;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private R2dbcEntityTemplate entityTemplate;
+
+    @Test
+    void createUser_SavesUserAndAppendsEvent() {
+        UserResponseDTO created = userService.createUser(new UserRequestDTO(NAME, "create@test.com", AGE)).block();
+
+        assertNotNull(created);
+        assertNotNull(created.getId());
+        assertNotNull(created.getCreatedAt());
+        StepVerifier.create(userService.getUserById(created.getId()))
+                .assertNext(found -> assertEquals("create@test.com", found.getEmail()))
+                .verifyComplete();
+        StepVerifier.create(outboxEventRepository.findAll()
+                        .filter(event -> event.getUserId().equals(created.getId()))
+                        .map(OutboxEvent::getOperation))
+                .expectNext(UserEventType.CREATED)
+                .verifyComplete();
+    }
+
+    @Test
+    void getUsersPage_ReturnsCursorWhenMoreUsersExist() {
+        UserResponseDTO first = userService.createUser(new UserRequestDTO(NAME, "page1@test.com", AGE)).block();
+        userService.createUser(new UserRequestDTO(NAME, "page2@test.com", AGE)).block();
+
+        StepVerifier.create(userService.getUsersPage(first.getId() - 1, 1))
+                .assertNext(page -> {
+                    assertEquals(1, page.getItems().size());
+                    assertEquals(first.getId(), page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getUsersPage_NoUsersAfterCursor_ReturnsEmptyPage() {
+        StepVerifier.create(userService.getUsersPage(Long.MAX_VALUE - 1, 10))
+                .assertNext(page -> assertEquals(0, page.getItems().size()))
+                .verifyComplete();
+    }
+
+    @Test
+    void deleteUser_Existing_DeletesAndAppendsEvent() {
+        UserResponseDTO created = userService.createUser(new UserRequestDTO(NAME, "delete@test.com", AGE)).block();
+
+        StepVerifier.create(userService.deleteUser(created.getId(), null)).verifyComplete();
+
+        StepVerifier.create(userService.getUserById(created.getId()))
+                .expectError(UserNotFoundException.class)
+                .verify();
+        StepVerifier.create(outboxEventRepository.findAll()
+                        .filter(event -> event.getUserId().equals(created.getId()))
+                        .sort(Comparator.comparing(OutboxEvent::getId))
+                        .map(OutboxEvent::getOperation))
+                .expectNext(UserEventType.CREATED, UserEventType.DELETED)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateUser_Existing_IncrementsVersion() {
+        UserResponseDTO created = userService.createUser(new UserRequestDTO(NAME, "version@test.com", AGE)).block();
+
+        UserRequestDTO renamed = new UserRequestDTO("Renamed", "version@test.com", AGE);
+
+        StepVerifier.create(userService.updateUser(created.getId(), renamed, null))
+                .assertNext(updated -> assertEquals(created.getVersion() + 1, updated.getVersion()))
+                .verifyComplete();
+    }
+
+    @Test
+    void updateUser_NotFound_ReturnsError() {
+        StepVerifier.create(userService.updateUser(-1L, new UserRequestDTO(NAME, "none@test.com", AGE), null))
+                .expectError(UserNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void createUser_EmailTaken_ReturnsDuplicateEmailError() {
+        userService.createUser(new UserRequestDTO(NAME, "taken@test.com", AGE)).block();
+
+        StepVerifier.create(userService.createUser(new UserRequestDTO(NAME, "Taken@Test.com", AGE)))
+                .expectError(DuplicateEmailException.class)
+                .verify();
+    }
+
+    @Test
+    void updateUser_EmailTakenByAnotherUser_ReturnsDataIntegrityViolation() {
+        userService.createUser(new UserRequestDTO(NAME, "owner@test.com", AGE)).block();
+        UserResponseDTO other = userService.createUser(new UserRequestDTO(NAME, "other@test.com", AGE)).block();
+
+        StepVerifier.create(userService.updateUser(other.getId(), new UserRequestDTO(NAME, "owner@test.com", AGE),
+                        null))
+                .expectError(DataIntegrityViolationException.class)
+                .verify();
+    }
+
+    @Test
+    void updateUser_StaleExpectedVersion_ReturnsVersionMismatchAndKeepsUser() {
+        UserResponseDTO created = userService.createUser(new UserRequestDTO(NAME, "stale@test.com", AGE)).block();
+
+        StepVerifier.create(userService.updateUser(created.getId(), new UserRequestDTO("Renamed", "stale@test.com", AGE),
+                        created.getVersion() + 1))
+                .expectError(UserVersionMismatchException.class)
+                .verify();
+        StepVerifier.create(userService.getUserById(created.getId()))
+                .assertNext(found -> assertEquals(NAME, found.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void updateUser_MatchingExpectedVersion_Updates() {
+        UserResponseDTO created = userService.createUser(new UserRequestDTO(NAME, "match@test.com", AGE)).block();
+
+        StepVerifier.create(userService.updateUser(created.getId(), new UserRequestDTO("Renamed", "match@test.com", AGE),
+                        created.getVersion()))
+                .assertNext(updated -> assertEquals("Renamed", updated.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void deleteUser_StaleExpectedVersion_ReturnsVersionMismatchAndKeepsUser() {
+        UserResponseDTO created = userService.createUser(new UserRequestDTO(NAME, "keep@test.com", AGE)).block();
+
+        StepVerifier.create(userService.deleteUser(created.getId(), created.getVersion() + 1))
+                .expectError(UserVersionMismatchException.class)
+                .verify();
+        StepVerifier.create(userService.getUserById(created.getId()))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateUser_ChangedBetweenReadAndWrite_RereadsAndUpdates() {
+        UserResponseDTO created = userService.createUser(new UserRequestDTO(NAME, "race@test.com", AGE)).block();
+        AtomicBoolean concurrentUpdateDone = new AtomicBoolean();
+        willAnswer(invocation -> Mono.defer(() -> concurrentUpdateDone.getAndSet(true)
+                ? readUser(created.getId())
+                : readUser(created.getId()).delayUntil(user -> databaseClient
+                        .sql("UPDATE users SET version = version + 1 WHERE id = :id")
+                        .bind("id", user.getId())
+                        .then())))
+                .given(userRepository).findById(created.getId());
+
+        StepVerifier.create(userService.updateUser(created.getId(), new UserRequestDTO("Renamed", "race@test.com", AGE),
+                        null))
+                .assertNext(updated -> assertEquals(created.getVersion() + 2, updated.getVersion()))
+                .verifyComplete();
+    }
+
+    @Test
+    void updateUser_IfMatchAndChangedBetweenReadAndWrite_ReturnsVersionMismatch() {
+        UserResponseDTO created = userService.createUser(new UserRequestDTO(NAME, "race-if@test.com", AGE)).block();
+        willAnswer(invocation -> readUser(created.getId()).delayUntil(user -> databaseClient
+                .sql("UPDATE users SET version = version + 1 WHERE id = :id")
+                .bind("id", user.getId())
+                .then()))
+                .given(userRepository).findById(created.getId());
+
+        StepVerifier.create(userService.updateUser(created.getId(), new UserRequestDTO("Renamed", "race-if@test.com", AGE),
+                        created.getVersion()))
+                .expectError(UserVersionMismatchException.class)
+                .verify();
+    }
+
+    /**
+     * Чтение мимо шпиона репозитория: у прокси Spring Data нет реального метода, который мог бы вызвать Mockito.
+     */
+    private Mono<User> readUser(Long id) {
+        return entityTemplate.selectOne(Query.query(Criteria.where("id").is(id)), User.class);
+    }
+}
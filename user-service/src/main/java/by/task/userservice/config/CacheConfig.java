@@ -0,0 +1,40 @@
+package by.task.userservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Кэш применяется снаружи circuit breaker'а, bulkhead'а и транзакции ({@link #CACHE_ADVISOR_ORDER}):
+ * попадание в кэш не занимает место в bulkhead'е, не учитывается breaker'ом {@code postgres}
+ * и отдаётся, даже когда breaker открыт.
+ */
+@Configuration
+@EnableCaching(order = CacheConfig.CACHE_ADVISOR_ORDER)
+public class CacheConfig {
+    public static final String USERS_CACHE = "users";
+    /**
+     * Раньше breaker'а (LOWEST_PRECEDENCE - 3), bulkhead'а ({@code bulkhead-aspect-order}) и транзакции.
+     */
+    public static final int CACHE_ADVISOR_ORDER = Ordered.LOWEST_PRECEDENCE - 4;
+
+    /**
+     * Кэш пользователей по id. Операции с ним откладываются до коммита транзакции,
+     * чтобы параллельное чтение не вернуло в кэш ещё не закоммиченное состояние.
+     */
+    @Bean
+    public CacheManager cacheManager(UserCacheProperties properties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(USERS_CACHE);
+        caffeineCacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats());
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
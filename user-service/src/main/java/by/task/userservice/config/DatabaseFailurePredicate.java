@@ -0,0 +1,28 @@
+package by.task.userservice.config;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.function.Predicate;
+
+/**
+ * Ошибки, которые говорят о недоступности базы, а не о запросе: нет соединения, оно оборвалось,
+ * истёк таймаут выражения. Только они открывают breaker {@link ResilienceConfig#POSTGRES};
+ * «пользователь не найден» или конфликт email — штатные ответы и на его состояние не влияют.
+ */
+public class DatabaseFailurePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        return isDatabaseFailure(throwable);
+    }
+
+    public static boolean isDatabaseFailure(Throwable throwable) {
+        return throwable instanceof CannotCreateTransactionException
+                || throwable instanceof DataAccessResourceFailureException
+                || throwable instanceof TransientDataAccessResourceException
+                || throwable instanceof QueryTimeoutException;
+    }
+}
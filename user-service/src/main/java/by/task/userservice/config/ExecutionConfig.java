@@ -0,0 +1,31 @@
+package by.task.userservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Исполнитель для обработки подтверждений Kafka-продюсера.
+ * В режиме виртуальных потоков ({@code spring.threads.virtual.enabled=true}) колбэки уходят с сетевого
+ * потока продюсера на виртуальные потоки, иначе выполняются на нём же, как раньше.
+ */
+@Configuration
+public class ExecutionConfig {
+    public static final String KAFKA_CALLBACK_EXECUTOR = "kafkaCallbackExecutor";
+
+    @Bean(KAFKA_CALLBACK_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor virtualKafkaCallbackExecutor() {
+        return new VirtualThreadTaskExecutor("kafka-callback-");
+    }
+
+    @Bean(KAFKA_CALLBACK_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public TaskExecutor platformKafkaCallbackExecutor() {
+        return new SyncTaskExecutor();
+    }
+}
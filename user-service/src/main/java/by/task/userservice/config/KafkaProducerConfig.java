@@ -0,0 +1,17 @@
+package by.task.userservice.config;
+
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    /**
+     * Применяет {@code user-events.producer} к фабрике продюсера, которую создаёт Spring Boot.
+     */
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer userEventsProducerTuning(UserEventsProperties properties) {
+        return producerFactory -> producerFactory.updateConfigs(properties.producer().toProducerConfig());
+    }
+}
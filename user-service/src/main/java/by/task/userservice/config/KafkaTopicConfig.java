@@ -0,0 +1,33 @@
+package by.task.userservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    @Bean
+    public NewTopic userEventsTopic(UserEventsProperties properties) {
+        return TopicBuilder.name(properties.topic())
+                .partitions(properties.partitions())
+                .replicas(properties.replicas())
+                .build();
+    }
+
+    /**
+     * Компактируемый топик снимков: после компакции по каждому ключу остаётся последняя запись.
+     */
+    @Bean
+    public NewTopic userSnapshotsTopic(UserEventsProperties properties) {
+        UserEventsProperties.Snapshots snapshots = properties.snapshots();
+        return TopicBuilder.name(snapshots.topic())
+                .partitions(properties.partitions())
+                .replicas(properties.replicas())
+                .compact()
+                .config(TopicConfig.DELETE_RETENTION_MS_CONFIG, String.valueOf(snapshots.tombstoneRetention().toMillis()))
+                .build();
+    }
+}
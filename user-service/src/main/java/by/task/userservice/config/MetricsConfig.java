@@ -0,0 +1,72 @@
+package by.task.userservice.config;
+
+import by.task.userservice.metrics.StatementCounter;
+import by.task.userservice.metrics.StatementMetricsInterceptor;
+import by.task.userservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики поверх стандартных метрик actuator: время методов сервисов ({@link #SERVICE_TIMER}),
+ * число SQL-выражений на запрос и отставание outbox. Перцентили и гистограммы
+ * настраиваются в {@code management.metrics.distribution.*}.
+ */
+@Configuration
+public class MetricsConfig {
+    public static final String SERVICE_TIMER = "user.service";
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public WebMvcConfigurer statementMetricsConfigurer(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+        StatementMetricsInterceptor interceptor = new StatementMetricsInterceptor(statementCounter, meterRegistry);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor);
+            }
+        };
+    }
+
+    /**
+     * Отставание outbox: сколько событий ещё не ушло в Kafka и сколько ждёт самое старое.
+     * Значения читаются из базы при каждом сборе метрик.
+     */
+    @Bean
+    public MeterBinder outboxMetrics(OutboxEventRepository outboxEventRepository) {
+        return registry -> {
+            Gauge.builder("outbox.pending", outboxEventRepository, OutboxEventRepository::count)
+                    .description("Outbox events not yet relayed to Kafka")
+                    .register(registry);
+            TimeGauge.builder("outbox.oldest.age", outboxEventRepository, TimeUnit.SECONDS,
+                            MetricsConfig::oldestEventAgeSeconds)
+                    .description("Age of the oldest outbox event not yet relayed to Kafka")
+                    .register(registry);
+        };
+    }
+
+    private static double oldestEventAgeSeconds(OutboxEventRepository outboxEventRepository) {
+        LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt();
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds();
+    }
+}
@@ -0,0 +1,56 @@
+package by.task.userservice.config;
+
+import by.task.userevents.UserEventDeserializer;
+import by.task.userevents.UserEventSerializer;
+import by.task.userservice.dto.BulkUserResultDTO;
+import by.task.userservice.dto.UserFieldsDTO;
+import by.task.userservice.dto.UserFieldsPageDTO;
+import by.task.userservice.dto.UserFilter;
+import by.task.userservice.dto.UserPageDTO;
+import by.task.userservice.dto.UserRequestDTO;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.logging.SamplingTurboFilter;
+import by.task.userservice.model.OutboxEvent;
+import by.task.userservice.model.User;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Метаданные достижимости для native image: классы, которые создаются или читаются через рефлексию
+ * в обход бинов Spring, поэтому AOT-обработка их не видит. DTO сериализуются Jackson в том числе
+ * вне контроллеров (NDJSON-потоки и приём NDJSON), сериализаторы событий Kafka создаёт по имени
+ * класса из {@code spring.kafka.*}, предикат breaker'а и фильтр Logback тоже задаются именами.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.UserServiceRuntimeHints.class)
+@RegisterReflectionForBinding({UserRequestDTO.class, UserResponseDTO.class, UserPageDTO.class,
+        UserFieldsDTO.class, UserFieldsPageDTO.class, UserFilter.class, BulkUserResultDTO.class})
+public class NativeHintsConfig {
+    static final String USER_MAPPER_IMPL = "by.task.userservice.mapper.UserMapperImpl";
+
+    static class UserServiceRuntimeHints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection()
+                    // Генерирует MapStruct, в исходниках класса нет
+                    .registerType(TypeReference.of(USER_MAPPER_IMPL),
+                            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS)
+                    // Hibernate заполняет поля напрямую и вызывает приватные @PrePersist
+                    .registerType(User.class, MemberCategory.DECLARED_FIELDS,
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS)
+                    .registerType(OutboxEvent.class, MemberCategory.DECLARED_FIELDS,
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS)
+                    .registerType(UserEventSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                    .registerType(UserEventDeserializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                    .registerType(DatabaseFailurePredicate.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                    .registerType(SamplingTurboFilter.class,
+                            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.resources().registerPattern("db/migration/*.sql");
+        }
+    }
+}
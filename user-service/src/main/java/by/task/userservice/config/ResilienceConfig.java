@@ -0,0 +1,49 @@
+package by.task.userservice.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Имена circuit breaker'ов и bulkhead'ов; их настройки — в {@code resilience4j.*}, состояние
+ * публикуется метриками {@code resilience4j.circuitbreaker.*} и {@code resilience4j.bulkhead.*}.
+ * <p>
+ * Breaker {@link #POSTGRES} общий для обращений сервиса к базе, а bulkhead'ы раздельные:
+ * поток медленных чтений или выгрузок не занимает все соединения пула, и записи продолжают проходить.
+ */
+@Configuration
+public class ResilienceConfig {
+    public static final String POSTGRES = "postgres";
+    public static final String KAFKA = "kafka";
+    public static final String USER_READS = "user-reads";
+    public static final String USER_WRITES = "user-writes";
+    public static final String USER_EXPORTS = "user-exports";
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceConfig.class);
+
+    @Bean
+    public RegistryEventConsumer<CircuitBreaker> circuitBreakerTransitionLogger() {
+        return new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<CircuitBreaker> event) {
+                event.getAddedEntry().getEventPublisher().onStateTransition(transition ->
+                        logger.warn("Circuit breaker {} changed state: {}", transition.getCircuitBreakerName(),
+                                transition.getStateTransition()));
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<CircuitBreaker> event) {
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<CircuitBreaker> event) {
+            }
+        };
+    }
+}
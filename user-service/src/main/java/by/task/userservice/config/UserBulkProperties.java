@@ -0,0 +1,10 @@
+package by.task.userservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "users.bulk")
+public record UserBulkProperties(
+        @DefaultValue("100000") int maxItems,
+        @DefaultValue("500") int chunkSize) {
+}
@@ -0,0 +1,14 @@
+package by.task.userservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Размер фильтра Блума по email: при {@code expectedInsertions} адресах доля ложных срабатываний
+ * не превышает {@code falsePositiveRate}, дальше растёт.
+ */
+@ConfigurationProperties(prefix = "users.email-filter")
+public record UserEmailFilterProperties(
+        @DefaultValue("1000000") long expectedInsertions,
+        @DefaultValue("0.01") double falsePositiveRate) {
+}
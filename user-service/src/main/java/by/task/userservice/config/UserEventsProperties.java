@@ -0,0 +1,72 @@
+package by.task.userservice.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "user-events")
+public record UserEventsProperties(
+        @DefaultValue("user-events") String topic,
+        @DefaultValue("3") int partitions,
+        @DefaultValue("1") short replicas,
+        @DefaultValue Outbox outbox,
+        @DefaultValue Producer producer,
+        @DefaultValue Snapshots snapshots) {
+
+    public record Outbox(
+            @DefaultValue("500") int batchSize,
+            @DefaultValue("500ms") Duration pollInterval,
+            @DefaultValue("30s") Duration sendTimeout) {
+    }
+
+    /**
+     * Компактируемый топик с последним состоянием каждого пользователя. Tombstone удалённого пользователя
+     * хранится {@code tombstoneRetention} после компакции, чтобы его успели прочитать отстающие потребители.
+     */
+    public record Snapshots(
+            @DefaultValue("user-snapshots") String topic,
+            @DefaultValue("1000") int bootstrapBatchSize,
+            @DefaultValue("1d") Duration tombstoneRetention) {
+    }
+
+    /**
+     * Настройки продюсера событий поверх {@code spring.kafka.producer}. Порядок событий одного
+     * пользователя держится на ключе и на повторах без перестановок: с идемпотентностью брокер
+     * сохраняет порядок при {@code maxInFlight <= 5}, без неё — только при одном запросе в полёте.
+     * Сочетания, которые могут переставить события при повторе, отклоняются при старте.
+     */
+    public record Producer(
+            @DefaultValue("131072") int batchSize,
+            @DefaultValue("20ms") Duration linger,
+            @DefaultValue("lz4") String compression,
+            @DefaultValue("5") int maxInFlight,
+            @DefaultValue("true") boolean idempotence) {
+
+        public static final int MAX_IN_FLIGHT_WITH_IDEMPOTENCE = 5;
+
+        public Producer {
+            if (maxInFlight < 1
+                    || (idempotence && maxInFlight > MAX_IN_FLIGHT_WITH_IDEMPOTENCE)
+                    || (!idempotence && maxInFlight > 1)) {
+                throw new IllegalArgumentException("max-in-flight=" + maxInFlight + " с idempotence=" + idempotence
+                        + " не сохраняет порядок событий: допустимо до " + MAX_IN_FLIGHT_WITH_IDEMPOTENCE
+                        + " с идемпотентностью или 1 без неё");
+            }
+        }
+
+        public Map<String, Object> toProducerConfig() {
+            Map<String, Object> config = new HashMap<>();
+            config.put(ProducerConfig.ACKS_CONFIG, "all");
+            config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+            config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlight);
+            config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+            config.put(ProducerConfig.LINGER_MS_CONFIG, String.valueOf(linger.toMillis()));
+            config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+            return config;
+        }
+    }
+}
@@ -1,11 +1,34 @@
 package by.task.userservice.controller;
 
+import by.task.userservice.config.UserBulkProperties;
+import by.task.userservice.config.UserListingProperties;
+import by.task.userservice.dto.BulkUserResultDTO;
+import by.task.userservice.dto.UserField;
+import by.task.userservice.dto.UserFieldsDTO;
+import by.task.userservice.dto.UserFieldsPageDTO;
+import by.task.userservice.dto.UserFilter;
+import by.task.userservice.dto.UserPageDTO;
 import by.task.userservice.dto.UserRequestDTO;
 import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.exception.service.InvalidUserException;
+import by.task.userservice.exception.service.UserVersionMismatchException;
+import by.task.userservice.service.UserBulkService;
 import by.task.userservice.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,50 +36,264 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final UserService userService;
+    private final UserBulkService userBulkService;
+    private final UserListingProperties listingProperties;
+    private final UserBulkProperties bulkProperties;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader idReader;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectWriter ndjsonFieldsWriter;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserBulkService userBulkService,
+                          UserListingProperties listingProperties, UserBulkProperties bulkProperties,
+                          ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userBulkService = userBulkService;
+        this.listingProperties = listingProperties;
+        this.bulkProperties = bulkProperties;
+        this.ndjsonReader = objectMapper.readerFor(UserRequestDTO.class);
+        this.idReader = objectMapper.readerFor(Long.class);
+        this.ndjsonWriter = ndjsonWriter(objectMapper, UserResponseDTO.class);
+        this.ndjsonFieldsWriter = ndjsonWriter(objectMapper, UserFieldsDTO.class);
     }
 
     @PostMapping
     public ResponseEntity<UserResponseDTO> createUser(@Valid @RequestBody UserRequestDTO userDTO) {
         UserResponseDTO createdUser = userService.createUser(userDTO);
-        return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(eTag(createdUser.getVersion()))
+                .body(createdUser);
+    }
+
+    /**
+     * Массив читается поэлементно, как и NDJSON: запрос сверх {@code users.bulk.max-items} отклоняется,
+     * не дочитывая тело в память.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BulkUserResultDTO>> createUsers(InputStream body) throws IOException {
+        return ResponseEntity.ok(userBulkService.createUsers(readJsonArray(body, ndjsonReader)));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BulkUserResultDTO>> createUsersFromNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(userBulkService.createUsers(readNdjson(body)));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<List<BulkUserResultDTO>> deleteUsers(InputStream body) throws IOException {
+        return ResponseEntity.ok(userBulkService.deleteUsers(readJsonArray(body, idReader)));
+    }
+
+    @GetMapping("/by-email")
+    public ResponseEntity<UserResponseDTO> getUserByEmail(@RequestParam String email) {
+        UserResponseDTO user = userService.getUserByEmail(email);
+        return ResponseEntity.ok()
+                .eTag(eTag(user.getVersion()))
+                .body(user);
     }
 
+    /**
+     * При If-None-Match сначала сверяется только версия: на 304 DTO не собирается и не сериализуется.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponseDTO> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserResponseDTO> getUserById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(eTag(userService.getUserVersion(id)))) {
+            return null;
+        }
         UserResponseDTO user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok()
+                .eTag(eTag(user.getVersion()))
+                .body(user);
     }
 
+    /**
+     * Фильтры {@code minAge}, {@code maxAge}, {@code createdAfter}, {@code emailDomain} связываются
+     * в {@link UserFilter} и выполняются в SQL.
+     */
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        List<UserResponseDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserResponseDTO>> getAllUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            UserFilter filter) {
+        UserPageDTO page = userService.getUsersPage(after, listingProperties.clampPageSize(size), filter);
+        return withNextCursor(page.getNextCursor()).body(page.getItems());
+    }
+
+    /**
+     * Только перечисленные в {@code fields} колонки, например {@code fields=id,email}.
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<UserFieldsDTO>> getUserFields(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam String fields,
+            UserFilter filter) {
+        UserFieldsPageDTO page = userService.getUserFieldsPage(after, listingProperties.clampPageSize(size), filter,
+                UserField.parse(fields));
+        return withNextCursor(page.nextCursor()).body(page.items());
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(UserFilter filter) {
+        return UserController.<UserResponseDTO>ndjson(ndjsonWriter,
+                consumer -> userService.streamAllUsers(filter, consumer));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE, params = "fields")
+    public ResponseEntity<StreamingResponseBody> streamUserFields(@RequestParam String fields, UserFilter filter) {
+        Set<UserField> requestedFields = UserField.parse(fields);
+        return UserController.<UserFieldsDTO>ndjson(ndjsonFieldsWriter,
+                consumer -> userService.streamUserFields(filter, requestedFields, consumer));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<UserResponseDTO> updateUser(
             @PathVariable Long id,
-            @Valid @RequestBody UserRequestDTO userDTO) {
-        UserResponseDTO updatedUser = userService.updateUser(id, userDTO);
-        return ResponseEntity.ok(updatedUser);
+            @Valid @RequestBody UserRequestDTO userDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserResponseDTO updatedUser = userService.updateUser(id, userDTO, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok()
+                .eTag(eTag(updatedUser.getVersion()))
+                .body(updatedUser);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        userService.deleteUser(id);
+    public ResponseEntity<Void> deleteUser(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        userService.deleteUser(id, expectedVersion(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity.BodyBuilder withNextCursor(Long nextCursor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(nextCursor));
+        }
+        return response;
+    }
+
+    /**
+     * Тело NDJSON: {@code source} передаёт строки в потребителя, каждая пишется сразу в выходной поток.
+     */
+    private static <T> ResponseEntity<StreamingResponseBody> ndjson(ObjectWriter writer,
+                                                                    Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = writer.createGenerator(outputStream);
+            try {
+                source.accept(item -> writeLine(writer, generator, item));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (generator.getOutputContext().getEntryCount() > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static ObjectWriter ndjsonWriter(ObjectMapper objectMapper, Class<?> type) {
+        return objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+    }
+
+    private static String eTag(long version) {
+        return ETag.quoteETagIfNecessary(String.valueOf(version));
+    }
+
+    /**
+     * Версия из If-Match: {@code null} без заголовка или для {@code *}. Поддерживается один сильный ETag;
+     * слабый, чужой ETag или список значений считаются несовпадением и дают 412 без обращения к базе.
+     */
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.size() == 1 && tags.get(0).isWildcard()) {
+            return null;
+        }
+        if (tags.size() == 1 && !tags.get(0).weak()) {
+            try {
+                return Long.valueOf(tags.get(0).tag());
+            } catch (NumberFormatException ignored) {
+                // не наш ETag — совпасть не может
+            }
+        }
+        throw new UserVersionMismatchException(id);
+    }
+
+    private List<UserRequestDTO> readNdjson(InputStream body) throws IOException {
+        List<UserRequestDTO> userDTOs = new ArrayList<>();
+        try (MappingIterator<UserRequestDTO> lines = ndjsonReader.readValues(body)) {
+            while (lines.hasNextValue()) {
+                checkItemCount(userDTOs.size());
+                userDTOs.add(lines.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidUserException("Некорректный NDJSON: " + e.getOriginalMessage(), e);
+        }
+        return userDTOs;
+    }
+
+    private <T> List<T> readJsonArray(InputStream body, ObjectReader reader) throws IOException {
+        List<T> items = new ArrayList<>();
+        try (JsonParser parser = reader.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidUserException("Ожидается JSON-массив");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new InvalidUserException("Некорректный JSON: массив не закрыт");
+                }
+                checkItemCount(items.size());
+                items.add(reader.readValue(parser));
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidUserException("Некорректный JSON: " + e.getOriginalMessage(), e);
+        }
+        return items;
+    }
+
+    private void checkItemCount(int read) {
+        if (read == bulkProperties.maxItems()) {
+            throw new InvalidUserException("Слишком много элементов в запросе: максимум " + bulkProperties.maxItems());
+        }
+    }
+
+    private static void writeLine(ObjectWriter writer, JsonGenerator generator, Object item) {
+        try {
+            writer.writeValue(generator, item);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
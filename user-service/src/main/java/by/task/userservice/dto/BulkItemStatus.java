@@ -0,0 +1,10 @@
+package by.task.userservice.dto;
+
+public enum BulkItemStatus {
+    CREATED,
+    DELETED,
+    INVALID,
+    DUPLICATE,
+    NOT_FOUND,
+    FAILED
+}
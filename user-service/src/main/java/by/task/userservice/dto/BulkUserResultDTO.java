@@ -0,0 +1,60 @@
+package by.task.userservice.dto;
+
+public class BulkUserResultDTO {
+    private int index;
+    private BulkItemStatus status;
+    private Long id;
+    private String email;
+    private String error;
+
+    public BulkUserResultDTO() {
+    }
+
+    public BulkUserResultDTO(int index, BulkItemStatus status, Long id, String email, String error) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.email = email;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public BulkItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BulkItemStatus status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
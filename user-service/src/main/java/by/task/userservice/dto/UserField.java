@@ -0,0 +1,57 @@
+package by.task.userservice.dto;
+
+import by.task.userservice.exception.service.InvalidUserException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Поля пользователя, которые можно запросить параметром {@code fields}. Имя поля совпадает
+ * с именем в JSON-ответе и с атрибутом сущности.
+ */
+public enum UserField {
+    ID("id"),
+    NAME("name"),
+    EMAIL("email"),
+    AGE("age"),
+    CREATED_AT("createdAt"),
+    VERSION("version");
+
+    private final String attribute;
+
+    UserField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Разбирает список вида {@code id,email}.
+     *
+     * @throws InvalidUserException для неизвестного поля или пустого списка
+     */
+    public static Set<UserField> parse(String fields) {
+        Set<UserField> result = EnumSet.noneOf(UserField.class);
+        for (String name : fields.split(",")) {
+            String attribute = name.strip();
+            if (!attribute.isEmpty()) {
+                result.add(fromAttribute(attribute));
+            }
+        }
+        if (result.isEmpty()) {
+            throw new InvalidUserException("Не указаны поля пользователя");
+        }
+        return result;
+    }
+
+    private static UserField fromAttribute(String attribute) {
+        for (UserField field : values()) {
+            if (field.attribute.equals(attribute)) {
+                return field;
+            }
+        }
+        throw new InvalidUserException("Неизвестное поле пользователя: " + attribute);
+    }
+}
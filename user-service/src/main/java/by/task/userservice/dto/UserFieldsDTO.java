@@ -0,0 +1,20 @@
+package by.task.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция пользователя из запрошенных колонок: незапрошенные поля остаются {@code null}
+ * и не попадают в JSON. Все колонки пользователя NOT NULL, поэтому {@code null} однозначно
+ * означает «не запрашивалось». {@code id} есть всегда: по нему строится курсор.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserFieldsDTO(
+        Long id,
+        String name,
+        String email,
+        Integer age,
+        LocalDateTime createdAt,
+        Long version) {
+}
@@ -0,0 +1,9 @@
+package by.task.userservice.dto;
+
+import java.util.List;
+
+/**
+ * Страница проекций пользователей; {@code nextCursor} — как в {@link UserPageDTO}.
+ */
+public record UserFieldsPageDTO(List<UserFieldsDTO> items, Long nextCursor) {
+}
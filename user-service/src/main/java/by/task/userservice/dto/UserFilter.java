@@ -0,0 +1,36 @@
+package by.task.userservice.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Условия выборки пользователей из параметров запроса; {@code null} — условие не задано.
+ * Возраст ограничивается включительно, дата создания — строго после {@code createdAfter}.
+ * Домен email приводится к тому же виду, что и сохранённые адреса.
+ */
+public record UserFilter(
+        Integer minAge,
+        Integer maxAge,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+        String emailDomain) {
+
+    public static final UserFilter NONE = new UserFilter(null, null, null, null);
+
+    public UserFilter {
+        if (emailDomain != null) {
+            emailDomain = emailDomain.strip().toLowerCase(Locale.ROOT);
+            if (emailDomain.startsWith("@")) {
+                emailDomain = emailDomain.substring(1);
+            }
+            if (emailDomain.isEmpty()) {
+                emailDomain = null;
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return minAge == null && maxAge == null && createdAfter == null && emailDomain == null;
+    }
+}
@@ -0,0 +1,99 @@
+package by.task.userservice.email;
+
+import by.task.userservice.config.UserEmailFilterProperties;
+import by.task.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Предварительная проверка занятости email без обращения к базе.
+ * Фильтр заполняется из таблицы после старта и дополняется при создании пользователей этим экземпляром
+ * и по событиям user-events от остальных. Пока заполнение не закончено, любой адрес считается
+ * возможно занятым, и решение принимает база. Пропущенное событие даёт лишь ложноотрицательный ответ
+ * фильтра, после которого дубликат всё равно отклонит уникальный индекс.
+ */
+@Component
+public class EmailFilter {
+    public static final String CHECKS_METRIC = "users.email.filter.checks";
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailFilter.class);
+
+    private final UserRepository userRepository;
+    private final EmailBloomFilter filter;
+    private final LongAdder insertions = new LongAdder();
+    private final Counter absentChecks;
+    private final Counter maybeChecks;
+    private final Counter warmingChecks;
+    private volatile boolean ready;
+
+    @Autowired
+    public EmailFilter(UserRepository userRepository, UserEmailFilterProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.filter = new EmailBloomFilter(properties.expectedInsertions(), properties.falsePositiveRate());
+        this.absentChecks = checksCounter(meterRegistry, "absent");
+        this.maybeChecks = checksCounter(meterRegistry, "maybe");
+        this.warmingChecks = checksCounter(meterRegistry, "warming");
+        meterRegistry.gauge("users.email.filter.insertions", insertions, LongAdder::doubleValue);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long started = System.nanoTime();
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(this::add);
+        } catch (DataAccessException e) {
+            logger.error("Email filter warm-up failed, duplicate checks will query the database", e);
+            return;
+        }
+        ready = true;
+        logger.info("Email filter warmed up with {} emails in {} ms ({} bits, {} hashes)", insertions.sum(),
+                (System.nanoTime() - started) / 1_000_000, filter.bitCount(), filter.hashCount());
+    }
+
+    /**
+     * @return {@code false}, только если адрес точно не занят
+     */
+    public boolean mightExist(String email) {
+        if (!ready) {
+            warmingChecks.increment();
+            return true;
+        }
+        if (filter.mightContain(email)) {
+            maybeChecks.increment();
+            return true;
+        }
+        absentChecks.increment();
+        return false;
+    }
+
+    public void add(String email) {
+        if (email != null) {
+            filter.put(email);
+            insertions.increment();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private static Counter checksCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(CHECKS_METRIC)
+                .description("Duplicate-email pre-checks by filter answer")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package by.task.userservice.event;
+
+import by.task.userevents.UserEvent;
+import by.task.userservice.config.UserEventsProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Отправляет события в топик user-events с ключом — id пользователя. Все события одного пользователя
+ * попадают в одну партицию и читаются в порядке отправки, а разные пользователи распределяются
+ * по партициям хешем ключа.
+ */
+@Component
+public class UserEventPublisher {
+    private final KafkaTemplate<String, UserEvent> kafkaTemplate;
+    private final String topic;
+
+    @Autowired
+    public UserEventPublisher(KafkaTemplate<String, UserEvent> kafkaTemplate, UserEventsProperties properties) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = properties.topic();
+    }
+
+    public CompletableFuture<SendResult<String, UserEvent>> publish(UserEvent event) {
+        return kafkaTemplate.send(topic, partitionKey(event), event);
+    }
+
+    /**
+     * Отправляет накопленные батчи, не дожидаясь {@code linger}.
+     */
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+
+    public static String partitionKey(UserEvent event) {
+        return String.valueOf(event.getUserId());
+    }
+}
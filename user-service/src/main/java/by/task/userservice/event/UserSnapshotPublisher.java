@@ -0,0 +1,62 @@
+package by.task.userservice.event;
+
+import by.task.userservice.config.UserEventsProperties;
+import by.task.userservice.dto.UserResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Отправляет снимки пользователей в компактируемый топик user-snapshots с ключом — id пользователя.
+ * После компакции в топике остаётся последнее состояние каждого пользователя, удалённому пользователю
+ * соответствует tombstone — запись без значения. Значение — {@link UserResponseDTO} в том же JSON, что отдаёт REST API.
+ * <p>
+ * Продюсер собирается из настроек продюсера событий ({@code spring.kafka.producer} и {@code user-events.producer}),
+ * отличается только сериализатор значения.
+ */
+@Component
+public class UserSnapshotPublisher implements DisposableBean {
+    private final KafkaTemplate<String, UserResponseDTO> kafkaTemplate;
+    private final String topic;
+
+    @Autowired
+    public UserSnapshotPublisher(ProducerFactory<?, ?> producerFactory, ObjectMapper objectMapper,
+                                 UserEventsProperties properties) {
+        this(new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerFactory.getConfigurationProperties(),
+                new StringSerializer(), new JsonSerializer<UserResponseDTO>(objectMapper).noTypeInfo())), properties);
+    }
+
+    public UserSnapshotPublisher(KafkaTemplate<String, UserResponseDTO> kafkaTemplate,
+                                 UserEventsProperties properties) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = properties.snapshots().topic();
+    }
+
+    public CompletableFuture<SendResult<String, UserResponseDTO>> publish(UserResponseDTO snapshot) {
+        return kafkaTemplate.send(topic, String.valueOf(snapshot.getId()), snapshot);
+    }
+
+    public CompletableFuture<SendResult<String, UserResponseDTO>> publishTombstone(Long userId) {
+        return kafkaTemplate.send(topic, String.valueOf(userId), null);
+    }
+
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (kafkaTemplate.getProducerFactory() instanceof DisposableBean producerFactory) {
+            producerFactory.destroy();
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package by.task.userservice.exception;
 
+import by.task.userservice.exception.service.DuplicateEmailException;
 import by.task.userservice.exception.service.EmptyUserListException;
 import by.task.userservice.exception.service.InvalidUserException;
 import by.task.userservice.exception.service.UserNotFoundException;
+import by.task.userservice.exception.service.UserVersionMismatchException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -27,6 +36,27 @@ public class GlobalExceptionHandler {
         return errorResponse(ex.getMessage());
     }
 
+    @ExceptionHandler(DuplicateEmailException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleDuplicateEmail(DuplicateEmailException ex) {
+        return errorResponse(ex.getMessage());
+    }
+
+    /**
+     * Срабатывает, когда дубликат email прошёл предварительную проверку (гонка создания или изменение email).
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return errorResponse("Данные конфликтуют с существующим пользователем");
+    }
+
+    @ExceptionHandler(UserVersionMismatchException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public Map<String, String> handleVersionMismatch(UserVersionMismatchException ex) {
+        return errorResponse(ex.getMessage());
+    }
+
     @ExceptionHandler({InvalidUserException.class, MethodArgumentNotValidException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleValidationExceptions(Exception ex) {
@@ -39,6 +69,18 @@ public class GlobalExceptionHandler {
         return errorResponse(ex.getMessage());
     }
 
+    /**
+     * База недоступна или перегружена: breaker открыт, bulkhead заполнен, соединение не получено.
+     * Клиент сразу получает 503 и может повторить запрос позже.
+     */
+    @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class,
+            CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            TransientDataAccessResourceException.class, QueryTimeoutException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> handleServiceUnavailable(Exception ex) {
+        return errorResponse("Сервис временно недоступен, повторите запрос позже");
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Map<String, String> handleGeneralExceptions(Exception ex) {
@@ -0,0 +1,55 @@
+package by.task.userservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Пропускает только долю {@code rate} INFO-сообщений логгера {@code loggerName} — логгера, который пишет
+ * по сообщению на запрос. Разовые INFO других классов того же пакета (начало и конец пакетных операций,
+ * выгрузки снимков) проходят все.
+ * Турбофильтр срабатывает до создания события, поэтому отброшенное сообщение не форматируется
+ * и не попадает в очередь аппендера. WARN и ERROR, а также другие логгеры не затрагиваются.
+ * <p>
+ * Подключается в {@code logback-spring.xml}:
+ * <pre>
+ * &lt;turboFilter class="by.task.userservice.logging.SamplingTurboFilter"&gt;
+ *     &lt;loggerName&gt;by.task.userservice.service.UserService&lt;/loggerName&gt;
+ *     &lt;rate&gt;0.01&lt;/rate&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private String loggerName = "";
+    private double rate = 1.0;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (level != Level.INFO || !isStarted() || !logger.getName().equals(loggerName)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (rate < 0.0 || rate > 1.0) {
+            addError("Sampling rate must be within [0, 1], got " + rate);
+            return;
+        }
+        super.start();
+    }
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+}
@@ -12,11 +12,13 @@ public interface UserMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     User toEntity(UserRequestDTO dto);
 
     UserResponseDTO toDTO(User user);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDTO(UserRequestDTO dto, @MappingTarget User user);
 }
\ No newline at end of file
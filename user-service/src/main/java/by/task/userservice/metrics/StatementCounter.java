@@ -0,0 +1,33 @@
+package by.task.userservice.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-выражения, которые Hibernate готовит в текущем потоке между {@link #start()} и {@link #stop()}.
+ * Вне этого окна выражения не считаются, поэтому счётчик ничего не стоит фоновым задачам.
+ */
+public class StatementCounter implements StatementInspector {
+    private final ThreadLocal<int[]> counter = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = counter.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        counter.set(new int[1]);
+    }
+
+    /**
+     * @return число выражений с момента {@link #start()} или {@code 0}, если счёт не начинался
+     */
+    public int stop() {
+        int[] count = counter.get();
+        counter.remove();
+        return count == null ? 0 : count[0];
+    }
+}
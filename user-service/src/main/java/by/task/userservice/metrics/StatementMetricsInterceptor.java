@@ -0,0 +1,53 @@
+package by.task.userservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Пишет число SQL-выражений на HTTP-запрос в {@code hibernate.statements.per.request}
+ * с теми же тегами {@code method} и {@code uri}, что у {@code http.server.requests}.
+ * Для асинхронных запросов учитывается только поток обработчика, выражения
+ * потоковой выгрузки NDJSON сюда не попадают.
+ */
+public class StatementMetricsInterceptor implements AsyncHandlerInterceptor {
+    public static final String METRIC_NAME = "hibernate.statements.per.request";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+
+    public StatementMetricsInterceptor(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statementCounter.start();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        statementCounter.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        int statements = statementCounter.stop();
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC_NAME)
+                .description("SQL statements prepared by Hibernate per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri != null ? uri.toString() : UNKNOWN_URI)
+                .register(meterRegistry)
+                .record(statements);
+    }
+}
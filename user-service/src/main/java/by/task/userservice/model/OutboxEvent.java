@@ -0,0 +1,110 @@
+package by.task.userservice.model;
+
+import by.task.userevents.UserEventType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие жизненного цикла пользователя, записанное в той же транзакции, что и изменение {@link User}.
+ * Строки отправляются в Kafka и удаляются фоновым {@code OutboxRelay} в порядке возрастания id.
+ * <p>
+ * Id выдаётся последовательностью по одному, без блоков на экземпляр: событие пользователя пишется после
+ * блокировки его строки, поэтому следующее событие того же пользователя из любого экземпляра получает
+ * больший id, и relay отправляет их в порядке изменений.
+ */
+@Entity
+@Table(name = "user_outbox")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_outbox_seq")
+    @SequenceGenerator(name = "user_outbox_seq", sequenceName = "user_outbox_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private UserEventType operation;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name = "created_at", updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(Long userId, UserEventType operation, String email) {
+        this.userId = userId;
+        this.operation = operation;
+        this.email = email;
+    }
+
+    @PrePersist
+    private void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public UserEventType getOperation() {
+        return operation;
+    }
+
+    public void setOperation(UserEventType operation) {
+        this.operation = operation;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", operation=" + operation +
+                ", email='" + email + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
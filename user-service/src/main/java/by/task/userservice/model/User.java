@@ -5,16 +5,25 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_email_domain_id", columnList = "email_domain, id"),
+        @Index(name = "idx_users_age", columnList = "age"),
+        @Index(name = "idx_users_created_at", columnList = "created_at")
+})
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -29,6 +38,23 @@ public class User {
     @Column(name = "created_at", updatable = false, nullable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * Домен email для фильтра по домену. Колонку вычисляет сама база, поэтому её не пишут ни сущность,
+     * ни нативные UPDATE, ни реактивный вариант сервиса. После вставки в сущности остаётся {@code null}.
+     */
+    @Column(name = "email_domain", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) GENERATED ALWAYS AS (split_part(email, '@', 2)) STORED")
+    private String emailDomain;
+
+    /**
+     * Версия для оптимистической блокировки и ETag. Значение по умолчанию нужно,
+     * чтобы миграция смогла добавить колонку в уже заполненную таблицу.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public User() {
     }
 
@@ -83,6 +109,18 @@ public class User {
         this.createdAt = createdAt;
     }
 
+    public String getEmailDomain() {
+        return emailDomain;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "User{" +
@@ -91,6 +129,7 @@ public class User {
                 ", email='" + email + '\'' +
                 ", age=" + age +
                 ", createdAt=" + createdAt +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package by.task.userservice.repository;
+
+import by.task.userservice.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findAllByOrderByIdAsc(Limit limit);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e")
+    LocalDateTime findOldestCreatedAt();
+
+    /**
+     * Транзакционная advisory-блокировка PostgreSQL: outbox разгружает только один экземпляр сервиса,
+     * иначе события одного пользователя могли бы уйти в Kafka не по порядку.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAcquireRelayLock(@Param("key") long key);
+
+    /**
+     * Та же блокировка, что и {@link #tryAcquireRelayLock}, но с ожиданием: выгрузка снимков встаёт в очередь
+     * за текущей пачкой relay, а не пропускает свою.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    int acquireRelayLock(@Param("key") long key);
+}
@@ -0,0 +1,31 @@
+package by.task.userservice.repository;
+
+import by.task.userservice.dto.UserField;
+import by.task.userservice.dto.UserFieldsDTO;
+import by.task.userservice.dto.UserFilter;
+import by.task.userservice.model.User;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Выборки пользователей с фильтром из параметров запроса. Все они упорядочены по id
+ * и читают страницы по ключу, как {@link UserRepository#findByIdGreaterThanOrderByIdAsc}.
+ */
+public interface UserQueryRepository {
+
+    List<User> findPage(UserFilter filter, long afterId, int limit);
+
+    Stream<User> streamAll(UserFilter filter);
+
+    /**
+     * Читает только колонки {@code fields} (и {@code id}) без создания сущностей.
+     */
+    List<UserFieldsDTO> findFieldsPage(UserFilter filter, Set<UserField> fields, long afterId, int limit);
+
+    /**
+     * Как {@link #findFieldsPage}, но курсором JDBC по всей выборке.
+     */
+    Stream<UserFieldsDTO> streamFields(UserFilter filter, Set<UserField> fields);
+}
@@ -0,0 +1,124 @@
+package by.task.userservice.repository;
+
+import by.task.userservice.dto.UserField;
+import by.task.userservice.dto.UserFieldsDTO;
+import by.task.userservice.dto.UserFilter;
+import by.task.userservice.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Реализация на Criteria API: в SQL попадают только заданные условия, поэтому каждое
+ * из них может использовать свой индекс ({@code idx_users_email_domain_id}, {@code idx_users_age},
+ * {@code idx_users_created_at}). Проекции выбираются как {@link Tuple} и в контекст
+ * персистентности не попадают.
+ */
+public class UserQueryRepositoryImpl implements UserQueryRepository {
+    private static final String ID = UserField.ID.getAttribute();
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public UserQueryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<User> findPage(UserFilter filter, long afterId, int limit) {
+        return entityManager.createQuery(entityQuery(filter, afterId))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<User> streamAll(UserFilter filter) {
+        return entityManager.createQuery(entityQuery(filter, 0L))
+                .setHint(HINT_FETCH_SIZE, Integer.valueOf(UserRepository.STREAM_FETCH_SIZE))
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<UserFieldsDTO> findFieldsPage(UserFilter filter, Set<UserField> fields, long afterId, int limit) {
+        return entityManager.createQuery(fieldsQuery(filter, fields, afterId))
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> toFields(tuple, fields))
+                .toList();
+    }
+
+    @Override
+    public Stream<UserFieldsDTO> streamFields(UserFilter filter, Set<UserField> fields) {
+        return entityManager.createQuery(fieldsQuery(filter, fields, 0L))
+                .setHint(HINT_FETCH_SIZE, Integer.valueOf(UserRepository.STREAM_FETCH_SIZE))
+                .getResultStream()
+                .map(tuple -> toFields(tuple, fields));
+    }
+
+    private CriteriaQuery<User> entityQuery(UserFilter filter, long afterId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = cb.createQuery(User.class);
+        Root<User> user = query.from(User.class);
+        return query.where(predicates(cb, user, filter, afterId))
+                .orderBy(cb.asc(user.get(ID)));
+    }
+
+    private CriteriaQuery<Tuple> fieldsQuery(UserFilter filter, Set<UserField> fields, long afterId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        List<Selection<?>> selections = new ArrayList<>(fields.size() + 1);
+        selections.add(user.get(ID).alias(ID));
+        for (UserField field : fields) {
+            if (field != UserField.ID) {
+                selections.add(user.get(field.getAttribute()).alias(field.getAttribute()));
+            }
+        }
+        return query.multiselect(selections)
+                .where(predicates(cb, user, filter, afterId))
+                .orderBy(cb.asc(user.get(ID)));
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, Root<User> user, UserFilter filter, long afterId) {
+        List<Predicate> predicates = new ArrayList<>(5);
+        predicates.add(cb.greaterThan(user.get(ID), afterId));
+        if (filter.minAge() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(user.get("age"), filter.minAge()));
+        }
+        if (filter.maxAge() != null) {
+            predicates.add(cb.lessThanOrEqualTo(user.get("age"), filter.maxAge()));
+        }
+        if (filter.createdAfter() != null) {
+            predicates.add(cb.greaterThan(user.<LocalDateTime>get("createdAt"), filter.createdAfter()));
+        }
+        if (filter.emailDomain() != null) {
+            predicates.add(cb.equal(user.get("emailDomain"), filter.emailDomain()));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static UserFieldsDTO toFields(Tuple tuple, Set<UserField> fields) {
+        return new UserFieldsDTO(
+                tuple.get(ID, Long.class),
+                fields.contains(UserField.NAME) ? tuple.get("name", String.class) : null,
+                fields.contains(UserField.EMAIL) ? tuple.get("email", String.class) : null,
+                fields.contains(UserField.AGE) ? tuple.get("age", Integer.class) : null,
+                fields.contains(UserField.CREATED_AT) ? tuple.get("createdAt", LocalDateTime.class) : null,
+                fields.contains(UserField.VERSION) ? tuple.get("version", Long.class) : null);
+    }
+}
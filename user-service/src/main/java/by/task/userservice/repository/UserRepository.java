@@ -1,9 +1,90 @@
 package by.task.userservice.repository;
 
 import by.task.userservice.model.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-}
\ No newline at end of file
+public interface UserRepository extends JpaRepository<User, Long>, UserQueryRepository {
+
+    String STREAM_FETCH_SIZE = "500";
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAllOrderById();
+
+    Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    @Query("SELECT u.email FROM User u")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<String> streamAllEmails();
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Заменяет поля пользователя, увеличивает версию и пишет событие UPDATED в outbox одним выражением,
+     * без предварительного SELECT. Id события берётся из {@code user_outbox_seq} напрямую, так же
+     * как у Hibernate для {@code OutboxEvent}: по одному значению, в порядке изменений пользователя.
+     *
+     * @param expectedVersion версия из If-Match или {@code null}, если версию проверять не нужно
+     * @return обновлённый пользователь или пустой Optional, если пользователя нет или версия не совпала
+     */
+    @Query(value = """
+            WITH updated AS (
+                UPDATE users SET name = :name, email = :email, age = :age, version = version + 1
+                WHERE id = :id AND (CAST(:expectedVersion AS bigint) IS NULL OR version = :expectedVersion)
+                RETURNING *
+            ), event AS (
+                INSERT INTO user_outbox (id, user_id, operation, email, created_at)
+                SELECT nextval('user_outbox_seq'), id, 'UPDATED', email, :eventTime FROM updated
+            )
+            SELECT * FROM updated""", nativeQuery = true)
+    Optional<User> updateWithEvent(@Param("id") Long id, @Param("name") String name, @Param("email") String email,
+                                   @Param("age") Integer age, @Param("expectedVersion") Long expectedVersion,
+                                   @Param("eventTime") LocalDateTime eventTime);
+
+    /**
+     * Удаляет пользователя и пишет событие DELETED в outbox одним выражением, без предварительного SELECT.
+     *
+     * @param expectedVersion версия из If-Match или {@code null}, если версию проверять не нужно
+     * @return email удалённого пользователя или пустой Optional, если пользователя нет или версия не совпала
+     * @see #updateWithEvent
+     */
+    @Query(value = """
+            WITH deleted AS (
+                DELETE FROM users
+                WHERE id = :id AND (CAST(:expectedVersion AS bigint) IS NULL OR version = :expectedVersion)
+                RETURNING id, email
+            )
+            INSERT INTO user_outbox (id, user_id, operation, email, created_at)
+            SELECT nextval('user_outbox_seq'), id, 'DELETED', email, :eventTime FROM deleted
+            RETURNING email""", nativeQuery = true)
+    Optional<String> deleteWithEvent(@Param("id") Long id, @Param("expectedVersion") Long expectedVersion,
+                                     @Param("eventTime") LocalDateTime eventTime);
+}
@@ -0,0 +1,194 @@
+package by.task.userservice.service;
+
+import by.task.userevents.UserEvent;
+import by.task.userservice.config.ExecutionConfig;
+import by.task.userservice.config.ResilienceConfig;
+import by.task.userservice.config.UserEventsProperties;
+import by.task.userservice.event.UserEventPublisher;
+import by.task.userservice.event.UserSnapshotPublisher;
+import by.task.userservice.mapper.UserMapper;
+import by.task.userservice.model.OutboxEvent;
+import by.task.userservice.model.User;
+import by.task.userservice.repository.OutboxEventRepository;
+import by.task.userservice.repository.UserRepository;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Переносит события из таблицы outbox в топик user-events.
+ * Пачка отправляется целиком без ожидания каждой записи, поэтому продюсер успевает
+ * собрать её в крупные сжатые батчи; строки удаляются только после подтверждения брокером.
+ * <p>
+ * Вместе с событиями пачки в топик снимков уходит текущее состояние каждого её пользователя, прочитанное
+ * под блокировкой relay: несколько событий одного пользователя дают один снимок, удалённому пользователю
+ * соответствует tombstone. Снимок в топике не бывает старше предыдущего — более позднее изменение
+ * записывает новую строку outbox, и её снимок уйдёт следующей пачкой.
+ * <p>
+ * Отправка идёт через breaker {@link ResilienceConfig#KAFKA}: пока брокер недоступен, relay не ждёт
+ * таймаутов на каждой пачке, а события копятся в outbox и уходят после восстановления.
+ */
+@Component
+@Lazy(false)
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    static final long RELAY_LOCK_KEY = 0x5553455256454E54L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserEventPublisher publisher;
+    private final UserSnapshotPublisher snapshotPublisher;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final UserEventsProperties properties;
+    private final TaskExecutor callbackExecutor;
+    private final CircuitBreaker circuitBreaker;
+    private final Timer sendSuccessTimer;
+    private final Timer sendFailureTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       UserEventPublisher publisher,
+                       UserSnapshotPublisher snapshotPublisher,
+                       UserRepository userRepository,
+                       UserMapper userMapper,
+                       PlatformTransactionManager transactionManager,
+                       UserEventsProperties properties,
+                       @Qualifier(ExecutionConfig.KAFKA_CALLBACK_EXECUTOR) TaskExecutor callbackExecutor,
+                       CircuitBreakerRegistry circuitBreakerRegistry,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.publisher = publisher;
+        this.snapshotPublisher = snapshotPublisher;
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.callbackExecutor = callbackExecutor;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(ResilienceConfig.KAFKA);
+        this.sendSuccessTimer = sendTimer(meterRegistry, "success");
+        this.sendFailureTimer = sendTimer(meterRegistry, "failure");
+        this.batchSizeSummary = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Outbox events relayed per batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${user-events.outbox.poll-interval:500ms}")
+    public void relay() {
+        int batchSize = properties.outbox().batchSize();
+        int relayed;
+        try {
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch(batchSize));
+            } while (relayed == batchSize);
+        } catch (CallNotPermittedException e) {
+            logger.debug("Kafka circuit breaker is open, user events stay in outbox");
+        }
+    }
+
+    int relayBatch(int batchSize) {
+        if (!outboxEventRepository.tryAcquireRelayLock(RELAY_LOCK_KEY)) {
+            return 0;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        circuitBreaker.executeRunnable(() -> send(batch));
+
+        outboxEventRepository.deleteAllByIdInBatch(ids);
+        batchSizeSummary.record(ids.size());
+        logger.debug("Relayed {} user events to {}", ids.size(), properties.topic());
+        return batch.size();
+    }
+
+    private void send(List<OutboxEvent> batch) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            long startNanos = System.nanoTime();
+            sends.add(publisher.publish(toUserEvent(event))
+                    .whenCompleteAsync((result, ex) -> onSendComplete(event, ex, startNanos), callbackExecutor));
+        }
+        sends.addAll(publishSnapshots(batch));
+        publisher.flush();
+        snapshotPublisher.flush();
+        awaitAcknowledgements(sends);
+    }
+
+    private List<CompletableFuture<?>> publishSnapshots(List<OutboxEvent> batch) {
+        Set<Long> userIds = batch.stream()
+                .map(OutboxEvent::getUserId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<CompletableFuture<?>> sends = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            User user = users.get(userId);
+            sends.add(user == null
+                    ? snapshotPublisher.publishTombstone(userId)
+                    : snapshotPublisher.publish(userMapper.toDTO(user)));
+        }
+        return sends;
+    }
+
+    private void onSendComplete(OutboxEvent event, Throwable ex, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        (ex == null ? sendSuccessTimer : sendFailureTimer).record(elapsed, TimeUnit.NANOSECONDS);
+        if (ex != null) {
+            logger.warn("Failed to send outbox event ID: {} for user ID: {}", event.getId(), event.getUserId(), ex);
+        }
+    }
+
+    private void awaitAcknowledgements(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(properties.outbox().sendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while relaying outbox batch", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to relay outbox batch, will retry", e);
+        }
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("outbox.relay.send")
+                .description("Time from handing an outbox event to the producer until the broker ack")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private UserEvent toUserEvent(OutboxEvent event) {
+        return new UserEvent(event.getId(), event.getUserId(), event.getOperation(), event.getEmail());
+    }
+}
@@ -0,0 +1,300 @@
+package by.task.userservice.service;
+
+import by.task.userevents.UserEventType;
+import by.task.userservice.config.CacheConfig;
+import by.task.userservice.config.MetricsConfig;
+import by.task.userservice.config.ResilienceConfig;
+import by.task.userservice.config.UserBulkProperties;
+import by.task.userservice.dto.BulkItemStatus;
+import by.task.userservice.dto.BulkUserResultDTO;
+import by.task.userservice.dto.UserRequestDTO;
+import by.task.userservice.email.EmailFilter;
+import by.task.userservice.exception.service.InvalidUserException;
+import by.task.userservice.mapper.UserMapper;
+import by.task.userservice.model.User;
+import by.task.userservice.repository.UserRepository;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Массовое создание и удаление пользователей.
+ * Элементы обрабатываются порциями по {@code users.bulk.chunk-size}, каждая порция — отдельная транзакция
+ * с пакетной JDBC-вставкой; ошибка одной порции не откатывает уже сохранённые.
+ * <p>
+ * Операция занимает место в bulkhead'е {@link ResilienceConfig#USER_WRITES}, а каждая порция проходит через
+ * breaker {@link ResilienceConfig#POSTGRES} как отдельный вызов. Пока breaker открыт, запрос сразу получает
+ * {@link CallNotPermittedException}. Если breaker открылся посреди операции, оставшиеся порции не отправляются
+ * в базу и помечаются {@link BulkItemStatus#FAILED}.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class UserBulkService {
+    private static final Logger logger = LoggerFactory.getLogger(UserBulkService.class);
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final UserEventOutbox userEventOutbox;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final UserBulkProperties properties;
+    private final Cache usersCache;
+    private final EmailFilter emailFilter;
+    private final CircuitBreaker circuitBreaker;
+
+    @Autowired
+    public UserBulkService(UserRepository userRepository, UserMapper userMapper, UserEventOutbox userEventOutbox,
+                           Validator validator, EntityManager entityManager,
+                           PlatformTransactionManager transactionManager, UserBulkProperties properties,
+                           CacheManager cacheManager, EmailFilter emailFilter,
+                           CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.userEventOutbox = userEventOutbox;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        this.emailFilter = emailFilter;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(ResilienceConfig.POSTGRES);
+    }
+
+    @Bulkhead(name = ResilienceConfig.USER_WRITES)
+    public List<BulkUserResultDTO> createUsers(List<UserRequestDTO> requests) {
+        checkSize(requests.size());
+        checkDatabaseAvailable();
+        logger.info("Bulk creating {} users", requests.size());
+        BulkUserResultDTO[] results = new BulkUserResultDTO[requests.size()];
+        Set<String> seenEmails = new HashSet<>();
+        List<Integer> chunk = new ArrayList<>(properties.chunkSize());
+
+        for (int index = 0; index < requests.size(); index++) {
+            UserRequestDTO request = requests.get(index);
+            String error = validate(request);
+            if (error != null) {
+                results[index] = new BulkUserResultDTO(index, BulkItemStatus.INVALID, null,
+                        request == null ? null : request.getEmail(), error);
+            } else if (!seenEmails.add(request.getEmail())) {
+                results[index] = duplicate(index, request.getEmail());
+            } else {
+                chunk.add(index);
+                if (chunk.size() == properties.chunkSize()) {
+                    persistChunk(requests, chunk, results);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persistChunk(requests, chunk, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    @Bulkhead(name = ResilienceConfig.USER_WRITES)
+    public List<BulkUserResultDTO> deleteUsers(List<Long> ids) {
+        checkSize(ids.size());
+        checkDatabaseAvailable();
+        logger.info("Bulk deleting {} users", ids.size());
+        BulkUserResultDTO[] results = new BulkUserResultDTO[ids.size()];
+        Set<Long> seenIds = new HashSet<>();
+        List<Integer> chunk = new ArrayList<>(properties.chunkSize());
+
+        for (int index = 0; index < ids.size(); index++) {
+            Long id = ids.get(index);
+            if (id == null) {
+                results[index] = new BulkUserResultDTO(index, BulkItemStatus.INVALID, null, null, "ID is required");
+            } else if (!seenIds.add(id)) {
+                results[index] = new BulkUserResultDTO(index, BulkItemStatus.DUPLICATE, id, null,
+                        "ID повторяется в запросе");
+            } else {
+                chunk.add(index);
+                if (chunk.size() == properties.chunkSize()) {
+                    removeChunk(ids, chunk, results);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            removeChunk(ids, chunk, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Фильтр email узнаёт об адресах, занятых другими экземплярами, только из событий. Если он ответил
+     * «свободен», а адрес уже вставил другой экземпляр, порция падает на уникальном индексе; тогда она
+     * повторяется с проверкой по базе всех адресов порции, и такие адреса получают {@link BulkItemStatus#DUPLICATE}.
+     */
+    private void persistChunk(List<UserRequestDTO> requests, List<Integer> chunk, BulkUserResultDTO[] results) {
+        try {
+            List<BulkUserResultDTO> chunkResults;
+            try {
+                chunkResults = insertChunkInTransaction(requests, chunk, false);
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Bulk insert of {} users hit a taken email, retrying with database check", chunk.size());
+                chunkResults = insertChunkInTransaction(requests, chunk, true);
+            }
+            chunkResults.forEach(result -> results[result.getIndex()] = result);
+        } catch (CallNotPermittedException e) {
+            logger.debug("Postgres circuit breaker is open, skipping bulk insert of {} users", chunk.size());
+            chunk.forEach(index -> results[index] = failed(index, null, requests.get(index).getEmail()));
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Bulk insert of {} users failed", chunk.size(), e);
+            chunk.forEach(index -> results[index] = failed(index, null, requests.get(index).getEmail()));
+        }
+    }
+
+    private List<BulkUserResultDTO> insertChunkInTransaction(List<UserRequestDTO> requests, List<Integer> chunk,
+                                                             boolean checkAllEmails) {
+        return circuitBreaker.executeSupplier(
+                () -> transactionTemplate.execute(status -> insertChunk(requests, chunk, checkAllEmails)));
+    }
+
+    /**
+     * В запрос существующих email попадают только адреса, которые фильтр считает возможно занятыми
+     * (или все, если {@code checkAllEmails}); если таких в порции нет, запрос не выполняется.
+     */
+    private List<BulkUserResultDTO> insertChunk(List<UserRequestDTO> requests, List<Integer> chunk,
+                                                boolean checkAllEmails) {
+        List<String> candidateEmails = chunk.stream()
+                .map(index -> requests.get(index).getEmail())
+                .filter(email -> checkAllEmails || emailFilter.mightExist(email))
+                .toList();
+        Set<String> existingEmails = candidateEmails.isEmpty()
+                ? Set.of()
+                : userRepository.findExistingEmails(candidateEmails);
+
+        List<BulkUserResultDTO> chunkResults = new ArrayList<>(chunk.size());
+        List<Integer> insertedIndexes = new ArrayList<>(chunk.size());
+        List<User> users = new ArrayList<>(chunk.size());
+        for (int index : chunk) {
+            UserRequestDTO request = requests.get(index);
+            if (existingEmails.contains(request.getEmail())) {
+                chunkResults.add(duplicate(index, request.getEmail()));
+            } else {
+                users.add(userMapper.toEntity(request));
+                insertedIndexes.add(index);
+            }
+        }
+
+        userRepository.saveAll(users);
+        userEventOutbox.appendAll(UserEventType.CREATED, users);
+        entityManager.flush();
+        users.forEach(user -> emailFilter.add(user.getEmail()));
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            chunkResults.add(new BulkUserResultDTO(insertedIndexes.get(i), BulkItemStatus.CREATED,
+                    user.getId(), user.getEmail(), null));
+        }
+        entityManager.clear();
+        return chunkResults;
+    }
+
+    private void removeChunk(List<Long> ids, List<Integer> chunk, BulkUserResultDTO[] results) {
+        try {
+            List<BulkUserResultDTO> chunkResults = circuitBreaker.executeSupplier(
+                    () -> transactionTemplate.execute(status -> deleteChunk(ids, chunk)));
+            chunkResults.forEach(result -> results[result.getIndex()] = result);
+        } catch (CallNotPermittedException e) {
+            logger.debug("Postgres circuit breaker is open, skipping bulk delete of {} users", chunk.size());
+            chunk.forEach(index -> results[index] = failed(index, ids.get(index), null));
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Bulk delete of {} users failed", chunk.size(), e);
+            chunk.forEach(index -> results[index] = failed(index, ids.get(index), null));
+        }
+    }
+
+    private List<BulkUserResultDTO> deleteChunk(List<Long> ids, List<Integer> chunk) {
+        List<Long> chunkIds = chunk.stream()
+                .map(ids::get)
+                .toList();
+        List<User> users = userRepository.findAllById(chunkIds);
+        Map<Long, User> usersById = users.stream()
+                .collect(Collectors.toMap(User::getId, Function.identity(), (a, b) -> a, HashMap::new));
+
+        userRepository.deleteAllByIdInBatch(usersById.keySet());
+        userEventOutbox.appendAll(UserEventType.DELETED, users);
+        usersById.keySet().forEach(usersCache::evict);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BulkUserResultDTO> chunkResults = new ArrayList<>(chunk.size());
+        for (int index : chunk) {
+            Long id = ids.get(index);
+            User user = usersById.get(id);
+            chunkResults.add(user == null
+                    ? new BulkUserResultDTO(index, BulkItemStatus.NOT_FOUND, id, null,
+                    "Пользователь с ID " + id + " не найден")
+                    : new BulkUserResultDTO(index, BulkItemStatus.DELETED, id, user.getEmail(), null));
+        }
+        return chunkResults;
+    }
+
+    private String validate(UserRequestDTO request) {
+        if (request == null) {
+            return "User is required";
+        }
+        Set<ConstraintViolation<UserRequestDTO>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void checkSize(int size) {
+        if (size > properties.maxItems()) {
+            throw new InvalidUserException("Слишком много элементов в запросе: максимум " + properties.maxItems());
+        }
+    }
+
+    /**
+     * Пока breaker открыт, массовая операция отклоняется целиком, как и одиночные запросы.
+     * Состояние проверяется без захвата разрешения, чтобы не тратить пробные вызовы полуоткрытого breaker'а.
+     */
+    private void checkDatabaseAvailable() {
+        if (circuitBreaker.getState() == CircuitBreaker.State.OPEN
+                || circuitBreaker.getState() == CircuitBreaker.State.FORCED_OPEN) {
+            throw CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+        }
+    }
+
+    private BulkUserResultDTO duplicate(int index, String email) {
+        return new BulkUserResultDTO(index, BulkItemStatus.DUPLICATE, null, email,
+                "Пользователь с email " + email + " уже существует");
+    }
+
+    private BulkUserResultDTO failed(int index, Long id, String email) {
+        return new BulkUserResultDTO(index, BulkItemStatus.FAILED, id, email, "Не удалось сохранить изменения");
+    }
+}
@@ -0,0 +1,53 @@
+package by.task.userservice.service;
+
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventType;
+import by.task.userservice.config.CacheConfig;
+import by.task.userservice.email.EmailFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Сбрасывает локальный кэш пользователей по событиям из user-events, в том числе от других экземпляров,
+ * и дополняет фильтр email адресами созданных и изменённых пользователей.
+ * У каждого экземпляра своя consumer group, поэтому каждое событие получают все экземпляры.
+ */
+@Component
+@Lazy(false)
+public class UserCacheInvalidationListener {
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheInvalidationListener.class);
+
+    private final Cache usersCache;
+    private final EmailFilter emailFilter;
+
+    @Autowired
+    public UserCacheInvalidationListener(CacheManager cacheManager, EmailFilter emailFilter) {
+        this.usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        this.emailFilter = emailFilter;
+    }
+
+    @KafkaListener(
+            id = "user-cache-invalidation",
+            topics = "${user-events.topic}",
+            groupId = "user-service-cache-${random.uuid}",
+            properties = "auto.offset.reset=latest")
+    public void onUserEvent(UserEvent event) {
+        if (event == null || event.getUserId() == null) {
+            return;
+        }
+        if (event.getOperation() != UserEventType.DELETED) {
+            emailFilter.add(event.getEmail());
+        }
+        if (event.getOperation() == UserEventType.CREATED) {
+            return;
+        }
+        logger.debug("Evicting cached user ID: {} after {}", event.getUserId(), event.getOperation());
+        usersCache.evict(event.getUserId());
+    }
+}
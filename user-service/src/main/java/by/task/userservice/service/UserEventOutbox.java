@@ -0,0 +1,34 @@
+package by.task.userservice.service;
+
+import by.task.userevents.UserEventType;
+import by.task.userservice.model.OutboxEvent;
+import by.task.userservice.model.User;
+import by.task.userservice.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Component
+public class UserEventOutbox {
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    public UserEventOutbox(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(UserEventType operation, User user) {
+        outboxEventRepository.save(new OutboxEvent(user.getId(), operation, user.getEmail()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(UserEventType operation, List<User> users) {
+        outboxEventRepository.saveAll(users.stream()
+                .map(user -> new OutboxEvent(user.getId(), operation, user.getEmail()))
+                .toList());
+    }
+}
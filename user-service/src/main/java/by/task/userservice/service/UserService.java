@@ -1,44 +1,105 @@
 package by.task.userservice.service;
 
+import by.task.userevents.UserEventType;
+import by.task.userservice.config.CacheConfig;
+import by.task.userservice.config.DatabaseFailurePredicate;
+import by.task.userservice.config.MetricsConfig;
+import by.task.userservice.config.ResilienceConfig;
+import by.task.userservice.dto.UserField;
+import by.task.userservice.dto.UserFieldsDTO;
+import by.task.userservice.dto.UserFieldsPageDTO;
+import by.task.userservice.dto.UserFilter;
+import by.task.userservice.dto.UserPageDTO;
 import by.task.userservice.dto.UserRequestDTO;
 import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.email.EmailFilter;
+import by.task.userservice.exception.service.DuplicateEmailException;
 import by.task.userservice.exception.service.EmptyUserListException;
 import by.task.userservice.exception.service.InvalidUserException;
 import by.task.userservice.exception.service.UserNotFoundException;
+import by.task.userservice.exception.service.UserServiceException;
+import by.task.userservice.exception.service.UserVersionMismatchException;
 import by.task.userservice.mapper.UserMapper;
 import by.task.userservice.model.User;
 import by.task.userservice.repository.UserRepository;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * Обращения к базе идут через breaker {@link ResilienceConfig#POSTGRES} и bulkhead'ы чтения, записи и выгрузки:
+ * при недоступной базе запросы получают отказ сразу, а не ждут таймаута соединения.
+ * Событие пишется в outbox в той же транзакции, поэтому запрос не зависит от доступности Kafka.
+ */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserEventOutbox userEventOutbox;
+    private final EntityManager entityManager;
+    private final EmailFilter emailFilter;
+    private final Cache usersCache;
 
     @Autowired
-    public UserService(UserRepository userRepository, UserMapper userMapper) {
+    public UserService(UserRepository userRepository, UserMapper userMapper,
+                       UserEventOutbox userEventOutbox, EntityManager entityManager, EmailFilter emailFilter,
+                       CacheManager cacheManager) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.userEventOutbox = userEventOutbox;
+        this.entityManager = entityManager;
+        this.emailFilter = emailFilter;
+        this.usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
     }
 
+    /**
+     * Занятость email сначала проверяется фильтром, в базу идёт только его положительный ответ.
+     * Гонку двух одновременных созданий по-прежнему разрешает уникальный индекс.
+     */
+    @CircuitBreaker(name = ResilienceConfig.POSTGRES)
+    @Bulkhead(name = ResilienceConfig.USER_WRITES)
     @Transactional
     public UserResponseDTO createUser(UserRequestDTO userDTO) {
         logger.info("Creating new user: {}", userDTO.getEmail());
         User user = userMapper.toEntity(userDTO);
-        validateUser(user);
+        validateName(user.getName());
+        if (emailFilter.mightExist(user.getEmail()) && userRepository.existsByEmail(user.getEmail())) {
+            throw new DuplicateEmailException(user.getEmail());
+        }
         User savedUser = userRepository.save(user);
+        userEventOutbox.append(UserEventType.CREATED, savedUser);
+        emailFilter.add(savedUser.getEmail());
         return userMapper.toDTO(savedUser);
     }
 
+    /**
+     * Кэш проверяется до breaker'а, поэтому закэшированный пользователь отдаётся и при открытом breaker'е.
+     */
+    @CircuitBreaker(name = ResilienceConfig.POSTGRES)
+    @Bulkhead(name = ResilienceConfig.USER_READS)
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     @Transactional(readOnly = true)
     public UserResponseDTO getUserById(Long id) {
         logger.info("Fetching user by ID: {}", id);
@@ -47,42 +108,178 @@ public class UserService {
         return userMapper.toDTO(user);
     }
 
+    /**
+     * Поиск по email в нормализованном виде. Фильтр email здесь не используется: о пользователях, созданных
+     * или переименованных другими экземплярами, он узнаёт только из событий, и до них отвечал бы 404.
+     */
+    @CircuitBreaker(name = ResilienceConfig.POSTGRES)
+    @Bulkhead(name = ResilienceConfig.USER_READS)
+    @Transactional(readOnly = true)
+    public UserResponseDTO getUserByEmail(String email) {
+        String normalizedEmail = UserRequestDTO.normalizeEmail(email);
+        logger.info("Fetching user by email: {}", normalizedEmail);
+        User user = userRepository.findByEmail(normalizedEmail)
+                .orElseThrow(() -> new UserNotFoundException(normalizedEmail));
+        return userMapper.toDTO(user);
+    }
+
+    /**
+     * Текущая версия пользователя для проверки If-None-Match: читается одна колонка,
+     * без загрузки сущности и маппинга в DTO.
+     */
+    @CircuitBreaker(name = ResilienceConfig.POSTGRES, fallbackMethod = "getCachedUserVersion")
+    @Bulkhead(name = ResilienceConfig.USER_READS)
+    @Transactional(readOnly = true)
+    public long getUserVersion(Long id) {
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+    }
+
+    /**
+     * Страница пользователей по ключу: {@code afterId} — последний id предыдущей страницы.
+     * Запрашивается на одну запись больше, чтобы без COUNT понять, есть ли следующая страница.
+     * Пустая первая страница без фильтра означает пустую таблицу; с фильтром это обычный пустой ответ.
+     */
+    @CircuitBreaker(name = ResilienceConfig.POSTGRES)
+    @Bulkhead(name = ResilienceConfig.USER_READS)
     @Transactional(readOnly = true)
-    public List<UserResponseDTO> getAllUsers() {
-        logger.info("Fetching all users");
-        List<User> users = userRepository.findAll();
-        if (users.isEmpty()) {
+    public UserPageDTO getUsersPage(Long afterId, int size, UserFilter filter) {
+        logger.info("Fetching users page after ID: {}, size: {}, filter: {}", afterId, size, filter);
+        long cursor = afterId == null ? 0L : afterId;
+        List<User> users = filter.isEmpty()
+                ? userRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(size + 1))
+                : userRepository.findPage(filter, cursor, size + 1);
+        if (users.isEmpty() && afterId == null && filter.isEmpty()) {
             throw new EmptyUserListException();
         }
-        return users.stream()
+
+        boolean hasNext = users.size() > size;
+        List<User> page = hasNext ? users.subList(0, size) : users;
+        List<UserResponseDTO> items = page.stream()
                 .map(userMapper::toDTO)
-                .collect(Collectors.toList());
+                .toList();
+        Long nextCursor = hasNext ? page.get(page.size() - 1).getId() : null;
+        return new UserPageDTO(items, nextCursor);
     }
 
-    @Transactional
-    public UserResponseDTO updateUser(Long id, UserRequestDTO userDTO) {
-        logger.info("Updating user ID: {}", id);
-        User existingUser = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException(id));
+    /**
+     * Страница только из колонок {@code fields}: сущности не создаются и не маппятся.
+     */
+    @CircuitBreaker(name = ResilienceConfig.POSTGRES)
+    @Bulkhead(name = ResilienceConfig.USER_READS)
+    @Transactional(readOnly = true)
+    public UserFieldsPageDTO getUserFieldsPage(Long afterId, int size, UserFilter filter, Set<UserField> fields) {
+        logger.info("Fetching users fields {} after ID: {}, size: {}, filter: {}", fields, afterId, size, filter);
+        long cursor = afterId == null ? 0L : afterId;
+        List<UserFieldsDTO> users = userRepository.findFieldsPage(filter, fields, cursor, size + 1);
+        boolean hasNext = users.size() > size;
+        List<UserFieldsDTO> page = hasNext ? users.subList(0, size) : users;
+        Long nextCursor = hasNext ? page.get(page.size() - 1).id() : null;
+        return new UserFieldsPageDTO(page, nextCursor);
+    }
+
+    /**
+     * Последовательно передаёт всех подходящих пользователей в {@code consumer}, читая курсором JDBC.
+     * Каждая сущность отсоединяется после маппинга, поэтому контекст персистентности не растёт.
+     */
+    @Bulkhead(name = ResilienceConfig.USER_EXPORTS)
+    @Transactional(readOnly = true)
+    public void streamAllUsers(UserFilter filter, Consumer<UserResponseDTO> consumer) {
+        logger.info("Streaming all users, filter: {}", filter);
+        try (Stream<User> users = filter.isEmpty()
+                ? userRepository.streamAllOrderById()
+                : userRepository.streamAll(filter)) {
+            users.forEach(user -> {
+                consumer.accept(userMapper.toDTO(user));
+                entityManager.detach(user);
+            });
+        }
+    }
 
-        userMapper.updateEntityFromDTO(userDTO, existingUser);
-        validateUser(existingUser);
+    /**
+     * Выгрузка только колонок {@code fields} курсором JDBC, без сущностей в контексте персистентности.
+     */
+    @Bulkhead(name = ResilienceConfig.USER_EXPORTS)
+    @Transactional(readOnly = true)
+    public void streamUserFields(UserFilter filter, Set<UserField> fields, Consumer<UserFieldsDTO> consumer) {
+        logger.info("Streaming users fields {}, filter: {}", fields, filter);
+        try (Stream<UserFieldsDTO> users = userRepository.streamFields(filter, fields)) {
+            users.forEach(consumer);
+        }
+    }
 
-        User updatedUser = userRepository.save(existingUser);
+    /**
+     * Одно выражение UPDATE ... RETURNING вместе с записью события в outbox: без чтения перед записью.
+     *
+     * @param expectedVersion версия из If-Match или {@code null}, если обновлять безусловно
+     */
+    @CircuitBreaker(name = ResilienceConfig.POSTGRES)
+    @Bulkhead(name = ResilienceConfig.USER_WRITES)
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
+    @Transactional
+    public UserResponseDTO updateUser(Long id, UserRequestDTO userDTO, Long expectedVersion) {
+        logger.info("Updating user ID: {}", id);
+        validateName(userDTO.getName());
+        User updatedUser = userRepository.updateWithEvent(id, userDTO.getName(), userDTO.getEmail(),
+                        userDTO.getAge(), expectedVersion, LocalDateTime.now())
+                .orElseThrow(() -> notFoundOrVersionMismatch(id, expectedVersion));
+        emailFilter.add(updatedUser.getEmail());
         return userMapper.toDTO(updatedUser);
     }
 
+    /**
+     * Одно выражение DELETE ... RETURNING вместе с записью события в outbox.
+     *
+     * @param expectedVersion версия из If-Match или {@code null}, если удалять безусловно
+     */
+    @CircuitBreaker(name = ResilienceConfig.POSTGRES)
+    @Bulkhead(name = ResilienceConfig.USER_WRITES)
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     @Transactional
-    public void deleteUser(Long id) {
+    public void deleteUser(Long id, Long expectedVersion) {
         logger.info("Deleting user ID: {}", id);
-        if (!userRepository.existsById(id)) {
-            throw new UserNotFoundException(id);
+        userRepository.deleteWithEvent(id, expectedVersion, LocalDateTime.now())
+                .orElseThrow(() -> notFoundOrVersionMismatch(id, expectedVersion));
+    }
+
+    /**
+     * Запасной путь {@link #getUserVersion}: пока база недоступна (breaker открыт, bulkhead заполнен или
+     * соединение не получено), If-None-Match сверяется с версией из кэша, чтобы условный запрос
+     * не получал 503, когда сам пользователь отдаётся из кэша. Остальные ошибки и промах кэша
+     * пробрасываются как есть.
+     */
+    private long getCachedUserVersion(Long id, RuntimeException ex) {
+        Long version = cachedUser(id, ex).getVersion();
+        if (version == null) {
+            throw ex;
+        }
+        return version;
+    }
+
+    private UserResponseDTO cachedUser(Long id, RuntimeException ex) {
+        boolean unavailable = ex instanceof CallNotPermittedException || ex instanceof BulkheadFullException
+                || DatabaseFailurePredicate.isDatabaseFailure(ex);
+        UserResponseDTO cached = unavailable ? usersCache.get(id, UserResponseDTO.class) : null;
+        if (cached == null) {
+            throw ex;
+        }
+        logger.warn("Database unavailable ({}), serving user ID: {} from cache", ex.getClass().getSimpleName(), id);
+        return cached;
+    }
+
+    /**
+     * Пустой RETURNING означает либо отсутствие пользователя, либо несовпадение версии.
+     * Различаем их дополнительным запросом только на этом, неуспешном, пути.
+     */
+    private UserServiceException notFoundOrVersionMismatch(Long id, Long expectedVersion) {
+        if (expectedVersion != null && userRepository.existsById(id)) {
+            return new UserVersionMismatchException(id);
         }
-        userRepository.deleteById(id);
+        return new UserNotFoundException(id);
     }
 
-    private void validateUser(User user) {
-        if (user.getName() == null || user.getName().trim().isEmpty()) {
+    private void validateName(String name) {
+        if (name == null || name.trim().isEmpty()) {
             throw new InvalidUserException("User name is required");
         }
     }
@@ -0,0 +1,121 @@
+package by.task.userservice.service;
+
+import by.task.userservice.config.UserEventsProperties;
+import by.task.userservice.event.UserSnapshotPublisher;
+import by.task.userservice.mapper.UserMapper;
+import by.task.userservice.model.User;
+import by.task.userservice.repository.OutboxEventRepository;
+import by.task.userservice.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Разовая выгрузка всей таблицы users в топик снимков: новый потребитель читает топик с начала вместо
+ * обхода {@code GET /api/users}. Запускается отдельным процессом с профилем {@value #PROFILE}, который
+ * завершается после выгрузки.
+ * <p>
+ * Пользователи читаются по возрастанию id пачками по {@code user-events.snapshots.bootstrap-batch-size}.
+ * Каждая пачка читается и отправляется под блокировкой {@link OutboxRelay}, поэтому снимок из выгрузки
+ * не обгоняет в топике более новый снимок от relay: изменения, сделанные после чтения пачки, уйдут
+ * следующими пачками outbox.
+ */
+@Component
+@Profile(UserSnapshotBootstrap.PROFILE)
+public class UserSnapshotBootstrap implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(UserSnapshotBootstrap.class);
+
+    public static final String PROFILE = "snapshot-bootstrap";
+
+    private final UserRepository userRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserMapper userMapper;
+    private final UserSnapshotPublisher snapshotPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final UserEventsProperties properties;
+    private final ApplicationContext applicationContext;
+
+    @Autowired
+    public UserSnapshotBootstrap(UserRepository userRepository,
+                                 OutboxEventRepository outboxEventRepository,
+                                 UserMapper userMapper,
+                                 UserSnapshotPublisher snapshotPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 UserEventsProperties properties,
+                                 ApplicationContext applicationContext) {
+        this.userRepository = userRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.userMapper = userMapper;
+        this.snapshotPublisher = snapshotPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        bootstrap();
+        SpringApplication.exit(applicationContext);
+    }
+
+    /**
+     * @return число отправленных снимков
+     */
+    public long bootstrap() {
+        int batchSize = properties.snapshots().bootstrapBatchSize();
+        logger.info("Publishing snapshots of all users to {} in batches of {}", properties.snapshots().topic(),
+                batchSize);
+        long published = 0;
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            long from = afterId;
+            ids = transactionTemplate.execute(status -> publishBatch(from, batchSize));
+            if (!ids.isEmpty()) {
+                afterId = ids.getLast();
+                published += ids.size();
+                logger.debug("Published {} user snapshots up to user ID: {}", published, afterId);
+            }
+        } while (ids.size() == batchSize);
+        logger.info("Published {} user snapshots to {}", published, properties.snapshots().topic());
+        return published;
+    }
+
+    List<Long> publishBatch(long afterId, int batchSize) {
+        outboxEventRepository.acquireRelayLock(OutboxRelay.RELAY_LOCK_KEY);
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(batchSize));
+        List<CompletableFuture<?>> sends = users.stream()
+                .<CompletableFuture<?>>map(user -> snapshotPublisher.publish(userMapper.toDTO(user)))
+                .toList();
+        snapshotPublisher.flush();
+        awaitAcknowledgements(sends);
+        return users.stream().map(User::getId).toList();
+    }
+
+    private void awaitAcknowledgements(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(properties.outbox().sendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing user snapshots", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to publish user snapshots", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+-- Схема, которую раньше создавал spring.jpa.hibernate.ddl-auto=update.
+-- Все выражения идемпотентны: на базе, созданной Hibernate или schema.sql реактивного сервиса,
+-- миграция только добавляет недостающее.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS user_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id         BIGINT       PRIMARY KEY,
+    name       VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL UNIQUE,
+    age        INTEGER      NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    version    BIGINT       NOT NULL DEFAULT 0
+);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_domain VARCHAR(255)
+    GENERATED ALWAYS AS (split_part(email, '@', 2)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_users_email_domain_id ON users (email_domain, id);
+CREATE INDEX IF NOT EXISTS idx_users_age ON users (age);
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
+
+CREATE TABLE IF NOT EXISTS user_outbox (
+    id         BIGINT       PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    operation  VARCHAR(16)  NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Id событий outbox выдаются по одному, а не блоками по 50 на экземпляр: при блоках событие пользователя
+-- из старого блока одного экземпляра получало меньший id, чем предыдущее событие того же пользователя
+-- из другого экземпляра, и relay отправлял их в обратном порядке.
+-- Уже выданные значения не переиспользуются: последовательность продолжает с текущего значения.
+ALTER SEQUENCE user_outbox_seq INCREMENT BY 1;
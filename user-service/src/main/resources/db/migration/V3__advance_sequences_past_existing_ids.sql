@@ -0,0 +1,10 @@
+-- В базе, созданной до миграций (id выдавал IDENTITY или ddl-auto), V1 создаёт последовательности с 1,
+-- и первые же вставки через них упираются в уже занятые id. Последовательности переводятся за max(id).
+-- Назад они не сдвигаются: работающий экземпляр мог уже получить блок id выше max(id).
+SELECT setval('users_seq', max_id)
+FROM (SELECT max(id) AS max_id FROM users) existing
+WHERE max_id >= (SELECT last_value FROM users_seq);
+
+SELECT setval('user_outbox_seq', max_id)
+FROM (SELECT max(id) AS max_id FROM user_outbox) existing
+WHERE max_id >= (SELECT last_value FROM user_outbox_seq);
@@ -0,0 +1,29 @@
+-- Строки, записанные до нормализации адресов в UserRequestDTO, могут хранить email в смешанном регистре
+-- или с пробелами по краям: поиск по email, фильтр Блума и email_domain их не находят, а уникальный индекс
+-- по email пропускает второй аккаунт, отличающийся только регистром.
+-- Если после приведения два аккаунта совпадают, миграция останавливается: какой из них оставить, решает человек.
+DO $$
+DECLARE
+    collisions BIGINT;
+BEGIN
+    SELECT count(*) INTO collisions
+    FROM (SELECT lower(btrim(email, E' \t\r\n')) FROM users GROUP BY 1 HAVING count(*) > 1) duplicated;
+    IF collisions > 0 THEN
+        RAISE EXCEPTION '% email(s) are shared by several users once lower-cased, merge the accounts and rerun',
+            collisions;
+    END IF;
+END
+$$;
+
+-- Изменённые адреса проходят как обычное обновление: версия растёт (старые ETag и кэш перестают совпадать),
+-- а событие UPDATED в outbox доносит новый email до подписчиков топика.
+WITH normalized AS (
+    UPDATE users
+    SET email = lower(btrim(email, E' \t\r\n')), version = version + 1
+    WHERE email <> lower(btrim(email, E' \t\r\n'))
+    RETURNING id, email
+)
+INSERT INTO user_outbox (id, user_id, operation, email, created_at)
+SELECT nextval('user_outbox_seq'), id, 'UPDATED', email, now() FROM normalized ORDER BY id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email_lower ON users (lower(email));
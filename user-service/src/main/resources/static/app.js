@@ -1,22 +1,39 @@
 const API_URL = 'http://localhost:8080/api/users';
+// Сервис отдаёт список страницами; курсор следующей страницы приходит в этом заголовке
+const NEXT_CURSOR_HEADER = 'X-Next-Cursor';
 let editingUserId = null;
+let loadedUsers = [];
+let nextCursor = null;
 
 const form = document.getElementById('user-form');
 const tableBody = document.querySelector('#user-table tbody');
 const formTitle = document.getElementById('form-title');
 const cancelBtn = document.getElementById('cancel-btn');
+const listStatus = document.getElementById('list-status');
+const loadMoreBtn = document.getElementById('load-more-btn');
 
-async function loadUsers() {
+async function loadUsers(append = false) {
     try {
-        const response = await fetch(API_URL);
+        const url = append && nextCursor ? `${API_URL}?after=${encodeURIComponent(nextCursor)}` : API_URL;
+        const response = await fetch(url);
         if (!response.ok) throw new Error('Ошибка загрузки');
         const users = await response.json();
-        renderUsers(users);
+        loadedUsers = append ? loadedUsers.concat(users) : users;
+        nextCursor = response.headers.get(NEXT_CURSOR_HEADER);
+        renderUsers(loadedUsers);
+        renderListStatus();
     } catch (error) {
         alert(error.message);
     }
 }
 
+function renderListStatus() {
+    listStatus.textContent = nextCursor
+        ? `Показано ${loadedUsers.length} пользователей, список неполный`
+        : `Всего пользователей: ${loadedUsers.length}`;
+    loadMoreBtn.hidden = !nextCursor;
+}
+
 function renderUsers(users) {
     tableBody.innerHTML = users.map(user => `
         <tr>
@@ -99,6 +116,7 @@ function resetForm() {
 }
 
 cancelBtn.addEventListener('click', resetForm);
+loadMoreBtn.addEventListener('click', () => loadUsers(true));
 
 loadUsers();
 
@@ -0,0 +1,286 @@
+package by.task.userservice;
+
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventDeserializer;
+import by.task.userevents.UserEventType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверки собранного артефакта как чёрного ящика: исполняемого jar ({@code mvn verify}) или native image
+ * ({@code mvn -Pnative verify}), путь передаётся в {@code app.binary}. Сервис запускается отдельным процессом
+ * на встроенных PostgreSQL и Kafka. Проверяются пути, которые в native image без метаданных достижимости
+ * ломаются первыми: маппер, сущности и миграции, JSON и NDJSON, сериализаторы событий и снимков.
+ */
+class ApplicationBinaryIT {
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(3);
+    private static final Duration EVENT_TIMEOUT = Duration.ofSeconds(30);
+    private static final String TOPIC = "user-events";
+    private static final String SNAPSHOTS_TOPIC = "user-snapshots";
+
+    private static final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static EmbeddedPostgres postgres;
+    private static EmbeddedKafkaKraftBroker broker;
+    private static Path binary;
+    private static Process application;
+    private static Path log;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startApplication() throws Exception {
+        binary = Path.of(System.getProperty("app.binary", "target/user-service-1.0-SNAPSHOT-exec.jar"));
+        assertTrue(Files.isRegularFile(binary), "Build the artifact first: " + binary.toAbsolutePath());
+        postgres = EmbeddedPostgres.start();
+        broker = new EmbeddedKafkaKraftBroker(1, 3);
+        broker.afterPropertiesSet();
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        log = Files.createTempFile("application-binary-it", ".log");
+        application = start(log, "--server.port=" + port);
+        baseUrl = "http://localhost:" + port;
+        awaitHealthy();
+    }
+
+    @AfterAll
+    static void stopApplication() throws Exception {
+        if (application != null) {
+            application.destroy();
+            application.waitFor();
+        }
+        if (broker != null) {
+            broker.destroy();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void createUser_ThenGetById_ReturnsUserWithETag() throws Exception {
+        HttpResponse<String> created = post("/api/users", user("Binary User", "binary@it.test"));
+        assertEquals(201, created.statusCode(), created.body());
+        long id = objectMapper.readTree(created.body()).get("id").asLong();
+
+        HttpResponse<String> found = get("/api/users/" + id, Map.of());
+        assertEquals(200, found.statusCode());
+        assertEquals("binary@it.test", objectMapper.readTree(found.body()).get("email").asText());
+        String eTag = found.headers().firstValue("ETag").orElseThrow();
+
+        assertEquals(304, get("/api/users/" + id, Map.of("If-None-Match", eTag)).statusCode());
+    }
+
+    @Test
+    void createUser_DuplicateOrInvalid_ReturnsClientErrors() throws Exception {
+        assertEquals(201, post("/api/users", user("First", "duplicate@it.test")).statusCode());
+
+        assertEquals(409, post("/api/users", user("Second", "duplicate@it.test")).statusCode());
+        assertEquals(400, post("/api/users", Map.of("name", "No Age", "email", "no-age@it.test")).statusCode());
+    }
+
+    @Test
+    void listings_ProjectFieldsAndStreamNdjson() throws Exception {
+        assertEquals(201, post("/api/users", user("Listed", "listed@listing.test")).statusCode());
+
+        HttpResponse<String> fields = get("/api/users?fields=id,email&emailDomain=listing.test", Map.of());
+        assertEquals(200, fields.statusCode());
+        JsonNode item = objectMapper.readTree(fields.body()).get(0);
+        assertEquals("listed@listing.test", item.get("email").asText());
+        assertFalse(item.has("name"));
+
+        HttpResponse<String> stream = get("/api/users?emailDomain=listing.test",
+                Map.of("Accept", "application/x-ndjson"));
+        assertEquals(200, stream.statusCode());
+        assertEquals("Listed", objectMapper.readTree(stream.body().lines().findFirst().orElseThrow())
+                .get("name").asText());
+    }
+
+    @Test
+    void createUser_PublishesEventToKafka() throws Exception {
+        HttpResponse<String> created = post("/api/users", user("Event User", "event@it.test"));
+        assertEquals(201, created.statusCode());
+        long id = objectMapper.readTree(created.body()).get("id").asLong();
+
+        UserEvent event = awaitEvent("event@it.test");
+
+        assertNotNull(event, "No event for the created user in " + TOPIC);
+        assertEquals(id, event.getUserId());
+        assertEquals(UserEventType.CREATED, event.getOperation());
+    }
+
+    @Test
+    void updateAndDelete_PublishLatestSnapshotThenTombstone() throws Exception {
+        HttpResponse<String> created = post("/api/users", user("Snapshot User", "snapshot@it.test"));
+        assertEquals(201, created.statusCode());
+        String id = objectMapper.readTree(created.body()).get("id").asText();
+
+        assertEquals(200, put("/api/users/" + id, user("Renamed User", "snapshot@it.test")).statusCode());
+        ConsumerRecord<String, String> snapshot = awaitRecord(SNAPSHOTS_TOPIC, new StringDeserializer(),
+                record -> id.equals(record.key()) && record.value() != null
+                        && record.value().contains("Renamed User"));
+        assertNotNull(snapshot, "No snapshot of the updated user in " + SNAPSHOTS_TOPIC);
+        JsonNode state = objectMapper.readTree(snapshot.value());
+        assertEquals("snapshot@it.test", state.get("email").asText());
+        assertEquals(1, state.get("version").asLong());
+
+        assertEquals(204, delete("/api/users/" + id).statusCode());
+        assertNotNull(awaitRecord(SNAPSHOTS_TOPIC, new StringDeserializer(),
+                        record -> id.equals(record.key()) && record.value() == null),
+                "No tombstone of the deleted user in " + SNAPSHOTS_TOPIC);
+    }
+
+    @Test
+    void snapshotBootstrap_PublishesWholeTableAndExits() throws Exception {
+        // Строка в обход сервиса: без outbox её снимок может появиться в топике только из выгрузки
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, name, email, age, created_at) "
+                    + "VALUES (900000001, 'Imported', 'imported@it.test', 40, now())");
+        }
+        Path bootstrapLog = Files.createTempFile("snapshot-bootstrap-it", ".log");
+
+        Process bootstrap = start(bootstrapLog, "--spring.profiles.active=snapshot-bootstrap");
+
+        assertTrue(bootstrap.waitFor(START_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS),
+                "Snapshot bootstrap did not exit, see " + bootstrapLog);
+        assertEquals(0, bootstrap.exitValue(), "Snapshot bootstrap failed, see " + bootstrapLog);
+        assertNotNull(awaitRecord(SNAPSHOTS_TOPIC, new StringDeserializer(),
+                        record -> "900000001".equals(record.key()) && record.value() != null
+                                && record.value().contains("imported@it.test")),
+                "No snapshot of the imported user in " + SNAPSHOTS_TOPIC);
+    }
+
+    private static Process start(Path output, String... arguments) throws IOException {
+        List<String> command = new ArrayList<>();
+        if (binary.toString().endsWith(".jar")) {
+            command.add(ProcessHandle.current().info().command().orElse("java"));
+            command.add("-jar");
+        }
+        command.addAll(List.of(binary.toAbsolutePath().toString(),
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString()));
+        command.addAll(List.of(arguments));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start();
+    }
+
+    private static UserEvent awaitEvent(String email) {
+        ConsumerRecord<String, UserEvent> record = awaitRecord(TOPIC, new UserEventDeserializer(),
+                candidate -> email.equals(candidate.value().getEmail()));
+        return record == null ? null : record.value();
+    }
+
+    private static <V> ConsumerRecord<String, V> awaitRecord(String topic, Deserializer<V> deserializer,
+                                                             Predicate<ConsumerRecord<String, V>> matches) {
+        Map<String, Object> config = Map.of(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        try (KafkaConsumer<String, V> consumer = new KafkaConsumer<>(config, new StringDeserializer(), deserializer)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                    .map(partition -> new TopicPartition(topic, partition.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, V> record : consumer.poll(Duration.ofMillis(500))) {
+                    if (matches.test(record)) {
+                        return record;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private static void awaitHealthy() throws Exception {
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("Application exited with " + application.exitValue()
+                        + ", see " + log);
+            }
+            try {
+                if (get("/actuator/health", Map.of()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException notListeningYet) {
+                // Порт ещё не открыт
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Application did not become healthy within " + START_TIMEOUT + ", see " + log);
+    }
+
+    private static Map<String, Object> user(String name, String email) {
+        return Map.of("name", name, "email", email, "age", 30);
+    }
+
+    private static HttpResponse<String> post(String path, Map<String, Object> body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> put(String path, Map<String, Object> body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<Void> delete(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).DELETE().build();
+        return http.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static HttpResponse<String> get(String path, Map<String, String> headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        headers.forEach(request::header);
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
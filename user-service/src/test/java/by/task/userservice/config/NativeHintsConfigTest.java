@@ -0,0 +1,49 @@
+package by.task.userservice.config;
+
+import by.task.userevents.UserEventDeserializer;
+import by.task.userevents.UserEventSerializer;
+import by.task.userservice.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeHintsConfig.UserServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_MapperImplementationExistsAndIsRegistered() {
+        assertDoesNotThrow(() -> Class.forName(NativeHintsConfig.USER_MAPPER_IMPL));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of(NativeHintsConfig.USER_MAPPER_IMPL))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .test(hints));
+    }
+
+    @Test
+    void registerHints_CoversEntitiesSerializersAndMigrations() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(User.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_METHODS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserEventSerializer.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserEventDeserializer.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("db/migration/V1__create_users_and_outbox.sql")
+                .test(hints));
+    }
+}
@@ -0,0 +1,38 @@
+package by.task.userservice.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserEventsPropertiesTest {
+
+    @Test
+    void toProducerConfig_MapsTuningAndForcesAcksAll() {
+        UserEventsProperties.Producer producer =
+                new UserEventsProperties.Producer(262144, Duration.ofMillis(50), "zstd", 5, true);
+
+        Map<String, Object> config = producer.toProducerConfig();
+
+        assertEquals("all", config.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(262144, config.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("50", config.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals("zstd", config.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals(5, config.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION));
+        assertEquals(true, config.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+    }
+
+    @Test
+    void producer_ReorderingInFlightSettings_Rejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new UserEventsProperties.Producer(16384, Duration.ZERO, "none", 6, true));
+        assertThrows(IllegalArgumentException.class,
+                () -> new UserEventsProperties.Producer(16384, Duration.ZERO, "none", 2, false));
+        assertDoesNotThrow(() -> new UserEventsProperties.Producer(16384, Duration.ZERO, "none", 1, false));
+    }
+}
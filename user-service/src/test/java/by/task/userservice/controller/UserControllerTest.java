@@ -1,38 +1,66 @@
 package by.task.userservice.controller;
 
+import by.task.userservice.config.UserBulkProperties;
+import by.task.userservice.config.UserListingProperties;
+import by.task.userservice.dto.BulkItemStatus;
+import by.task.userservice.dto.BulkUserResultDTO;
+import by.task.userservice.dto.UserField;
+import by.task.userservice.dto.UserFieldsDTO;
+import by.task.userservice.dto.UserFieldsPageDTO;
+import by.task.userservice.dto.UserFilter;
+import by.task.userservice.dto.UserPageDTO;
 import by.task.userservice.dto.UserRequestDTO;
 import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.exception.service.DuplicateEmailException;
 import by.task.userservice.exception.service.EmptyUserListException;
 import by.task.userservice.exception.service.UserNotFoundException;
+import by.task.userservice.exception.service.UserVersionMismatchException;
+import by.task.userservice.service.UserBulkService;
 import by.task.userservice.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
-@WebMvcTest(UserController.class)
+@WebMvcTest(controllers = UserController.class, properties = "users.bulk.max-items=2")
+@EnableConfigurationProperties({UserListingProperties.class, UserBulkProperties.class})
 class UserControllerTest {
 
     @Autowired
@@ -44,6 +72,9 @@ class UserControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private UserBulkService userBulkService;
+
     private static final Long ID = 1L;
     private static final String NAME = "Test User";
     private static final String EMAIL = "user@test.com";
@@ -51,9 +82,17 @@ class UserControllerTest {
     private static final int AGE = 30;
     private static final int NEGATIVE_AGE = -1;
     private static final String EMPTY_STRING = " ";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
 
     private static final String USERS_API_URL = "/api/users";
     private static final String USERS_API_URL_WITH_ID = USERS_API_URL + "/{id}";
+    private static final String USERS_BULK_API_URL = USERS_API_URL + "/bulk";
+    private static final String USERS_BULK_DELETE_API_URL = USERS_BULK_API_URL + "/delete";
+    private static final String ALT_EMAIL = "alt@test.com";
+    private static final long VERSION = 3L;
+    private static final String VERSION_ETAG = "\"3\"";
+    private static final String NEXT_VERSION_ETAG = "\"4\"";
 
     @Test
     void createUser_ValidData_ReturnsCreated() throws Exception {
@@ -61,6 +100,7 @@ class UserControllerTest {
         UserResponseDTO responseDTO = new UserResponseDTO(
                 ID, NAME, EMAIL, AGE, LocalDateTime.now()
         );
+        responseDTO.setVersion(0L);
 
         given(userService.createUser(any(UserRequestDTO.class))).willReturn(responseDTO);
 
@@ -68,12 +108,48 @@ class UserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requestDTO)))
                 .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
                 .andExpect(jsonPath("$.id").value(ID))
                 .andExpect(jsonPath("$.name").value(NAME))
                 .andExpect(jsonPath("$.email").value(EMAIL))
                 .andExpect(jsonPath("$.age").value(AGE));
     }
 
+    @Test
+    void createUser_DuplicateEmail_ReturnsConflict() throws Exception {
+        UserRequestDTO requestDTO = new UserRequestDTO(NAME, EMAIL, AGE);
+
+        given(userService.createUser(any(UserRequestDTO.class))).willThrow(new DuplicateEmailException(EMAIL));
+
+        mockMvc.perform(post(USERS_API_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Пользователь с email " + EMAIL + " уже существует"));
+    }
+
+    @Test
+    void getUserByEmail_ExistingUser_ReturnsOk() throws Exception {
+        UserResponseDTO responseDTO = new UserResponseDTO(ID, NAME, EMAIL, AGE, LocalDateTime.now());
+        responseDTO.setVersion(VERSION);
+
+        given(userService.getUserByEmail(EMAIL)).willReturn(responseDTO);
+
+        mockMvc.perform(get(USERS_API_URL + "/by-email").param("email", EMAIL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, VERSION_ETAG))
+                .andExpect(jsonPath("$.id").value(ID));
+    }
+
+    @Test
+    void getUserByEmail_UnknownEmail_ReturnsNotFound() throws Exception {
+        given(userService.getUserByEmail(ALT_EMAIL)).willThrow(new UserNotFoundException(ALT_EMAIL));
+
+        mockMvc.perform(get(USERS_API_URL + "/by-email").param("email", ALT_EMAIL))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Пользователь с email " + ALT_EMAIL + " не найден"));
+    }
+
     @Test
     void createUser_InvalidData_ReturnsBadRequest() throws Exception {
         UserRequestDTO invalidDTO = new UserRequestDTO(EMPTY_STRING, INVALID_EMAIL, NEGATIVE_AGE);
@@ -90,13 +166,44 @@ class UserControllerTest {
     @Test
     void getUserById_ExistingUser_ReturnsOk() throws Exception {
         UserResponseDTO responseDTO = new UserResponseDTO(ID, NAME, EMAIL, AGE, LocalDateTime.now());
+        responseDTO.setVersion(VERSION);
 
         given(userService.getUserById(ID)).willReturn(responseDTO);
 
         mockMvc.perform(get(USERS_API_URL_WITH_ID, ID))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, VERSION_ETAG))
                 .andExpect(jsonPath("$.id").value(ID))
-                .andExpect(jsonPath("$.name").value(NAME));
+                .andExpect(jsonPath("$.name").value(NAME))
+                .andExpect(jsonPath("$.version").value(VERSION));
+        verify(userService, never()).getUserVersion(anyLong());
+    }
+
+    @Test
+    void getUserById_MatchingIfNoneMatch_ReturnsNotModifiedWithoutLoadingUser() throws Exception {
+        given(userService.getUserVersion(ID)).willReturn(VERSION);
+
+        mockMvc.perform(get(USERS_API_URL_WITH_ID, ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, VERSION_ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, VERSION_ETAG))
+                .andExpect(content().string(""));
+        verify(userService, never()).getUserById(anyLong());
+    }
+
+    @Test
+    void getUserById_StaleIfNoneMatch_ReturnsUserWithCurrentETag() throws Exception {
+        UserResponseDTO responseDTO = new UserResponseDTO(ID, NAME, EMAIL, AGE, LocalDateTime.now());
+        responseDTO.setVersion(VERSION + 1);
+
+        given(userService.getUserVersion(ID)).willReturn(VERSION + 1);
+        given(userService.getUserById(ID)).willReturn(responseDTO);
+
+        mockMvc.perform(get(USERS_API_URL_WITH_ID, ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, VERSION_ETAG))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, NEXT_VERSION_ETAG))
+                .andExpect(jsonPath("$.id").value(ID));
     }
 
     @Test
@@ -110,23 +217,134 @@ class UserControllerTest {
                         .value("Пользователь с ID " + ID + " не найден"));
     }
 
+    @Test
+    void getUserById_CircuitOpen_ReturnsServiceUnavailable() throws Exception {
+        given(userService.getUserById(anyLong()))
+                .willThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("postgres")));
+
+        mockMvc.perform(get(USERS_API_URL_WITH_ID, ID))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error")
+                        .value("Сервис временно недоступен, повторите запрос позже"));
+    }
+
     @Test
     void getAllUsers_WithUsers_ReturnsOk() throws Exception {
         UserResponseDTO user = new UserResponseDTO(ID, NAME, EMAIL, AGE, LocalDateTime.now());
         List<UserResponseDTO> users = List.of(user);
 
-        given(userService.getAllUsers()).willReturn(users);
+        given(userService.getUsersPage(isNull(), eq(DEFAULT_PAGE_SIZE), eq(UserFilter.NONE))).willReturn(new UserPageDTO(users, null));
 
         mockMvc.perform(get(USERS_API_URL))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$[0].id").value(ID))
                 .andExpect(jsonPath("$[0].name").value(NAME))
                 .andExpect(jsonPath("$[0].email").value(EMAIL));
     }
 
+    @Test
+    void getAllUsers_WithCursorAndOversizedPage_ClampsSizeAndReturnsNextCursor() throws Exception {
+        UserResponseDTO user = new UserResponseDTO(ID + 1, NAME, EMAIL, AGE, LocalDateTime.now());
+
+        given(userService.getUsersPage(ID, MAX_PAGE_SIZE, UserFilter.NONE)).willReturn(new UserPageDTO(List.of(user), ID + 1));
+
+        mockMvc.perform(get(USERS_API_URL)
+                        .param("after", String.valueOf(ID))
+                        .param("size", String.valueOf(MAX_PAGE_SIZE * 10)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, String.valueOf(ID + 1)))
+                .andExpect(jsonPath("$[0].id").value(ID + 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllUsers_NdjsonAccepted_WritesOneUserPerLine() throws Exception {
+        UserResponseDTO first = new UserResponseDTO(ID, NAME, EMAIL, AGE, null);
+        UserResponseDTO second = new UserResponseDTO(ID + 1, NAME, EMAIL, AGE, null);
+
+        doAnswer(invocation -> {
+            Consumer<UserResponseDTO> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(userService).streamAllUsers(eq(UserFilter.NONE), any(Consumer.class));
+
+        var result = mockMvc.perform(get(USERS_API_URL).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(first) + "\n"
+                                + objectMapper.writeValueAsString(second) + "\n"));
+    }
+
+    @Test
+    void getAllUsers_WithFilters_BindsFilter() throws Exception {
+        UserFilter filter = new UserFilter(18, 30, LocalDateTime.of(2024, 1, 1, 0, 0), "test.com");
+        given(userService.getUsersPage(isNull(), eq(DEFAULT_PAGE_SIZE), eq(filter)))
+                .willReturn(new UserPageDTO(List.of(), null));
+
+        mockMvc.perform(get(USERS_API_URL)
+                        .param("minAge", "18")
+                        .param("maxAge", "30")
+                        .param("createdAfter", "2024-01-01T00:00:00")
+                        .param("emailDomain", "@Test.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void getUserFields_ReturnsOnlyRequestedFields() throws Exception {
+        UserFieldsDTO user = new UserFieldsDTO(ID, null, EMAIL, null, null, null);
+        given(userService.getUserFieldsPage(isNull(), eq(DEFAULT_PAGE_SIZE), eq(UserFilter.NONE),
+                eq(EnumSet.of(UserField.ID, UserField.EMAIL))))
+                .willReturn(new UserFieldsPageDTO(List.of(user), ID));
+
+        mockMvc.perform(get(USERS_API_URL).param("fields", "id, email"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, String.valueOf(ID)))
+                .andExpect(jsonPath("$[0].id").value(ID))
+                .andExpect(jsonPath("$[0].email").value(EMAIL))
+                .andExpect(jsonPath("$[0].name").doesNotExist());
+    }
+
+    @Test
+    void getUserFields_UnknownField_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get(USERS_API_URL).param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Неизвестное поле пользователя: password"));
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamUserFields_NdjsonAccepted_WritesProjections() throws Exception {
+        UserFieldsDTO user = new UserFieldsDTO(ID, null, EMAIL, null, null, null);
+        doAnswer(invocation -> {
+            Consumer<UserFieldsDTO> consumer = invocation.getArgument(2);
+            consumer.accept(user);
+            return null;
+        }).when(userService).streamUserFields(eq(UserFilter.NONE), eq(EnumSet.of(UserField.EMAIL)),
+                any(Consumer.class));
+
+        var result = mockMvc.perform(get(USERS_API_URL).param("fields", "email")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":" + ID + ",\"email\":\"" + EMAIL + "\"}\n"));
+    }
+
     @Test
     void getAllUsers_EmptyList_ReturnsNotFound() throws Exception {
-        given(userService.getAllUsers())
+        given(userService.getUsersPage(isNull(), eq(DEFAULT_PAGE_SIZE), eq(UserFilter.NONE)))
                 .willThrow(new EmptyUserListException());
 
         mockMvc.perform(get(USERS_API_URL))
@@ -140,21 +358,70 @@ class UserControllerTest {
         UserResponseDTO responseDTO = new UserResponseDTO(
                 ID, NAME, EMAIL, AGE, LocalDateTime.now()
         );
+        responseDTO.setVersion(VERSION + 1);
 
-        given(userService.updateUser(eq(ID), any(UserRequestDTO.class))).willReturn(responseDTO);
+        given(userService.updateUser(eq(ID), any(UserRequestDTO.class), isNull())).willReturn(responseDTO);
 
         mockMvc.perform(put(USERS_API_URL_WITH_ID, ID)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requestDTO)))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, NEXT_VERSION_ETAG))
                 .andExpect(jsonPath("$.name").value(NAME))
                 .andExpect(jsonPath("$.email").value(EMAIL))
                 .andExpect(jsonPath("$.age").value(AGE));
     }
 
+    @Test
+    void updateUser_MatchingIfMatch_PassesExpectedVersion() throws Exception {
+        UserRequestDTO requestDTO = new UserRequestDTO(NAME, EMAIL, AGE);
+        UserResponseDTO responseDTO = new UserResponseDTO(ID, NAME, EMAIL, AGE, LocalDateTime.now());
+        responseDTO.setVersion(VERSION + 1);
+
+        given(userService.updateUser(eq(ID), any(UserRequestDTO.class), eq(VERSION))).willReturn(responseDTO);
+
+        mockMvc.perform(put(USERS_API_URL_WITH_ID, ID)
+                        .header(HttpHeaders.IF_MATCH, VERSION_ETAG)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, NEXT_VERSION_ETAG));
+    }
+
+    @Test
+    void updateUser_StaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+        UserRequestDTO requestDTO = new UserRequestDTO(NAME, EMAIL, AGE);
+
+        given(userService.updateUser(eq(ID), any(UserRequestDTO.class), eq(VERSION)))
+                .willThrow(new UserVersionMismatchException(ID));
+
+        mockMvc.perform(put(USERS_API_URL_WITH_ID, ID)
+                        .header(HttpHeaders.IF_MATCH, VERSION_ETAG)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void deleteUser_WeakIfMatch_ReturnsPreconditionFailedWithoutCallingService() throws Exception {
+        mockMvc.perform(delete(USERS_API_URL_WITH_ID, ID)
+                        .header(HttpHeaders.IF_MATCH, "W/" + VERSION_ETAG))
+                .andExpect(status().isPreconditionFailed());
+        verify(userService, never()).deleteUser(anyLong(), any());
+    }
+
+    @Test
+    void deleteUser_WildcardIfMatch_DeletesUnconditionally() throws Exception {
+        mockMvc.perform(delete(USERS_API_URL_WITH_ID, ID)
+                        .header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isNoContent());
+        verify(userService).deleteUser(eq(ID), isNull());
+    }
+
     @Test
     void deleteUser_ExistingUser_ReturnsNoContent() throws Exception {
-        doNothing().when(userService).deleteUser(ID);
+        doNothing().when(userService).deleteUser(ID, null);
 
         mockMvc.perform(delete(USERS_API_URL_WITH_ID, ID))
                 .andExpect(status().isNoContent());
@@ -163,7 +430,7 @@ class UserControllerTest {
     @Test
     void deleteUser_NonExistingUser_ReturnsNotFound() throws Exception {
         doThrow(new UserNotFoundException(ID))
-                .when(userService).deleteUser(ID);
+                .when(userService).deleteUser(ID, null);
 
         mockMvc.perform(delete(USERS_API_URL_WITH_ID, ID))
                 .andExpect(status().isNotFound())
@@ -180,4 +447,89 @@ class UserControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.age").value("Age must be positive"));
     }
+
+    @Test
+    void createUsers_JsonArray_ReturnsPerItemResults() throws Exception {
+        List<UserRequestDTO> requestDTOs = List.of(
+                new UserRequestDTO(NAME, EMAIL, AGE),
+                new UserRequestDTO(NAME, EMAIL, AGE));
+
+        given(userBulkService.createUsers(any())).willReturn(List.of(
+                new BulkUserResultDTO(0, BulkItemStatus.CREATED, ID, EMAIL, null),
+                new BulkUserResultDTO(1, BulkItemStatus.DUPLICATE, null, EMAIL, "duplicate")));
+
+        mockMvc.perform(post(USERS_BULK_API_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTOs)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").value(ID))
+                .andExpect(jsonPath("$[1].status").value("DUPLICATE"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createUsers_Ndjson_ParsesEveryLine() throws Exception {
+        String body = objectMapper.writeValueAsString(new UserRequestDTO(NAME, EMAIL, AGE)) + "\n"
+                + objectMapper.writeValueAsString(new UserRequestDTO(NAME, ALT_EMAIL, AGE)) + "\n";
+
+        given(userBulkService.createUsers(any())).willAnswer(invocation -> {
+            List<UserRequestDTO> parsed = invocation.getArgument(0);
+            return List.of(
+                    new BulkUserResultDTO(0, BulkItemStatus.CREATED, ID, parsed.get(0).getEmail(), null),
+                    new BulkUserResultDTO(1, BulkItemStatus.CREATED, ID + 1, parsed.get(1).getEmail(), null));
+        });
+
+        mockMvc.perform(post(USERS_BULK_API_URL)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").value(EMAIL))
+                .andExpect(jsonPath("$[1].email").value(ALT_EMAIL));
+    }
+
+    @Test
+    void createUsers_MalformedNdjson_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post(USERS_BULK_API_URL)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\": \n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createUsers_JsonArrayOverLimit_ReturnsBadRequestWithoutCallingService() throws Exception {
+        List<UserRequestDTO> requestDTOs = List.of(
+                new UserRequestDTO(NAME, EMAIL, AGE),
+                new UserRequestDTO(NAME, ALT_EMAIL, AGE),
+                new UserRequestDTO(NAME, "third@test.com", AGE));
+
+        mockMvc.perform(post(USERS_BULK_API_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTOs)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(userBulkService);
+    }
+
+    @Test
+    void createUsers_JsonObjectInsteadOfArray_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post(USERS_BULK_API_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserRequestDTO(NAME, EMAIL, AGE))))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(userBulkService);
+    }
+
+    @Test
+    void deleteUsers_Ids_ReturnsPerItemResults() throws Exception {
+        given(userBulkService.deleteUsers(List.of(ID, ID + 1))).willReturn(List.of(
+                new BulkUserResultDTO(0, BulkItemStatus.DELETED, ID, EMAIL, null),
+                new BulkUserResultDTO(1, BulkItemStatus.NOT_FOUND, ID + 1, null, "not found")));
+
+        mockMvc.perform(post(USERS_BULK_DELETE_API_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(ID, ID + 1))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+    }
 }
\ No newline at end of file
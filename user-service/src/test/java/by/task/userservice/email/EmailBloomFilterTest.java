@@ -0,0 +1,63 @@
+package by.task.userservice.email;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailBloomFilterTest {
+
+    private static final int INSERTIONS = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void mightContain_InsertedEmails_NeverFalseNegative() {
+        EmailBloomFilter filter = new EmailBloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("user" + i + "@test.com");
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain("user" + i + "@test.com"));
+        }
+    }
+
+    @Test
+    void mightContain_UnknownEmails_FalsePositivesNearTarget() {
+        EmailBloomFilter filter = new EmailBloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("user" + i + "@test.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < INSERTIONS; i++) {
+            if (filter.mightContain("other" + i + "@test.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < INSERTIONS * FALSE_POSITIVE_RATE * 2,
+                "false positives: " + falsePositives);
+    }
+
+    @Test
+    void mightContain_EmptyFilter_ReturnsFalse() {
+        EmailBloomFilter filter = new EmailBloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+
+        assertFalse(filter.mightContain("user@test.com"));
+    }
+
+    @Test
+    void constructor_MillionAtOnePercent_SizedByFormula() {
+        EmailBloomFilter filter = new EmailBloomFilter(1_000_000, FALSE_POSITIVE_RATE);
+
+        assertEquals(7, filter.hashCount());
+        assertTrue(filter.bitCount() >= 9_585_059 && filter.bitCount() < 9_585_059 + Long.SIZE);
+    }
+
+    @Test
+    void constructor_InvalidRate_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new EmailBloomFilter(INSERTIONS, 1.0));
+    }
+}
@@ -0,0 +1,72 @@
+package by.task.userservice.email;
+
+import by.task.userservice.config.UserEmailFilterProperties;
+import by.task.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailFilterTest {
+
+    private static final String EMAIL = "user@test.com";
+    private static final String OTHER_EMAIL = "other@test.com";
+    private static final String NEW_EMAIL = "new@test.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailFilter emailFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        emailFilter = new EmailFilter(userRepository, new UserEmailFilterProperties(1000, 0.01), meterRegistry);
+    }
+
+    @Test
+    void mightExist_BeforeWarmUp_DefersToDatabase() {
+        assertTrue(emailFilter.mightExist(OTHER_EMAIL));
+        assertEquals(1, checks("warming"));
+    }
+
+    @Test
+    void mightExist_AfterWarmUp_AnswersFromFilter() {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of(EMAIL));
+
+        emailFilter.warmUp();
+        emailFilter.add(NEW_EMAIL);
+
+        assertTrue(emailFilter.isReady());
+        assertTrue(emailFilter.mightExist(EMAIL));
+        assertTrue(emailFilter.mightExist(NEW_EMAIL));
+        assertFalse(emailFilter.mightExist(OTHER_EMAIL));
+        assertEquals(1, checks("absent"));
+    }
+
+    @Test
+    void warmUp_DatabaseUnavailable_StaysNotReady() {
+        when(userRepository.streamAllEmails()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        emailFilter.warmUp();
+
+        assertFalse(emailFilter.isReady());
+        assertTrue(emailFilter.mightExist(OTHER_EMAIL));
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get(EmailFilter.CHECKS_METRIC).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,47 @@
+package by.task.userservice.event;
+
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventType;
+import by.task.userservice.config.UserEventsProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UserEventPublisherTest {
+
+    private static final String TOPIC = "user-events";
+
+    @Mock
+    private KafkaTemplate<String, UserEvent> kafkaTemplate;
+
+    private UserEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        UserEventsProperties properties = new UserEventsProperties(TOPIC, 3, (short) 1,
+                new UserEventsProperties.Outbox(500, Duration.ofMillis(500), Duration.ofSeconds(30)),
+                new UserEventsProperties.Producer(131072, Duration.ofMillis(20), "lz4", 5, true),
+                new UserEventsProperties.Snapshots("user-snapshots", 1000, Duration.ofDays(1)));
+        publisher = new UserEventPublisher(kafkaTemplate, properties);
+    }
+
+    @Test
+    void publish_KeysRecordByUserId() {
+        UserEvent first = new UserEvent(1L, 42L, UserEventType.CREATED, "user@test.com");
+        UserEvent second = new UserEvent(2L, 42L, UserEventType.DELETED, "user@test.com");
+
+        publisher.publish(first);
+        publisher.publish(second);
+
+        verify(kafkaTemplate).send(TOPIC, "42", first);
+        verify(kafkaTemplate).send(TOPIC, "42", second);
+    }
+}
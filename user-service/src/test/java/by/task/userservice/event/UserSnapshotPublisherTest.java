@@ -0,0 +1,51 @@
+package by.task.userservice.event;
+
+import by.task.userservice.config.UserEventsProperties;
+import by.task.userservice.dto.UserResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UserSnapshotPublisherTest {
+
+    private static final String TOPIC = "user-snapshots";
+
+    @Mock
+    private KafkaTemplate<String, UserResponseDTO> kafkaTemplate;
+
+    private UserSnapshotPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        UserEventsProperties properties = new UserEventsProperties("user-events", 3, (short) 1,
+                new UserEventsProperties.Outbox(500, Duration.ofMillis(500), Duration.ofSeconds(30)),
+                new UserEventsProperties.Producer(131072, Duration.ofMillis(20), "lz4", 5, true),
+                new UserEventsProperties.Snapshots(TOPIC, 1000, Duration.ofDays(1)));
+        publisher = new UserSnapshotPublisher(kafkaTemplate, properties);
+    }
+
+    @Test
+    void publish_KeysSnapshotByUserId() {
+        UserResponseDTO snapshot = new UserResponseDTO(42L, "Test User", "user@test.com", 30, LocalDateTime.now());
+
+        publisher.publish(snapshot);
+
+        verify(kafkaTemplate).send(TOPIC, "42", snapshot);
+    }
+
+    @Test
+    void publishTombstone_SendsNullValueUnderUserKey() {
+        publisher.publishTombstone(42L);
+
+        verify(kafkaTemplate).send(TOPIC, "42", null);
+    }
+}
@@ -0,0 +1,59 @@
+package by.task.userservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger serviceLogger = context.getLogger("by.task.userservice.service.UserService");
+    private final Logger otherLogger = context.getLogger("by.task.userservice.email.EmailFilter");
+    private final Logger bulkLogger = context.getLogger("by.task.userservice.service.UserBulkService");
+
+    @Test
+    void decide_RateZero_DeniesOnlyInfoOfSampledLogger() {
+        SamplingTurboFilter filter = filter(0.0);
+
+        assertEquals(FilterReply.DENY, decide(filter, serviceLogger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, serviceLogger, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, serviceLogger, Level.DEBUG));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, otherLogger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, bulkLogger, Level.INFO));
+    }
+
+    @Test
+    void decide_RateOne_PassesEverything() {
+        SamplingTurboFilter filter = filter(1.0);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(filter, serviceLogger, Level.INFO));
+        }
+    }
+
+    @Test
+    void start_RateOutOfRange_StaysStopped() {
+        SamplingTurboFilter filter = filter(1.5);
+
+        assertFalse(filter.isStarted());
+        assertEquals(FilterReply.NEUTRAL, decide(filter, serviceLogger, Level.INFO));
+    }
+
+    private SamplingTurboFilter filter(double rate) {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setLoggerName("by.task.userservice.service.UserService");
+        filter.setRate(rate);
+        filter.start();
+        return filter;
+    }
+
+    private FilterReply decide(SamplingTurboFilter filter, Logger logger, Level level) {
+        return filter.decide(null, logger, level, "Creating new user: {}", new Object[]{"user@test.com"}, null);
+    }
+}
@@ -0,0 +1,42 @@
+package by.task.userservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementMetricsInterceptorTest {
+
+    private final StatementCounter statementCounter = new StatementCounter();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatementMetricsInterceptor interceptor =
+            new StatementMetricsInterceptor(statementCounter, meterRegistry);
+
+    @Test
+    void afterCompletion_RecordsStatementsPerUriPattern() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        statementCounter.inspect("select 1");
+        statementCounter.inspect("select 2");
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        DistributionSummary summary = meterRegistry.get(StatementMetricsInterceptor.METRIC_NAME)
+                .tag("uri", "/api/users/{id}").summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void inspect_OutsideRequest_NotCounted() {
+        statementCounter.inspect("select 1");
+
+        assertEquals(0, statementCounter.stop());
+    }
+}
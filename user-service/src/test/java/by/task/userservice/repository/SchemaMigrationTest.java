@@ -0,0 +1,187 @@
+package by.task.userservice.repository;
+
+import by.task.userevents.UserEventType;
+import by.task.userservice.model.OutboxEvent;
+import by.task.userservice.model.User;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Миграции Flyway на настоящем PostgreSQL: схема совпадает с сущностями ({@code ddl-auto=validate})
+ * и накатывается поверх базы, созданной прежним ddl-auto или schema.sql реактивного сервиса.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaMigrationTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void migratedSchema_MatchesEntities_AndComputesEmailDomain() {
+        User user = userRepository.saveAndFlush(new User("Test User", "user@test.com", 30));
+        entityManager.clear();
+
+        User saved = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals("test.com", saved.getEmailDomain());
+        assertEquals(0L, saved.getVersion());
+    }
+
+    @Test
+    void outboxSequence_IssuesIdsOneByOne() {
+        OutboxEvent first = entityManager.persistAndFlush(new OutboxEvent(1L, UserEventType.CREATED, "a@test.com"));
+        OutboxEvent second = entityManager.persistAndFlush(new OutboxEvent(1L, UserEventType.DELETED, "a@test.com"));
+
+        assertEquals(first.getId() + 1, second.getId());
+    }
+
+    @Test
+    void emailIndex_RejectsCaseVariantOfExistingEmail() throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            statement.execute("INSERT INTO users (id, name, email, age, created_at, version) "
+                    + "VALUES (nextval('users_seq'), 'Lower', 'case@test.com', 30, now(), 0)");
+
+            SQLException duplicate = assertThrows(SQLException.class, () -> statement.execute(
+                    "INSERT INTO users (id, name, email, age, created_at, version) "
+                            + "VALUES (nextval('users_seq'), 'Upper', 'Case@Test.com', 30, now(), 0)"));
+            assertEquals("23505", duplicate.getSQLState());
+            connection.rollback();
+        }
+    }
+
+    @Test
+    void migration_OnLegacySchema_AddsMissingColumnsAndKeepsRows() throws SQLException {
+        DataSource legacy = createLegacyDatabase("legacy",
+                "(1, 'Old User', 'old@legacy.org', 40, now()), (30, 'Another User', ' Another@Legacy.ORG ', 25, now())");
+
+        Flyway.configure().dataSource(legacy).baselineOnMigrate(true).baselineVersion("0").load().migrate();
+
+        try (Connection connection = legacy.getConnection(); Statement statement = connection.createStatement();
+             ResultSet row = statement.executeQuery("SELECT email_domain, version FROM users WHERE id = 1")) {
+            assertTrue(row.next());
+            assertEquals("legacy.org", row.getString("email_domain"));
+            assertEquals(0L, row.getLong("version"));
+        }
+        try (Connection connection = legacy.getConnection(); Statement statement = connection.createStatement();
+             ResultSet row = statement.executeQuery("SELECT u.email, u.email_domain, u.version, o.operation "
+                     + "FROM users u JOIN user_outbox o ON o.user_id = u.id WHERE u.id = 30")) {
+            assertTrue(row.next());
+            assertEquals("another@legacy.org", row.getString("email"));
+            assertEquals("legacy.org", row.getString("email_domain"));
+            assertEquals(1L, row.getLong("version"));
+            assertEquals("UPDATED", row.getString("operation"));
+            assertFalse(row.next());
+        }
+        assertNewUsersGetFreeIds(legacy, 30);
+    }
+
+    @Test
+    void migration_OnLegacyCaseVariantDuplicates_StopsWithoutChangingRows() throws SQLException {
+        DataSource legacy = createLegacyDatabase("legacy_duplicates",
+                "(1, 'Upper', 'Twin@Legacy.org', 40, now()), (2, 'Lower', 'twin@legacy.org', 25, now())");
+        Flyway flyway = Flyway.configure().dataSource(legacy).baselineOnMigrate(true).baselineVersion("0").load();
+
+        FlywayException failure = assertThrows(FlywayException.class, flyway::migrate);
+
+        assertTrue(failure.getMessage().contains("shared by several users"), failure.getMessage());
+        try (Connection connection = legacy.getConnection(); Statement statement = connection.createStatement();
+             ResultSet row = statement.executeQuery("SELECT email FROM users WHERE id = 1")) {
+            assertTrue(row.next());
+            assertEquals("Twin@Legacy.org", row.getString("email"));
+        }
+    }
+
+    /**
+     * Создаёт базу в том виде, в каком её оставлял ddl-auto до появления миграций.
+     *
+     * @param rows строки для {@code INSERT INTO users VALUES ...}
+     */
+    private static DataSource createLegacyDatabase(String name, String rows) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name);
+        }
+        DataSource legacy = postgres.getDatabase("postgres", name);
+        try (Connection connection = legacy.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                    + "email VARCHAR(255) NOT NULL UNIQUE, age INTEGER NOT NULL, created_at TIMESTAMP(6) NOT NULL)");
+            statement.execute("INSERT INTO users VALUES " + rows);
+        }
+        return legacy;
+    }
+
+    /**
+     * Вставляет пользователей через JPA поверх указанной базы: id из последовательности
+     * не должны совпасть с уже занятыми.
+     */
+    private static void assertNewUsersGetFreeIds(DataSource dataSource, long maxExistingId) {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(User.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "validate"));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory factory = factoryBean.getObject();
+        try (EntityManager entityManager = factory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            User first = new User("New User", "new@legacy.org", 20);
+            User second = new User("Newer User", "newer@legacy.org", 21);
+            entityManager.persist(first);
+            entityManager.persist(second);
+            entityManager.getTransaction().commit();
+
+            assertTrue(first.getId() > maxExistingId, "id " + first.getId() + " is already taken");
+            assertTrue(second.getId() > maxExistingId, "id " + second.getId() + " is already taken");
+            assertEquals(4L, entityManager.createQuery("SELECT count(u) FROM User u", Long.class)
+                    .getSingleResult());
+        } finally {
+            factoryBean.destroy();
+        }
+    }
+}
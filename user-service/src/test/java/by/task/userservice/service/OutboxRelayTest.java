@@ -0,0 +1,209 @@
+package by.task.userservice.service;
+
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventType;
+import by.task.userservice.config.ResilienceConfig;
+import by.task.userservice.config.UserEventsProperties;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.event.UserEventPublisher;
+import by.task.userservice.event.UserSnapshotPublisher;
+import by.task.userservice.mapper.UserMapper;
+import by.task.userservice.model.OutboxEvent;
+import by.task.userservice.model.User;
+import by.task.userservice.repository.OutboxEventRepository;
+import by.task.userservice.repository.UserRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final String TOPIC = "user-events";
+    private static final String SNAPSHOTS_TOPIC = "user-snapshots";
+    private static final int BATCH_SIZE = 2;
+    private static final String EMAIL = "user@test.com";
+    private static final String OTHER_EMAIL = "other@test.com";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, UserEvent> kafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, UserResponseDTO> snapshotKafkaTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        UserEventsProperties properties = new UserEventsProperties(TOPIC, 3, (short) 1,
+                new UserEventsProperties.Outbox(BATCH_SIZE, Duration.ofMillis(500), Duration.ofSeconds(1)),
+                new UserEventsProperties.Producer(131072, Duration.ofMillis(20), "lz4", 5, true),
+                new UserEventsProperties.Snapshots(SNAPSHOTS_TOPIC, 1000, Duration.ofDays(1)));
+        outboxRelay = new OutboxRelay(outboxEventRepository, new UserEventPublisher(kafkaTemplate, properties),
+                new UserSnapshotPublisher(snapshotKafkaTemplate, properties), userRepository, userMapper,
+                transactionManager, properties,
+                new SyncTaskExecutor(), circuitBreakerRegistry, meterRegistry);
+    }
+
+    @Test
+    void relayBatch_PendingEvents_SendsInOrderAndDeletesAfterAck() {
+        OutboxEvent created = createOutboxEvent(1L, 10L, UserEventType.CREATED, EMAIL);
+        OutboxEvent deleted = createOutboxEvent(2L, 10L, UserEventType.DELETED, EMAIL);
+
+        when(outboxEventRepository.tryAcquireRelayLock(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(true);
+        when(outboxEventRepository.findAllByOrderByIdAsc(Limit.of(BATCH_SIZE))).thenReturn(List.of(created, deleted));
+        when(kafkaTemplate.send(eq(TOPIC), eq("10"), any(UserEvent.class))).thenReturn(acknowledged());
+        when(snapshotKafkaTemplate.send(eq(SNAPSHOTS_TOPIC), eq("10"), isNull())).thenReturn(snapshotAcknowledged());
+
+        int relayed = outboxRelay.relayBatch(BATCH_SIZE);
+
+        assertEquals(BATCH_SIZE, relayed);
+        ArgumentCaptor<UserEvent> events = ArgumentCaptor.forClass(UserEvent.class);
+        InOrder order = inOrder(kafkaTemplate, outboxEventRepository);
+        order.verify(kafkaTemplate, times(2)).send(eq(TOPIC), eq("10"), events.capture());
+        order.verify(kafkaTemplate).flush();
+        order.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(UserEventType.CREATED, events.getAllValues().get(0).getOperation());
+        assertEquals(UserEventType.DELETED, events.getAllValues().get(1).getOperation());
+        assertEquals(2L, events.getAllValues().get(1).getEventId());
+        verify(snapshotKafkaTemplate).send(eq(SNAPSHOTS_TOPIC), eq("10"), isNull());
+        verify(snapshotKafkaTemplate).flush();
+        assertEquals(BATCH_SIZE, meterRegistry.get("outbox.relay.send").tag("outcome", "success").timer().count());
+        assertEquals(BATCH_SIZE, meterRegistry.get("outbox.relay.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void relayBatch_SendFailed_KeepsEventsInOutbox() {
+        OutboxEvent created = createOutboxEvent(1L, 10L, UserEventType.CREATED, EMAIL);
+
+        when(outboxEventRepository.tryAcquireRelayLock(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(true);
+        when(outboxEventRepository.findAllByOrderByIdAsc(Limit.of(BATCH_SIZE))).thenReturn(List.of(created));
+        when(kafkaTemplate.send(anyString(), anyString(), any(UserEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+        when(snapshotKafkaTemplate.send(eq(SNAPSHOTS_TOPIC), eq("10"), isNull())).thenReturn(snapshotAcknowledged());
+
+        assertThrows(IllegalStateException.class, () -> outboxRelay.relayBatch(BATCH_SIZE));
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        assertEquals(1, meterRegistry.get("outbox.relay.send").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void relayBatch_LockHeldByAnotherInstance_SkipsBatch() {
+        when(outboxEventRepository.tryAcquireRelayLock(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(false);
+
+        assertEquals(0, outboxRelay.relayBatch(BATCH_SIZE));
+        verify(outboxEventRepository, never()).findAllByOrderByIdAsc(any());
+        verifyNoInteractions(kafkaTemplate, snapshotKafkaTemplate);
+    }
+
+    @Test
+    void relayBatch_SeveralEventsOfExistingUser_PublishesLatestSnapshotOnce() {
+        User user = new User("Test User", EMAIL, 30);
+        user.setId(10L);
+        UserResponseDTO snapshot = new UserResponseDTO(10L, "Test User", EMAIL, 30, null);
+        snapshot.setVersion(1L);
+
+        when(outboxEventRepository.tryAcquireRelayLock(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(true);
+        when(outboxEventRepository.findAllByOrderByIdAsc(Limit.of(BATCH_SIZE)))
+                .thenReturn(List.of(createOutboxEvent(1L, 10L, UserEventType.CREATED, EMAIL),
+                        createOutboxEvent(2L, 10L, UserEventType.UPDATED, EMAIL)));
+        when(kafkaTemplate.send(eq(TOPIC), eq("10"), any(UserEvent.class))).thenReturn(acknowledged());
+        when(userRepository.findAllById(Set.of(10L))).thenReturn(List.of(user));
+        when(userMapper.toDTO(user)).thenReturn(snapshot);
+        when(snapshotKafkaTemplate.send(SNAPSHOTS_TOPIC, "10", snapshot)).thenReturn(snapshotAcknowledged());
+
+        assertEquals(BATCH_SIZE, outboxRelay.relayBatch(BATCH_SIZE));
+
+        verify(snapshotKafkaTemplate, times(1)).send(anyString(), anyString(), any());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void relay_FullBatches_DrainsUntilPartialBatch() {
+        when(outboxEventRepository.tryAcquireRelayLock(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(true);
+        when(outboxEventRepository.findAllByOrderByIdAsc(Limit.of(BATCH_SIZE)))
+                .thenReturn(List.of(createOutboxEvent(1L, 10L, UserEventType.CREATED, EMAIL),
+                        createOutboxEvent(2L, 11L, UserEventType.CREATED, OTHER_EMAIL)))
+                .thenReturn(Collections.emptyList());
+        when(kafkaTemplate.send(anyString(), anyString(), any(UserEvent.class))).thenReturn(acknowledged());
+        when(snapshotKafkaTemplate.send(eq(SNAPSHOTS_TOPIC), anyString(), isNull())).thenReturn(snapshotAcknowledged());
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(2)).findAllByOrderByIdAsc(Limit.of(BATCH_SIZE));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void relay_KafkaCircuitOpen_KeepsEventsInOutbox() {
+        circuitBreakerRegistry.circuitBreaker(ResilienceConfig.KAFKA).transitionToOpenState();
+        when(outboxEventRepository.tryAcquireRelayLock(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(true);
+        when(outboxEventRepository.findAllByOrderByIdAsc(Limit.of(BATCH_SIZE)))
+                .thenReturn(List.of(createOutboxEvent(1L, 10L, UserEventType.CREATED, EMAIL)));
+
+        outboxRelay.relay();
+
+        verifyNoInteractions(kafkaTemplate, snapshotKafkaTemplate);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private CompletableFuture<SendResult<String, UserEvent>> acknowledged() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private CompletableFuture<SendResult<String, UserResponseDTO>> snapshotAcknowledged() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private OutboxEvent createOutboxEvent(Long id, Long userId, UserEventType operation, String email) {
+        OutboxEvent event = new OutboxEvent(userId, operation, email);
+        event.setId(id);
+        return event;
+    }
+}
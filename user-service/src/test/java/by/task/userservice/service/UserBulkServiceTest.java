@@ -0,0 +1,239 @@
+package by.task.userservice.service;
+
+import by.task.userevents.UserEventType;
+import by.task.userservice.config.CacheConfig;
+import by.task.userservice.config.UserBulkProperties;
+import by.task.userservice.dto.BulkItemStatus;
+import by.task.userservice.dto.BulkUserResultDTO;
+import by.task.userservice.dto.UserRequestDTO;
+import by.task.userservice.email.EmailFilter;
+import by.task.userservice.exception.service.InvalidUserException;
+import by.task.userservice.mapper.UserMapper;
+import by.task.userservice.model.User;
+import by.task.userservice.repository.UserRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserBulkServiceTest {
+
+    private static final String NAME = "Test User";
+    private static final String EMAIL = "user@test.com";
+    private static final String EXISTING_EMAIL = "existing@test.com";
+    private static final String OTHER_EMAIL = "other@test.com";
+    private static final int AGE = 30;
+    private static final int MAX_ITEMS = 10;
+    private static final int CHUNK_SIZE = 2;
+    private static final Long ID = 1L;
+    private static final Long MISSING_ID = 999L;
+
+    private static ValidatorFactory validatorFactory;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private UserEventOutbox userEventOutbox;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache usersCache;
+
+    @Mock
+    private EmailFilter emailFilter;
+
+    private UserBulkService userBulkService;
+
+    @BeforeAll
+    static void createValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = validatorFactory.getValidator();
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+        userBulkService = new UserBulkService(userRepository, userMapper, userEventOutbox, validator,
+                entityManager, transactionManager, new UserBulkProperties(MAX_ITEMS, CHUNK_SIZE), cacheManager,
+                emailFilter, CircuitBreakerRegistry.ofDefaults());
+    }
+
+    @Test
+    void createUsers_MixedInput_ReturnsResultPerItem() {
+        List<UserRequestDTO> requests = List.of(
+                new UserRequestDTO(NAME, EMAIL, AGE),
+                new UserRequestDTO(" ", "invalid-email", AGE),
+                new UserRequestDTO(NAME, EMAIL, AGE),
+                new UserRequestDTO(NAME, EXISTING_EMAIL, AGE),
+                new UserRequestDTO(NAME, OTHER_EMAIL, AGE));
+        AtomicLong ids = new AtomicLong(ID);
+
+        when(emailFilter.mightExist(anyString())).thenReturn(true);
+        when(userRepository.findExistingEmails(anyList()))
+                .thenAnswer(invocation -> invocation.<List<String>>getArgument(0).contains(EXISTING_EMAIL)
+                        ? Set.of(EXISTING_EMAIL) : Collections.emptySet());
+        when(userMapper.toEntity(any(UserRequestDTO.class)))
+                .thenAnswer(invocation -> toUser(invocation.getArgument(0)));
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(ids.getAndIncrement()));
+            return users;
+        });
+
+        List<BulkUserResultDTO> results = userBulkService.createUsers(requests);
+
+        assertEquals(requests.size(), results.size());
+        assertEquals(BulkItemStatus.CREATED, results.get(0).getStatus());
+        assertEquals(ID, results.get(0).getId());
+        assertEquals(BulkItemStatus.INVALID, results.get(1).getStatus());
+        assertEquals(BulkItemStatus.DUPLICATE, results.get(2).getStatus());
+        assertEquals(BulkItemStatus.DUPLICATE, results.get(3).getStatus());
+        assertEquals(BulkItemStatus.CREATED, results.get(4).getStatus());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        verify(userRepository, times(2)).saveAll(anyList());
+        verify(userEventOutbox, times(2)).appendAll(any(UserEventType.class), anyList());
+        verify(entityManager, times(2)).clear();
+        verify(emailFilter).add(EMAIL);
+        verify(emailFilter).add(OTHER_EMAIL);
+    }
+
+    @Test
+    void createUsers_FilterRulesOutAllEmails_SkipsExistingEmailsQuery() {
+        List<UserRequestDTO> requests = List.of(
+                new UserRequestDTO(NAME, EMAIL, AGE),
+                new UserRequestDTO(NAME, OTHER_EMAIL, AGE));
+
+        when(emailFilter.mightExist(anyString())).thenReturn(false);
+        when(userMapper.toEntity(any(UserRequestDTO.class)))
+                .thenAnswer(invocation -> toUser(invocation.getArgument(0)));
+
+        List<BulkUserResultDTO> results = userBulkService.createUsers(requests);
+
+        assertEquals(BulkItemStatus.CREATED, results.get(0).getStatus());
+        assertEquals(BulkItemStatus.CREATED, results.get(1).getStatus());
+        verify(userRepository, never()).findExistingEmails(anyList());
+    }
+
+    @Test
+    void createUsers_ChunkFails_MarksOnlyThatChunkFailed() {
+        List<UserRequestDTO> requests = List.of(
+                new UserRequestDTO(NAME, EMAIL, AGE),
+                new UserRequestDTO(NAME, OTHER_EMAIL, AGE));
+
+        when(emailFilter.mightExist(anyString())).thenReturn(true);
+        when(userRepository.findExistingEmails(anyList())).thenReturn(Collections.emptySet());
+        when(userMapper.toEntity(any(UserRequestDTO.class)))
+                .thenAnswer(invocation -> toUser(invocation.getArgument(0)));
+        when(userRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        List<BulkUserResultDTO> results = userBulkService.createUsers(requests);
+
+        assertEquals(BulkItemStatus.FAILED, results.get(0).getStatus());
+        assertEquals(BulkItemStatus.FAILED, results.get(1).getStatus());
+    }
+
+    @Test
+    void createUsers_EmailTakenByAnotherInstance_RetriesChunkAndReportsDuplicate() {
+        List<UserRequestDTO> requests = List.of(
+                new UserRequestDTO(NAME, EMAIL, AGE),
+                new UserRequestDTO(NAME, OTHER_EMAIL, AGE));
+        AtomicLong ids = new AtomicLong(ID);
+
+        when(emailFilter.mightExist(anyString())).thenReturn(false);
+        when(userRepository.findExistingEmails(List.of(EMAIL, OTHER_EMAIL))).thenReturn(Set.of(EMAIL));
+        when(userMapper.toEntity(any(UserRequestDTO.class)))
+                .thenAnswer(invocation -> toUser(invocation.getArgument(0)));
+        when(userRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenAnswer(invocation -> {
+                    List<User> users = invocation.getArgument(0);
+                    users.forEach(user -> user.setId(ids.getAndIncrement()));
+                    return users;
+                });
+
+        List<BulkUserResultDTO> results = userBulkService.createUsers(requests);
+
+        assertEquals(BulkItemStatus.DUPLICATE, results.get(0).getStatus());
+        assertEquals(BulkItemStatus.CREATED, results.get(1).getStatus());
+        assertEquals(OTHER_EMAIL, results.get(1).getEmail());
+    }
+
+    @Test
+    void createUsers_TooManyItems_ThrowsException() {
+        List<UserRequestDTO> requests = Collections.nCopies(MAX_ITEMS + 1, new UserRequestDTO(NAME, EMAIL, AGE));
+
+        assertThrows(InvalidUserException.class, () -> userBulkService.createUsers(requests));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void deleteUsers_ExistingAndMissing_ReturnsResultPerItem() {
+        User user = toUser(new UserRequestDTO(NAME, EMAIL, AGE));
+        user.setId(ID);
+
+        when(userRepository.findAllById(List.of(ID, MISSING_ID))).thenReturn(List.of(user));
+
+        List<BulkUserResultDTO> results = userBulkService.deleteUsers(List.of(ID, MISSING_ID, ID));
+
+        assertEquals(BulkItemStatus.DELETED, results.get(0).getStatus());
+        assertEquals(EMAIL, results.get(0).getEmail());
+        assertEquals(BulkItemStatus.NOT_FOUND, results.get(1).getStatus());
+        assertEquals(BulkItemStatus.DUPLICATE, results.get(2).getStatus());
+        verify(userRepository).deleteAllByIdInBatch(Set.of(ID));
+        verify(userEventOutbox).appendAll(UserEventType.DELETED, List.of(user));
+        verify(usersCache).evict(ID);
+        verify(usersCache, never()).evict(MISSING_ID);
+    }
+
+    private User toUser(UserRequestDTO dto) {
+        return new User(dto.getName(), dto.getEmail(), dto.getAge());
+    }
+}
@@ -0,0 +1,67 @@
+package by.task.userservice.service;
+
+import by.task.userevents.UserEvent;
+import by.task.userevents.UserEventType;
+import by.task.userservice.config.CacheConfig;
+import by.task.userservice.email.EmailFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheInvalidationListenerTest {
+
+    private static final Long ID = 1L;
+    private static final String EMAIL = "user@test.com";
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache usersCache;
+
+    @Mock
+    private EmailFilter emailFilter;
+
+    private UserCacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+        listener = new UserCacheInvalidationListener(cacheManager, emailFilter);
+    }
+
+    @Test
+    void onUserEvent_Updated_EvictsUser() {
+        listener.onUserEvent(new UserEvent(ID, UserEventType.UPDATED, EMAIL));
+
+        verify(usersCache).evict(ID);
+        verify(emailFilter).add(EMAIL);
+    }
+
+    @Test
+    void onUserEvent_Deleted_EvictsUser() {
+        listener.onUserEvent(new UserEvent(ID, UserEventType.DELETED, EMAIL));
+
+        verify(usersCache).evict(ID);
+        verify(emailFilter, never()).add(any());
+    }
+
+    @Test
+    void onUserEvent_Created_KeepsCacheAndAddsEmail() {
+        listener.onUserEvent(new UserEvent(ID, UserEventType.CREATED, EMAIL));
+
+        verifyNoInteractions(usersCache);
+        verify(emailFilter).add(EMAIL);
+    }
+}
@@ -0,0 +1,281 @@
+package by.task.userservice.service;
+
+import by.task.userservice.config.CacheConfig;
+import by.task.userservice.config.ResilienceConfig;
+import by.task.userservice.config.UserBulkProperties;
+import by.task.userservice.config.UserCacheProperties;
+import by.task.userservice.dto.BulkItemStatus;
+import by.task.userservice.dto.BulkUserResultDTO;
+import by.task.userservice.dto.UserFilter;
+import by.task.userservice.dto.UserRequestDTO;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.email.EmailFilter;
+import by.task.userservice.exception.service.UserNotFoundException;
+import by.task.userservice.mapper.UserMapper;
+import by.task.userservice.model.User;
+import by.task.userservice.repository.UserRepository;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.BulkheadAutoConfiguration;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверяет, что аннотации breaker'а и bulkhead'а на {@link UserService} действительно применяются
+ * вместе с настоящим {@link CacheConfig}, что кэш стоит снаружи них и что запасные пути срабатывают
+ * только на недоступность базы.
+ */
+@SpringBootTest(classes = {UserService.class, UserBulkService.class, CacheConfig.class}, properties = {
+        "resilience4j.circuitbreaker.instances.postgres.sliding-window-size=4",
+        "resilience4j.circuitbreaker.instances.postgres.minimum-number-of-calls=4",
+        "resilience4j.circuitbreaker.instances.postgres.failure-rate-threshold=50",
+        "resilience4j.circuitbreaker.instances.postgres.wait-duration-in-open-state=1m",
+        "resilience4j.circuitbreaker.instances.postgres.record-failure-predicate="
+                + "by.task.userservice.config.DatabaseFailurePredicate",
+        "resilience4j.bulkhead.instances.user-writes.max-concurrent-calls=1",
+        "resilience4j.bulkhead.instances.user-writes.max-wait-duration=0",
+        "resilience4j.bulkhead.instances.user-reads.max-concurrent-calls=1",
+        "resilience4j.bulkhead.instances.user-reads.max-wait-duration=0",
+        "users.bulk.chunk-size=1"
+})
+@EnableConfigurationProperties({UserCacheProperties.class, UserBulkProperties.class})
+@ImportAutoConfiguration({AopAutoConfiguration.class, CircuitBreakerAutoConfiguration.class,
+        BulkheadAutoConfiguration.class, ValidationAutoConfiguration.class})
+class UserServiceResilienceTest {
+
+    private static final Long ID = 1L;
+    private static final String EMAIL = "user@test.com";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private UserMapper userMapper;
+
+    @MockitoBean
+    private UserEventOutbox userEventOutbox;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private EmailFilter emailFilter;
+
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry.circuitBreaker(ResilienceConfig.POSTGRES).reset();
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+    }
+
+    @Test
+    void getUserById_DatabaseDown_ServedFromCache() {
+        UserResponseDTO cached = new UserResponseDTO(ID, "Cached", EMAIL, 30, LocalDateTime.now());
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(ID, cached);
+        when(userRepository.findById(ID)).thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        assertSame(cached, userService.getUserById(ID));
+    }
+
+    @Test
+    void getUserById_Cached_TakesNoBulkheadPermitAndIsNotRecordedByBreaker() {
+        UserResponseDTO cached = new UserResponseDTO(ID, "Cached", EMAIL, 30, LocalDateTime.now());
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(ID, cached);
+        Bulkhead reads = bulkheadRegistry.bulkhead(ResilienceConfig.USER_READS);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(ResilienceConfig.POSTGRES);
+        assertTrue(reads.tryAcquirePermission());
+        try {
+            assertSame(cached, userService.getUserById(ID));
+            assertEquals(0, circuitBreaker.getMetrics().getNumberOfBufferedCalls());
+            assertThrows(BulkheadFullException.class, () -> userService.getUserById(2L));
+        } finally {
+            reads.onComplete();
+        }
+
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getUserById_CacheMiss_CachedForNextCall() {
+        User user = new User("Test User", EMAIL, 30);
+        UserResponseDTO response = new UserResponseDTO(ID, "Test User", EMAIL, 30, LocalDateTime.now());
+        when(userRepository.findById(ID)).thenReturn(Optional.of(user));
+        when(userMapper.toDTO(user)).thenReturn(response);
+
+        assertSame(response, userService.getUserById(ID));
+        assertSame(response, userService.getUserById(ID));
+
+        verify(userRepository).findById(ID);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(ResilienceConfig.POSTGRES);
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfBufferedCalls());
+    }
+
+    @Test
+    void getUserById_BreakerOpen_ServedFromCache() {
+        UserResponseDTO cached = new UserResponseDTO(ID, "Cached", EMAIL, 30, LocalDateTime.now());
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(ID, cached);
+        circuitBreakerRegistry.circuitBreaker(ResilienceConfig.POSTGRES).transitionToOpenState();
+
+        assertSame(cached, userService.getUserById(ID));
+        assertThrows(CallNotPermittedException.class, () -> userService.getUserById(2L));
+    }
+
+    @Test
+    void getUserById_DatabaseDownAndNotCached_Rethrows() {
+        when(userRepository.findById(ID)).thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> userService.getUserById(ID));
+    }
+
+    @Test
+    void getUserVersion_DatabaseDown_ServedFromCache() {
+        UserResponseDTO cached = new UserResponseDTO(ID, "Cached", EMAIL, 30, LocalDateTime.now());
+        cached.setVersion(3L);
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(ID, cached);
+        when(userRepository.findVersionById(ID)).thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        assertEquals(3L, userService.getUserVersion(ID));
+    }
+
+    @Test
+    void getUserById_NotFound_NotCountedAsDatabaseFailure() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(UserNotFoundException.class, () -> userService.getUserById(ID));
+        }
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(ResilienceConfig.POSTGRES);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void databaseFailures_OpenBreaker_RejectWithoutDatabaseCall() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(DataAccessResourceFailureException.class,
+                    () -> userService.getUsersPage(null, 10, UserFilter.NONE));
+        }
+
+        assertThrows(CallNotPermittedException.class, () -> userService.getUserVersion(ID));
+        verify(userRepository, never()).findVersionById(ID);
+    }
+
+    @Test
+    void createUser_WriteBulkheadFull_RejectsImmediately() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        User user = new User("Test User", EMAIL, 30);
+        when(userMapper.toEntity(any(UserRequestDTO.class))).thenReturn(user);
+        when(userRepository.save(user)).thenAnswer(invocation -> {
+            saving.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return user;
+        });
+        UserRequestDTO request = new UserRequestDTO("Test User", EMAIL, 30);
+        CompletableFuture<UserResponseDTO> first = CompletableFuture.supplyAsync(() -> userService.createUser(request));
+        assertEquals(true, saving.await(5, TimeUnit.SECONDS));
+
+        assertThrows(BulkheadFullException.class, () -> userService.createUser(request));
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void bulkOperations_BreakerOpen_RejectedWithoutDatabaseCall() {
+        circuitBreakerRegistry.circuitBreaker(ResilienceConfig.POSTGRES).transitionToOpenState();
+
+        assertThrows(CallNotPermittedException.class,
+                () -> userBulkService.createUsers(List.of(new UserRequestDTO("Test User", EMAIL, 30))));
+        assertThrows(CallNotPermittedException.class, () -> userBulkService.deleteUsers(List.of(ID)));
+        verify(userRepository, never()).saveAll(anyList());
+        verify(userRepository, never()).findAllById(anyList());
+    }
+
+    @Test
+    void createUsersBulk_DatabaseDown_ChunkFailuresOpenBreakerAndStopLaterChunks() {
+        when(userRepository.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        List<UserRequestDTO> requests = List.of(
+                new UserRequestDTO("Test User", "user1@test.com", 30),
+                new UserRequestDTO("Test User", "user2@test.com", 30),
+                new UserRequestDTO("Test User", "user3@test.com", 30),
+                new UserRequestDTO("Test User", "user4@test.com", 30),
+                new UserRequestDTO("Test User", "user5@test.com", 30),
+                new UserRequestDTO("Test User", "user6@test.com", 30));
+
+        List<BulkUserResultDTO> results = userBulkService.createUsers(requests);
+
+        results.forEach(result -> assertEquals(BulkItemStatus.FAILED, result.getStatus()));
+        verify(userRepository, times(4)).saveAll(anyList());
+        assertEquals(CircuitBreaker.State.OPEN,
+                circuitBreakerRegistry.circuitBreaker(ResilienceConfig.POSTGRES).getState());
+    }
+
+    @Test
+    void deleteUsersBulk_WriteBulkheadFull_RejectsImmediately() {
+        Bulkhead writes = bulkheadRegistry.bulkhead(ResilienceConfig.USER_WRITES);
+        assertTrue(writes.tryAcquirePermission());
+        try {
+            assertThrows(BulkheadFullException.class, () -> userBulkService.deleteUsers(List.of(ID)));
+        } finally {
+            writes.onComplete();
+        }
+        verify(userRepository, never()).findAllById(anyList());
+    }
+}
@@ -1,28 +1,48 @@
 package by.task.userservice.service;
 
+import by.task.userevents.UserEventType;
+import by.task.userservice.dto.UserField;
+import by.task.userservice.dto.UserFieldsDTO;
+import by.task.userservice.dto.UserFieldsPageDTO;
+import by.task.userservice.dto.UserFilter;
+import by.task.userservice.dto.UserPageDTO;
 import by.task.userservice.dto.UserRequestDTO;
 import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.email.EmailFilter;
+import by.task.userservice.exception.service.DuplicateEmailException;
 import by.task.userservice.exception.service.EmptyUserListException;
 import by.task.userservice.exception.service.InvalidUserException;
 import by.task.userservice.exception.service.UserNotFoundException;
+import by.task.userservice.exception.service.UserVersionMismatchException;
 import by.task.userservice.mapper.UserMapper;
 import by.task.userservice.model.User;
 import by.task.userservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -41,6 +61,9 @@ class UserServiceTest {
     private static final String EMPTY_STRING = " ";
     private static final int EXPECTED_LIST_SIZE = 1;
     private static final int FIRST_ELEMENT_INDEX = 0;
+    private static final int PAGE_SIZE = 1;
+    private static final long FIRST_PAGE_CURSOR = 0L;
+    private static final Long VERSION = 3L;
 
     @Mock
     private UserRepository userRepository;
@@ -48,6 +71,18 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserEventOutbox userEventOutbox;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EmailFilter emailFilter;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private UserService userService;
 
@@ -66,10 +101,72 @@ class UserServiceTest {
 
         assertSame(expectedResponse, result);
         verify(userMapper).toEntity(requestDTO);
+        verify(userRepository, never()).existsByEmail(any());
         verify(userRepository).save(userEntity);
+        verify(userEventOutbox).append(UserEventType.CREATED, savedUser);
+        verify(emailFilter).add(EMAIL);
         verify(userMapper).toDTO(savedUser);
     }
 
+    @Test
+    void createUser_FilterHitOnExistingEmail_ThrowsDuplicate() {
+        UserRequestDTO requestDTO = createValidRequestDTO();
+        User userEntity = createValidUserWithoutId();
+
+        when(userMapper.toEntity(requestDTO)).thenReturn(userEntity);
+        when(emailFilter.mightExist(EMAIL)).thenReturn(true);
+        when(userRepository.existsByEmail(EMAIL)).thenReturn(true);
+
+        assertThrows(DuplicateEmailException.class, () -> userService.createUser(requestDTO));
+        verify(userRepository, never()).save(any());
+        verifyNoInteractions(userEventOutbox);
+    }
+
+    @Test
+    void createUser_FilterFalsePositive_ChecksDatabaseAndSaves() {
+        UserRequestDTO requestDTO = createValidRequestDTO();
+        User userEntity = createValidUserWithoutId();
+        User savedUser = createTestUser(ID);
+
+        when(userMapper.toEntity(requestDTO)).thenReturn(userEntity);
+        when(emailFilter.mightExist(EMAIL)).thenReturn(true);
+        when(userRepository.existsByEmail(EMAIL)).thenReturn(false);
+        when(userRepository.save(userEntity)).thenReturn(savedUser);
+
+        userService.createUser(requestDTO);
+
+        verify(userRepository).save(userEntity);
+    }
+
+    @Test
+    void getUserByEmail_MixedCase_LooksUpNormalizedEmail() {
+        User user = createTestUser(ID);
+        UserResponseDTO expectedResponse = createTestResponseDTO(ID);
+
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(userMapper.toDTO(user)).thenReturn(expectedResponse);
+
+        assertSame(expectedResponse, userService.getUserByEmail(" User@Test.COM "));
+    }
+
+    @Test
+    void getUserByEmail_UnknownToFilter_StillQueriesDatabase() {
+        User user = createTestUser(ID);
+        UserResponseDTO expectedResponse = createTestResponseDTO(ID);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(userMapper.toDTO(user)).thenReturn(expectedResponse);
+
+        assertSame(expectedResponse, userService.getUserByEmail(EMAIL));
+        verify(emailFilter, never()).mightExist(any());
+    }
+
+    @Test
+    void getUserByEmail_NotInDatabase_ThrowsNotFound() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserByEmail(EMAIL));
+    }
+
     @Test
     void createUser_InvalidName_ThrowsException() {
         UserRequestDTO invalidRequest = createValidRequestDTO();
@@ -83,6 +180,7 @@ class UserServiceTest {
         assertThrows(InvalidUserException.class, () -> userService.createUser(invalidRequest));
         verify(userMapper).toEntity(invalidRequest);
         verifyNoInteractions(userRepository);
+        verifyNoInteractions(userEventOutbox);
     }
 
     @Test
@@ -113,37 +211,103 @@ class UserServiceTest {
     }
 
     @Test
-    void getAllUsers_WithUsers_ReturnsList() {
+    void getUsersPage_WithUsers_ReturnsPageWithoutCursor() {
         User user = createTestUser(ID);
         UserResponseDTO expectedResponse = createTestResponseDTO(ID);
 
-        when(userRepository.findAll()).thenReturn(List.of(user));
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(FIRST_PAGE_CURSOR, Limit.of(PAGE_SIZE + 1)))
+                .thenReturn(List.of(user));
         when(userMapper.toDTO(user)).thenReturn(expectedResponse);
 
-        List<UserResponseDTO> result = userService.getAllUsers();
+        UserPageDTO result = userService.getUsersPage(null, PAGE_SIZE, UserFilter.NONE);
 
-        assertFalse(result.isEmpty());
-        assertEquals(EXPECTED_LIST_SIZE, result.size());
-        assertSame(expectedResponse, result.get(FIRST_ELEMENT_INDEX));
-        verify(userRepository).findAll();
+        assertFalse(result.getItems().isEmpty());
+        assertEquals(EXPECTED_LIST_SIZE, result.getItems().size());
+        assertSame(expectedResponse, result.getItems().get(FIRST_ELEMENT_INDEX));
+        assertNull(result.getNextCursor());
         verify(userMapper).toDTO(user);
     }
 
     @Test
-    void getAllUsers_EmptyList_ThrowsException() {
-        when(userRepository.findAll()).thenReturn(Collections.emptyList());
+    void getUsersPage_MoreUsersThanPageSize_ReturnsNextCursor() {
+        User first = createTestUser(ID);
+        User second = createTestUser(ID + 1);
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(FIRST_PAGE_CURSOR, Limit.of(PAGE_SIZE + 1)))
+                .thenReturn(List.of(first, second));
+        when(userMapper.toDTO(first)).thenReturn(createTestResponseDTO(ID));
+
+        UserPageDTO result = userService.getUsersPage(null, PAGE_SIZE, UserFilter.NONE);
+
+        assertEquals(EXPECTED_LIST_SIZE, result.getItems().size());
+        assertEquals(ID, result.getNextCursor());
+        verify(userMapper, never()).toDTO(second);
+    }
+
+    @Test
+    void getUsersPage_EmptyList_ThrowsException() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(FIRST_PAGE_CURSOR, Limit.of(PAGE_SIZE + 1)))
+                .thenReturn(Collections.emptyList());
 
-        assertThrows(EmptyUserListException.class, () -> userService.getAllUsers());
-        verify(userRepository).findAll();
+        assertThrows(EmptyUserListException.class, () -> userService.getUsersPage(null, PAGE_SIZE, UserFilter.NONE));
         verifyNoInteractions(userMapper);
     }
 
     @Test
-    void updateUser_ValidUser_UpdatesSuccessfully() {
-        Long userId = ID;
-        User existingUser = createTestUser(userId);
-        existingUser.setName(NAME);
+    void getUsersPage_EmptyPageAfterCursor_ReturnsEmptyPage() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(ID, Limit.of(PAGE_SIZE + 1)))
+                .thenReturn(Collections.emptyList());
+
+        UserPageDTO result = userService.getUsersPage(ID, PAGE_SIZE, UserFilter.NONE);
 
+        assertEquals(0, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getUsersPage_WithFilter_QueriesFilteredAndAllowsEmptyFirstPage() {
+        UserFilter filter = new UserFilter(18, null, null, "test.com");
+        when(userRepository.findPage(filter, FIRST_PAGE_CURSOR, PAGE_SIZE + 1)).thenReturn(Collections.emptyList());
+
+        UserPageDTO result = userService.getUsersPage(null, PAGE_SIZE, filter);
+
+        assertEquals(0, result.getItems().size());
+        verify(userRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void getUserFieldsPage_MoreUsersThanPageSize_ReturnsProjectionsAndNextCursor() {
+        Set<UserField> fields = EnumSet.of(UserField.EMAIL);
+        UserFieldsDTO first = new UserFieldsDTO(ID, null, "first@test.com", null, null, null);
+        UserFieldsDTO second = new UserFieldsDTO(ID + 1, null, "second@test.com", null, null, null);
+        when(userRepository.findFieldsPage(UserFilter.NONE, fields, FIRST_PAGE_CURSOR, PAGE_SIZE + 1))
+                .thenReturn(List.of(first, second));
+
+        UserFieldsPageDTO result = userService.getUserFieldsPage(null, PAGE_SIZE, UserFilter.NONE, fields);
+
+        assertEquals(List.of(first), result.items());
+        assertEquals(ID, result.nextCursor());
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    void streamAllUsers_WithUsers_MapsAndDetachesEachUser() {
+        User user = createTestUser(ID);
+        UserResponseDTO expectedResponse = createTestResponseDTO(ID);
+        List<UserResponseDTO> streamed = new ArrayList<>();
+
+        when(userRepository.streamAllOrderById()).thenReturn(Stream.of(user));
+        when(userMapper.toDTO(user)).thenReturn(expectedResponse);
+
+        userService.streamAllUsers(UserFilter.NONE, streamed::add);
+
+        assertEquals(List.of(expectedResponse), streamed);
+        verify(entityManager).detach(user);
+    }
+
+    @Test
+    void updateUser_ValidUser_UpdatesInSingleStatement() {
+        Long userId = ID;
         UserRequestDTO updateDTO = createValidRequestDTO();
         updateDTO.setName(ALT_NAME);
 
@@ -153,42 +317,113 @@ class UserServiceTest {
         UserResponseDTO expectedResponse = createTestResponseDTO(userId);
         expectedResponse.setName(ALT_NAME);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(existingUser)).thenReturn(updatedUser);
+        when(userRepository.updateWithEvent(eq(userId), eq(ALT_NAME), eq(EMAIL), eq(AGE), isNull(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(updatedUser));
         when(userMapper.toDTO(updatedUser)).thenReturn(expectedResponse);
 
-        UserResponseDTO result = userService.updateUser(userId, updateDTO);
+        UserResponseDTO result = userService.updateUser(userId, updateDTO, null);
 
         assertEquals(ALT_NAME, result.getName());
-        verify(userRepository).findById(userId);
-        verify(userMapper).updateEntityFromDTO(updateDTO, existingUser);
-        verify(userRepository).save(existingUser);
-        verify(userMapper).toDTO(updatedUser);
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).save(any());
+        verifyNoInteractions(userEventOutbox);
+        verify(emailFilter).add(EMAIL);
+    }
+
+    @Test
+    void updateUser_NonExistingUser_ThrowsException() {
+        when(userRepository.updateWithEvent(eq(NON_EXISTING_ID), any(), any(), any(), isNull(),
+                any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class,
+                () -> userService.updateUser(NON_EXISTING_ID, createValidRequestDTO(), null));
+        verify(userRepository, never()).existsById(any());
+        verifyNoInteractions(userMapper);
     }
 
     @Test
-    void deleteUser_ExistingUser_DeletesSuccessfully() {
+    void updateUser_StaleVersion_ThrowsVersionMismatch() {
+        when(userRepository.updateWithEvent(eq(ID), any(), any(), any(), eq(VERSION), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(userRepository.existsById(ID)).thenReturn(true);
+
+        assertThrows(UserVersionMismatchException.class,
+                () -> userService.updateUser(ID, createValidRequestDTO(), VERSION));
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    void updateUser_ExpectedVersionForMissingUser_ThrowsNotFound() {
+        when(userRepository.updateWithEvent(eq(NON_EXISTING_ID), any(), any(), any(), eq(VERSION),
+                any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(userRepository.existsById(NON_EXISTING_ID)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class,
+                () -> userService.updateUser(NON_EXISTING_ID, createValidRequestDTO(), VERSION));
+    }
+
+    @Test
+    void updateUser_BlankName_ThrowsBeforeQuery() {
+        UserRequestDTO updateDTO = createValidRequestDTO();
+        updateDTO.setName(" ");
+
+        assertThrows(InvalidUserException.class, () -> userService.updateUser(ID, updateDTO, null));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void deleteUser_ExistingUser_DeletesInSingleStatement() {
         Long userId = ID;
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.deleteWithEvent(eq(userId), eq(VERSION), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(EMAIL));
 
-        userService.deleteUser(userId);
+        userService.deleteUser(userId, VERSION);
 
-        verify(userRepository).existsById(userId);
-        verify(userRepository).deleteById(userId);
+        verify(userRepository).deleteWithEvent(eq(userId), eq(VERSION), any(LocalDateTime.class));
+        verify(userRepository, never()).findById(any());
         verifyNoInteractions(userMapper);
+        verifyNoInteractions(userEventOutbox);
     }
 
     @Test
     void deleteUser_NonExistingUser_ThrowsException() {
         Long nonExistingId = NON_EXISTING_ID;
 
-        when(userRepository.existsById(nonExistingId)).thenReturn(false);
+        when(userRepository.deleteWithEvent(eq(nonExistingId), isNull(), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
 
-        assertThrows(UserNotFoundException.class, () -> userService.deleteUser(nonExistingId));
-        verify(userRepository).existsById(nonExistingId);
-        verify(userRepository, never()).deleteById(any());
+        assertThrows(UserNotFoundException.class, () -> userService.deleteUser(nonExistingId, null));
         verifyNoInteractions(userMapper);
+        verifyNoInteractions(userEventOutbox);
+    }
+
+    @Test
+    void deleteUser_StaleVersion_ThrowsVersionMismatch() {
+        when(userRepository.deleteWithEvent(eq(ID), eq(VERSION), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(userRepository.existsById(ID)).thenReturn(true);
+
+        assertThrows(UserVersionMismatchException.class, () -> userService.deleteUser(ID, VERSION));
+        verifyNoInteractions(userEventOutbox);
+    }
+
+    @Test
+    void getUserVersion_ExistingUser_ReadsOnlyVersion() {
+        when(userRepository.findVersionById(ID)).thenReturn(Optional.of(VERSION));
+
+        assertEquals(VERSION, userService.getUserVersion(ID));
+        verify(userRepository, never()).findById(any());
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    void getUserVersion_NonExistingUser_ThrowsException() {
+        when(userRepository.findVersionById(NON_EXISTING_ID)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserVersion(NON_EXISTING_ID));
     }
 
     private User createValidUserWithoutId() {
@@ -0,0 +1,129 @@
+package by.task.userservice.service;
+
+import by.task.userservice.config.UserEventsProperties;
+import by.task.userservice.dto.UserResponseDTO;
+import by.task.userservice.event.UserSnapshotPublisher;
+import by.task.userservice.mapper.UserMapper;
+import by.task.userservice.model.User;
+import by.task.userservice.repository.OutboxEventRepository;
+import by.task.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserSnapshotBootstrapTest {
+
+    private static final String TOPIC = "user-snapshots";
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private KafkaTemplate<String, UserResponseDTO> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationContext applicationContext;
+
+    private UserSnapshotBootstrap bootstrap;
+
+    @BeforeEach
+    void setUp() {
+        UserEventsProperties properties = new UserEventsProperties("user-events", 3, (short) 1,
+                new UserEventsProperties.Outbox(500, Duration.ofMillis(500), Duration.ofSeconds(1)),
+                new UserEventsProperties.Producer(131072, Duration.ofMillis(20), "lz4", 5, true),
+                new UserEventsProperties.Snapshots(TOPIC, BATCH_SIZE, Duration.ofDays(1)));
+        bootstrap = new UserSnapshotBootstrap(userRepository, outboxEventRepository, userMapper,
+                new UserSnapshotPublisher(kafkaTemplate, properties), transactionManager, properties,
+                applicationContext);
+    }
+
+    @Test
+    void bootstrap_PagesByIdUnderRelayLockUntilPartialBatch() {
+        User first = createUser(1L, "first@test.com");
+        User second = createUser(5L, "second@test.com");
+        User third = createUser(9L, "third@test.com");
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(BATCH_SIZE))).thenReturn(List.of(first, second));
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(5L, Limit.of(BATCH_SIZE))).thenReturn(List.of(third));
+        for (User user : List.of(first, second, third)) {
+            UserResponseDTO snapshot = new UserResponseDTO(user.getId(), user.getName(), user.getEmail(), 30, null);
+            when(userMapper.toDTO(user)).thenReturn(snapshot);
+            when(kafkaTemplate.send(TOPIC, String.valueOf(user.getId()), snapshot)).thenReturn(acknowledged());
+        }
+
+        assertEquals(3, bootstrap.bootstrap());
+
+        InOrder order = inOrder(outboxEventRepository, userRepository, kafkaTemplate);
+        order.verify(outboxEventRepository).acquireRelayLock(OutboxRelay.RELAY_LOCK_KEY);
+        order.verify(userRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(BATCH_SIZE));
+        order.verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any());
+        order.verify(kafkaTemplate).flush();
+        order.verify(outboxEventRepository).acquireRelayLock(OutboxRelay.RELAY_LOCK_KEY);
+        order.verify(userRepository).findByIdGreaterThanOrderByIdAsc(5L, Limit.of(BATCH_SIZE));
+        order.verify(kafkaTemplate).send(TOPIC, "9", userMapper.toDTO(third));
+    }
+
+    @Test
+    void bootstrap_EmptyTable_PublishesNothing() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(BATCH_SIZE)))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals(0, bootstrap.bootstrap());
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    void bootstrap_SendFailed_Throws() {
+        User user = createUser(1L, "first@test.com");
+        UserResponseDTO snapshot = new UserResponseDTO(1L, user.getName(), user.getEmail(), 30, null);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(BATCH_SIZE))).thenReturn(List.of(user));
+        when(userMapper.toDTO(user)).thenReturn(snapshot);
+        when(kafkaTemplate.send(TOPIC, "1", snapshot))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        assertThrows(IllegalStateException.class, () -> bootstrap.bootstrap());
+    }
+
+    private CompletableFuture<SendResult<String, UserResponseDTO>> acknowledged() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private User createUser(Long id, String email) {
+        User user = new User("Test User", email, 30);
+        user.setId(id);
+        return user;
+    }
+}